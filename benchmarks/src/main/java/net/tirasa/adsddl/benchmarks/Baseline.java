@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the reference suites with the GC profiler, so that allocation rates per operation
+ * (<tt>gc.alloc.rate.norm</tt>) are reported along with timings, and compares two result files.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar net.tirasa.adsddl.benchmarks.Baseline run current.csv
+ * java -cp benchmarks/target/benchmarks.jar net.tirasa.adsddl.benchmarks.Baseline compare benchmarks/baseline.csv current.csv
+ * </pre>
+ *
+ * The committed <tt>benchmarks/baseline.csv</tt> is the outcome of <tt>run</tt> against the library as it was before
+ * the performance work, with the same descriptors fed as binary fixtures where the suites rely on newer APIs (e.g.
+ * {@link net.tirasa.adsddl.ntsd.SddlTextParser}); <tt>SddlBenchmark.equalsCopy</tt> has no baseline, as
+ * {@link net.tirasa.adsddl.ntsd.SDDL#equals(Object)} used to fail on descriptors without SACL. Timings only compare on
+ * the same hardware and JVM, allocation rates are mostly stable across them.
+ */
+public final class Baseline {
+
+    /**
+     * Suites run by default.
+     */
+    private static final String[] SUITES = {
+        SddlBenchmark.class.getSimpleName(),
+        PrimitivesBenchmark.class.getSimpleName() };
+
+    private Baseline() {
+        // private constructor for static utility class
+    }
+
+    public static void main(final String[] args) throws IOException, RunnerException {
+        if (args.length >= 2 && "run".equals(args[0])) {
+            run(Path.of(args[1]), args.length > 2 ? Arrays.copyOfRange(args, 2, args.length) : SUITES);
+        } else if (args.length == 3 && "compare".equals(args[0])) {
+            compare(Path.of(args[1]), Path.of(args[2]));
+        } else {
+            System.err.println("Usage: Baseline run <result.csv> [benchmark regex...]");
+            System.err.println("       Baseline compare <baseline.csv> <result.csv>");
+            System.exit(1);
+        }
+    }
+
+    private static void run(final Path result, final String[] includes) throws RunnerException {
+        final OptionsBuilder builder = new OptionsBuilder();
+        for (String include : includes) {
+            builder.include(include);
+        }
+        final Options options = builder.
+                addProfiler(GCProfiler.class).
+                resultFormat(ResultFormatType.CSV).
+                result(result.toString()).
+                build();
+        new Runner(options).run();
+    }
+
+    private static void compare(final Path baseline, final Path result) throws IOException {
+        final Map<String, String[]> before = read(baseline);
+        final Map<String, String[]> after = read(result);
+
+        System.out.printf(Locale.ROOT, "%-72s %14s %14s %9s  %s%n",
+                "Benchmark", "Baseline", "Current", "Delta", "Unit");
+        for (Map.Entry<String, String[]> entry : after.entrySet()) {
+            final String[] current = entry.getValue();
+            final String[] reference = before.get(entry.getKey());
+
+            final double score = Double.parseDouble(current[1]);
+            if (reference == null) {
+                System.out.printf(Locale.ROOT, "%-72s %14s %14.3f %9s  %s%n",
+                        entry.getKey(), "-", score, "-", current[2]);
+            } else {
+                final double base = Double.parseDouble(reference[1]);
+                System.out.printf(Locale.ROOT, "%-72s %14.3f %14.3f %8.1f%%  %s%n",
+                        entry.getKey(), base, score, base == 0 ? 0 : (score - base) * 100 / base, current[2]);
+            }
+        }
+    }
+
+    /**
+     * Reads a JMH CSV result file.
+     *
+     * @param path result file.
+     * @return mode, score and unit, keyed by benchmark name and parameters.
+     * @throws IOException if the file cannot be read.
+     */
+    private static Map<String, String[]> read(final Path path) throws IOException {
+        final List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        final List<String> header = split(lines.get(0));
+        final int benchmark = header.indexOf("Benchmark");
+        final int mode = header.indexOf("Mode");
+        final int score = header.indexOf("Score");
+        final int unit = header.indexOf("Unit");
+
+        final Map<String, String[]> res = new LinkedHashMap<>();
+        for (String line : lines.subList(1, lines.size())) {
+            final List<String> values = split(line);
+
+            final StringBuilder key = new StringBuilder(
+                    values.get(benchmark).replace("net.tirasa.adsddl.benchmarks.", ""));
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).startsWith("Param: ") && !values.get(i).isEmpty()) {
+                    key.append(' ').append(header.get(i).substring(7)).append('=').append(values.get(i));
+                }
+            }
+            res.put(key.toString(), new String[] { values.get(mode), values.get(score), values.get(unit) });
+        }
+        return res;
+    }
+
+    private static List<String> split(final String line) {
+        final List<String> res = new ArrayList<>();
+        final StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                res.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        res.add(value.toString());
+        return res;
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.benchmarks;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Corpus of binary security descriptors stored into a single file, meant to be memory-mapped by benchmarks and
+ * stress tests.
+ *
+ * The file is little-endian: the magic <tt>ADSC</tt>, a 32-bit format version and the descriptor count are followed
+ * by count + 1 absolute 32-bit offsets, the last one being the file size, and then by the descriptors themselves.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar net.tirasa.adsddl.benchmarks.Corpus corpus.bin 1000000 \
+ *     seed=42 aces=4-64 objectAceRatio=0.5 inheritedRatio=0.6 sidCardinality=64 saclRatio=0.2
+ * </pre>
+ */
+public final class Corpus {
+
+    private static final int MAGIC = 0x43534441;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 12;
+
+    private final ByteBuffer buff;
+
+    private final int count;
+
+    private Corpus(final ByteBuffer buff) {
+        this.buff = buff;
+
+        if (buff.limit() < HEADER_SIZE || buff.getInt(0) != MAGIC || buff.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not a security descriptor corpus");
+        }
+        count = buff.getInt(8);
+        if (count < 0 || HEADER_SIZE + (count + 1L) * 4 > buff.limit() || offset(count) != buff.limit()) {
+            throw new IllegalArgumentException("Truncated security descriptor corpus");
+        }
+    }
+
+    /**
+     * Memory-maps a corpus file, read only.
+     *
+     * @param path corpus file.
+     * @return corpus.
+     * @throws IOException if the file cannot be read.
+     */
+    public static Corpus open(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Corpus files larger than 2GB are not supported: " + path);
+            }
+            return new Corpus(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).
+                    order(ByteOrder.LITTLE_ENDIAN));
+        }
+    }
+
+    /**
+     * Writes a corpus file of descriptors taken from the given generator.
+     *
+     * @param path corpus file, replaced if existing.
+     * @param generator descriptor generator.
+     * @param count number of descriptors.
+     * @return size of the written file.
+     * @throws IOException if the file cannot be written.
+     */
+    public static long write(final Path path, final CorpusGenerator generator, final int count) throws IOException {
+        if (count < 0) {
+            throw new IllegalArgumentException("Invalid descriptor count: " + count);
+        }
+
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + (count + 1) * 4).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(count);
+
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+            // descriptors first, staged in large chunks, then the header with the collected offsets
+            final ByteBuffer chunk = ByteBuffer.allocateDirect(1 << 20);
+            long offset = header.capacity();
+            channel.position(offset);
+            for (int i = 0; i < count; i++) {
+                final byte[] sd = generator.next();
+                if (offset + sd.length > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Corpus files larger than 2GB are not supported: " + path);
+                }
+
+                header.putInt((int) offset);
+                offset += sd.length;
+
+                if (chunk.remaining() < sd.length) {
+                    drain(chunk, channel);
+                }
+                if (chunk.remaining() < sd.length) {
+                    channel.write(ByteBuffer.wrap(sd));
+                } else {
+                    chunk.put(sd);
+                }
+            }
+            drain(chunk, channel);
+            header.putInt((int) offset);
+
+            header.flip();
+            channel.position(0);
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            return offset;
+        }
+    }
+
+    private static void drain(final ByteBuffer chunk, final FileChannel channel) throws IOException {
+        chunk.flip();
+        while (chunk.hasRemaining()) {
+            channel.write(chunk);
+        }
+        chunk.clear();
+    }
+
+    private int offset(final int index) {
+        return buff.getInt(HEADER_SIZE + index * 4);
+    }
+
+    /**
+     * Gets the number of descriptors.
+     *
+     * @return number of descriptors.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Gets a descriptor, without copying it.
+     *
+     * @param index descriptor index.
+     * @return read-only little-endian buffer, positioned at the first byte of the descriptor and limited to its last.
+     */
+    public ByteBuffer get(final int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+        }
+        return buff.duplicate().limit(offset(index + 1)).position(offset(index)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Gets a copy of a descriptor.
+     *
+     * @param index descriptor index.
+     * @return security descriptor as byte array.
+     */
+    public byte[] getBytes(final int index) {
+        final ByteBuffer sd = get(index);
+        final byte[] res = new byte[sd.remaining()];
+        sd.get(res);
+        return res;
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: Corpus <corpus file> <count> [seed=<n>] [aces=<min>-<max>] "
+                    + "[objectAceRatio=<r>] [inheritedRatio=<r>] [deniedRatio=<r>] [sidCardinality=<n>] "
+                    + "[saclRatio=<r>]");
+            System.exit(1);
+        }
+
+        long seed = 42;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].startsWith("seed=")) {
+                seed = Long.parseLong(args[i].substring(5));
+            }
+        }
+
+        final CorpusGenerator generator = new CorpusGenerator(seed);
+        for (int i = 2; i < args.length; i++) {
+            final int eq = args[i].indexOf('=');
+            final String key = eq < 0 ? args[i] : args[i].substring(0, eq);
+            final String value = args[i].substring(eq + 1);
+            switch (key) {
+                case "seed":
+                    break;
+                case "aces":
+                    final int dash = value.indexOf('-');
+                    generator.setAceCount(Integer.parseInt(dash < 0 ? value : value.substring(0, dash)),
+                            Integer.parseInt(value.substring(dash + 1)));
+                    break;
+                case "objectAceRatio":
+                    generator.setObjectAceRatio(Double.parseDouble(value));
+                    break;
+                case "inheritedRatio":
+                    generator.setInheritedRatio(Double.parseDouble(value));
+                    break;
+                case "deniedRatio":
+                    generator.setDeniedRatio(Double.parseDouble(value));
+                    break;
+                case "sidCardinality":
+                    generator.setSidCardinality(Integer.parseInt(value));
+                    break;
+                case "saclRatio":
+                    generator.setSaclRatio(Double.parseDouble(value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        final Path path = Path.of(args[0]);
+        final long size = write(path, generator, Integer.parseInt(args[1]));
+        System.out.println("Written " + args[1] + " descriptors, " + size + " bytes, to " + path);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import net.tirasa.adsddl.ntsd.ParseResult;
+import net.tirasa.adsddl.ntsd.SDDL;
+import net.tirasa.adsddl.ntsd.SdView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Walks a memory-mapped {@link Corpus}, one descriptor per invocation, so that timings average over a realistic mix
+ * of sizes and shapes instead of a single descriptor kept hot in cache.
+ *
+ * A corpus file can be given with <tt>-p corpus=&lt;file&gt;</tt> (see {@link Corpus#main(String[])}); by default a
+ * temporary one of {@link #DEFAULT_SIZE} descriptors with default {@link CorpusGenerator} settings is used.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CorpusBenchmark {
+
+    private static final int DEFAULT_SIZE = 100_000;
+
+    @Param({ "" })
+    private String corpus;
+
+    private Path temporary;
+
+    private Corpus descriptors;
+
+    private int index;
+
+    @Setup
+    public void setUp() throws IOException {
+        Path path;
+        if (corpus.isEmpty()) {
+            temporary = Files.createTempFile("adsddl-corpus", ".bin");
+            Corpus.write(temporary, new CorpusGenerator(42), DEFAULT_SIZE);
+            path = temporary;
+        } else {
+            path = Path.of(corpus);
+        }
+        descriptors = Corpus.open(path);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (temporary != null) {
+            Files.delete(temporary);
+        }
+    }
+
+    private int next() {
+        if (++index == descriptors.size()) {
+            index = 0;
+        }
+        return index;
+    }
+
+    @Benchmark
+    public SDDL parse() {
+        return new SDDL(descriptors.getBytes(next()));
+    }
+
+    @Benchmark
+    public ParseResult tryParse() {
+        return SDDL.tryParse(descriptors.getBytes(next()));
+    }
+
+    @Benchmark
+    public int viewAceCount() {
+        return SdView.wrap(descriptors.get(next())).getDacl().getAceCount();
+    }
+}
@@ -0,0 +1,407 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import net.tirasa.adsddl.ntsd.ACE;
+import net.tirasa.adsddl.ntsd.ACL;
+import net.tirasa.adsddl.ntsd.SID;
+import net.tirasa.adsddl.ntsd.data.AceFlag;
+import net.tirasa.adsddl.ntsd.data.AceObjectFlags;
+import net.tirasa.adsddl.ntsd.data.AceRights;
+import net.tirasa.adsddl.ntsd.data.AceType;
+import net.tirasa.adsddl.ntsd.utils.GUID;
+import net.tirasa.adsddl.ntsd.utils.LittleEndian;
+
+/**
+ * Seeded generator of synthetic security descriptors, in binary form, built through {@link SID#newInstance(byte[])},
+ * {@link ACE#newInstance(AceType)} and {@link AceObjectFlags}.
+ *
+ * Each descriptor has an owner, a group and a canonically ordered DACL (explicit denials, explicit grants, inherited
+ * ACEs) and may have an audit SACL; trustees are drawn from a pool of well-known and domain principals with a skewed
+ * distribution, so that a few of them recur in most descriptors as in real directories.
+ *
+ * The sequence of descriptors only depends on the seed and on the settings, which must not be changed once
+ * {@link #next()} has been invoked.
+ */
+public final class CorpusGenerator {
+
+    private static final byte[] WORLD_AUTHORITY = { 0, 0, 0, 0, 0, 1 };
+
+    private static final byte[] NT_AUTHORITY = { 0, 0, 0, 0, 0, 5 };
+
+    /**
+     * Well-known principals: SY, PS, AU, ED, WD, BA, AO, RU.
+     */
+    private static final long[][] WELL_KNOWN = {
+        { 18 }, { 10 }, { 11 }, { 9 }, { 0 }, { 32, 544 }, { 32, 548 }, { 32, 554 } };
+
+    /**
+     * Domain group RIDs: DA, DU, EA, DD, RS; user and group RIDs follow from 1100.
+     */
+    private static final long[] DOMAIN_RIDS = { 512, 513, 519, 516, 553 };
+
+    /**
+     * Access masks of plain ACEs: full control, generic read, LCRPLORC, RC.
+     */
+    private static final int[] MASKS = { 0x000F01FF, 0x00020094, 0x00020014, 0x00020000 };
+
+    /**
+     * Access masks of object ACEs: RP, WP, RPWP, CR, CCDC.
+     */
+    private static final int[] OBJECT_MASKS = { 0x00000010, 0x00000020, 0x00000030, 0x00000100, 0x00000003 };
+
+    private final long seed;
+
+    private Random random;
+
+    private int minAces = 4;
+
+    private int maxAces = 64;
+
+    private double objectAceRatio = 0.5;
+
+    private double inheritedRatio = 0.6;
+
+    private double deniedRatio = 0.05;
+
+    private int sidCardinality = 64;
+
+    private double saclRatio = 0.2;
+
+    private SID domain;
+
+    private SID domainAdmins;
+
+    private SID domainUsers;
+
+    private SID[] principals;
+
+    private byte[][] objectTypes;
+
+    private byte[][] inheritedObjectTypes;
+
+    /**
+     * Constructor.
+     *
+     * @param seed random seed.
+     */
+    public CorpusGenerator(final long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Sets the range of the number of DACL ACEs, uniformly distributed; defaults to 4 to 64.
+     *
+     * As an ACL cannot exceed {@link ACL#MAX_SIZE} bytes, counts beyond about 1600 ACEs make {@link #next()} fail.
+     *
+     * @param min minimum number of ACEs.
+     * @param max maximum number of ACEs, inclusive.
+     * @return the current generator.
+     */
+    public CorpusGenerator setAceCount(final int min, final int max) {
+        if (min < 0 || max < min || max > 0xFFFF) {
+            throw new IllegalArgumentException("Invalid ACE count range: " + min + '-' + max);
+        }
+        this.minAces = min;
+        this.maxAces = max;
+        return this;
+    }
+
+    /**
+     * Sets the ratio of object ACEs among DACL ACEs; defaults to 0.5.
+     *
+     * @param ratio ratio, between 0 and 1.
+     * @return the current generator.
+     */
+    public CorpusGenerator setObjectAceRatio(final double ratio) {
+        this.objectAceRatio = checkRatio(ratio);
+        return this;
+    }
+
+    /**
+     * Sets the ratio of inherited ACEs among DACL ACEs; defaults to 0.6.
+     *
+     * @param ratio ratio, between 0 and 1.
+     * @return the current generator.
+     */
+    public CorpusGenerator setInheritedRatio(final double ratio) {
+        this.inheritedRatio = checkRatio(ratio);
+        return this;
+    }
+
+    /**
+     * Sets the ratio of denials among explicit DACL ACEs; defaults to 0.05.
+     *
+     * @param ratio ratio, between 0 and 1.
+     * @return the current generator.
+     */
+    public CorpusGenerator setDeniedRatio(final double ratio) {
+        this.deniedRatio = checkRatio(ratio);
+        return this;
+    }
+
+    /**
+     * Sets the number of distinct trustee SIDs across the corpus; defaults to 64.
+     *
+     * @param cardinality number of distinct SIDs, at least 1.
+     * @return the current generator.
+     */
+    public CorpusGenerator setSidCardinality(final int cardinality) {
+        if (cardinality < 1) {
+            throw new IllegalArgumentException("Invalid SID cardinality: " + cardinality);
+        }
+        this.sidCardinality = cardinality;
+        return this;
+    }
+
+    /**
+     * Sets the ratio of descriptors having a SACL; defaults to 0.2.
+     *
+     * @param ratio ratio, between 0 and 1.
+     * @return the current generator.
+     */
+    public CorpusGenerator setSaclRatio(final double ratio) {
+        this.saclRatio = checkRatio(ratio);
+        return this;
+    }
+
+    private static double checkRatio(final double ratio) {
+        if (!(ratio >= 0 && ratio <= 1)) {
+            throw new IllegalArgumentException("Invalid ratio: " + ratio);
+        }
+        return ratio;
+    }
+
+    private void init() {
+        random = new Random(seed);
+
+        domain = SID.newInstance(NT_AUTHORITY).addSubAuthority(21).
+                addSubAuthority(random.nextInt() & 0xFFFFFFFFL).
+                addSubAuthority(random.nextInt() & 0xFFFFFFFFL).
+                addSubAuthority(random.nextInt() & 0xFFFFFFFFL).
+                freeze();
+        domainAdmins = domainSid(512);
+        domainUsers = domainSid(513);
+
+        principals = new SID[sidCardinality];
+        for (int i = 0; i < sidCardinality; i++) {
+            if (i < WELL_KNOWN.length) {
+                final SID sid = SID.newInstance(WELL_KNOWN[i][0] == 0 ? WORLD_AUTHORITY : NT_AUTHORITY);
+                for (long sub : WELL_KNOWN[i]) {
+                    sid.addSubAuthority(sub);
+                }
+                principals[i] = sid.freeze();
+            } else {
+                final int j = i - WELL_KNOWN.length;
+                principals[i] = domainSid(j < DOMAIN_RIDS.length ? DOMAIN_RIDS[j] : 1100 + j - DOMAIN_RIDS.length);
+            }
+        }
+
+        objectTypes = guids(Descriptors.OBJECT_TYPES);
+        inheritedObjectTypes = guids(Descriptors.INHERITED_OBJECT_TYPES);
+    }
+
+    private SID domainSid(final long rid) {
+        final SID sid = SID.newInstance(NT_AUTHORITY);
+        for (int i = 0; i < domain.getSubAuthorityCount(); i++) {
+            sid.addSubAuthority(domain.getSubAuthority(i));
+        }
+        return sid.addSubAuthority(rid).freeze();
+    }
+
+    private static byte[][] guids(final String[] values) {
+        final List<byte[]> res = new ArrayList<>(values.length);
+        for (String value : values) {
+            if (!value.isEmpty()) {
+                res.add(GUID.getGuidAsByteArray(value));
+            }
+        }
+        return res.toArray(new byte[0][]);
+    }
+
+    /**
+     * Generates the next security descriptor.
+     *
+     * @return security descriptor as byte array.
+     * @throws IllegalStateException if the generated SACL or DACL exceeds {@link ACL#MAX_SIZE} bytes.
+     */
+    public byte[] next() {
+        if (random == null) {
+            init();
+        }
+
+        final SID owner = random.nextInt(4) == 0 ? principal() : domainAdmins;
+        final SID group = domainUsers;
+
+        final List<ACE> sacl = random.nextDouble() < saclRatio ? sacl() : null;
+        final List<ACE> dacl = dacl();
+
+        final int saclSize = sacl == null ? 0 : aclSize(sacl);
+        final int daclSize = aclSize(dacl);
+        final int size = 20 + saclSize + daclSize + owner.getSize() + group.getSize();
+
+        final ByteBuffer buff = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+
+        // self relative, DACL present, DACL auto inherited; SACL present and auto inherited
+        int control = 0x8000 | 0x0400 | 0x0004;
+        if (sacl != null) {
+            control |= 0x0800 | 0x0010;
+        }
+
+        buff.put(0, (byte) 0x01);
+        LittleEndian.putUInt16(buff, 2, control);
+        buff.position(20);
+
+        if (sacl != null) {
+            LittleEndian.putInt32(buff, 12, buff.position());
+            writeAcl(sacl, saclSize, buff);
+        }
+
+        LittleEndian.putInt32(buff, 16, buff.position());
+        writeAcl(dacl, daclSize, buff);
+
+        LittleEndian.putInt32(buff, 4, buff.position());
+        owner.writeTo(buff);
+
+        LittleEndian.putInt32(buff, 8, buff.position());
+        group.writeTo(buff);
+
+        return buff.array();
+    }
+
+    private SID principal() {
+        // skewed towards the head of the pool: well-known and domain groups recur most
+        final double r = random.nextDouble();
+        return principals[(int) (r * r * r * principals.length)];
+    }
+
+    private List<ACE> dacl() {
+        final int count = minAces + random.nextInt(maxAces - minAces + 1);
+
+        final List<ACE> denied = new ArrayList<>();
+        final List<ACE> allowed = new ArrayList<>();
+        final List<ACE> inherited = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (random.nextDouble() < inheritedRatio) {
+                inherited.add(ace(false, true));
+            } else if (random.nextDouble() < deniedRatio) {
+                denied.add(ace(true, false));
+            } else {
+                allowed.add(ace(false, false));
+            }
+        }
+
+        final List<ACE> res = new ArrayList<>(count);
+        res.addAll(denied);
+        res.addAll(allowed);
+        res.addAll(inherited);
+        return res;
+    }
+
+    private ACE ace(final boolean deny, final boolean inherited) {
+        final boolean object = random.nextDouble() < objectAceRatio;
+
+        final ACE ace;
+        if (object) {
+            ace = ACE.newInstance(
+                    deny ? AceType.ACCESS_DENIED_OBJECT_ACE_TYPE : AceType.ACCESS_ALLOWED_OBJECT_ACE_TYPE);
+            ace.setRights(AceRights.parseValue(OBJECT_MASKS[random.nextInt(OBJECT_MASKS.length)]));
+
+            final AceObjectFlags objectFlags = new AceObjectFlags();
+            final boolean inheritedObjectType = inherited && random.nextBoolean();
+            if (!inheritedObjectType || random.nextInt(4) != 0) {
+                objectFlags.addFlag(AceObjectFlags.Flag.ACE_OBJECT_TYPE_PRESENT);
+                ace.setObjectType(objectTypes[random.nextInt(objectTypes.length)]);
+            }
+            if (inheritedObjectType) {
+                objectFlags.addFlag(AceObjectFlags.Flag.ACE_INHERITED_OBJECT_TYPE_PRESENT);
+                ace.setInheritedObjectType(inheritedObjectTypes[random.nextInt(inheritedObjectTypes.length)]);
+            }
+            ace.setObjectFlags(objectFlags);
+        } else {
+            ace = ACE.newInstance(deny ? AceType.ACCESS_DENIED_ACE_TYPE : AceType.ACCESS_ALLOWED_ACE_TYPE);
+            ace.setRights(AceRights.parseValue(MASKS[random.nextInt(MASKS.length)]));
+        }
+
+        if (inherited) {
+            ace.addFlag(AceFlag.INHERITED_ACE);
+            ace.addFlag(AceFlag.CONTAINER_INHERIT_ACE);
+            if (random.nextInt(3) == 0) {
+                ace.addFlag(AceFlag.INHERIT_ONLY_ACE);
+            }
+        } else if (random.nextInt(3) == 0) {
+            ace.addFlag(AceFlag.CONTAINER_INHERIT_ACE);
+        }
+
+        ace.setSid(principal());
+        return ace;
+    }
+
+    private List<ACE> sacl() {
+        final int count = 1 + random.nextInt(4);
+
+        final List<ACE> res = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final ACE ace = ACE.newInstance(AceType.SYSTEM_AUDIT_ACE_TYPE);
+            ace.setRights(AceRights.parseValue(i == 0 ? 0x000D0127 : MASKS[random.nextInt(MASKS.length)]));
+            ace.addFlag(random.nextBoolean() ? AceFlag.SUCCESSFUL_ACCESS_ACE_FLAG : AceFlag.FAILED_ACCESS_ACE_FLAG);
+            ace.addFlag(AceFlag.CONTAINER_INHERIT_ACE);
+            if (i > 0) {
+                ace.addFlag(AceFlag.INHERITED_ACE);
+            }
+            ace.setSid(i == 0 ? principals[Math.min(4, principals.length - 1)] : principal());
+            res.add(ace);
+        }
+        return res;
+    }
+
+    private static int aclSize(final List<ACE> aces) {
+        int size = 8;
+        for (ACE ace : aces) {
+            size += ace.getSize();
+        }
+        return size;
+    }
+
+    private static void writeAcl(final List<ACE> aces, final int size, final ByteBuffer buff) {
+        if (size > ACL.MAX_SIZE) {
+            throw new IllegalStateException(
+                    "ACL too large: " + size + " bytes and " + aces.size() + " ACEs, maximum is " + ACL.MAX_SIZE);
+        }
+
+        boolean objectAces = false;
+        for (ACE ace : aces) {
+            objectAces |= ace.getType() == AceType.ACCESS_ALLOWED_OBJECT_ACE_TYPE
+                    || ace.getType() == AceType.ACCESS_DENIED_OBJECT_ACE_TYPE;
+        }
+
+        final int start = buff.position();
+        // ACL_REVISION_DS is required as soon as object ACEs are present
+        buff.put(start, (byte) (objectAces ? 0x04 : 0x02));
+        LittleEndian.putUInt16(buff, start + 2, size);
+        LittleEndian.putUInt16(buff, start + 4, aces.size());
+        buff.position(start + 8);
+
+        for (ACE ace : aces) {
+            ace.writeTo(buff);
+        }
+    }
+}
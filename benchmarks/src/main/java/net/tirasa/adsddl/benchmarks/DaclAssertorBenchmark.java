@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import javax.naming.NamingException;
+import net.tirasa.adsddl.ntsd.ACL;
+import net.tirasa.adsddl.ntsd.SID;
+import net.tirasa.adsddl.ntsd.SddlTextParser;
+import net.tirasa.adsddl.ntsd.data.AceFlag;
+import net.tirasa.adsddl.ntsd.data.AceObjectFlags;
+import net.tirasa.adsddl.ntsd.data.AceRights;
+import net.tirasa.adsddl.ntsd.dacl.AceAssertion;
+import net.tirasa.adsddl.ntsd.dacl.AdRoleAssertion;
+import net.tirasa.adsddl.ntsd.dacl.DACLAssertor;
+import net.tirasa.adsddl.ntsd.dacl.DomainJoinRoleAssertion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link DACLAssertor#doAssert(AdRoleAssertion)} for a user with token groups, sweeping DACL size, number of token
+ * groups and length of the assertion list: the {@link DomainJoinRoleAssertion} ones, followed by custom property and
+ * extended right assertions.
+ *
+ * The DACL grants the domain join rights to the last token group and about half of the custom assertions to random
+ * token groups; remaining ACEs are granted to token groups, to other domain principals and to well-known ones, and a
+ * few of them are denials, so that both matching and denial tracking are exercised.
+ *
+ * Sample time mode reports latency percentiles; allocation per invocation needs the GC profiler:
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar DaclAssertorBenchmark -prof gc
+ * java -cp benchmarks/target/benchmarks.jar net.tirasa.adsddl.benchmarks.Baseline run assertor.csv DaclAssertorBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DaclAssertorBenchmark {
+
+    private static final String[] OTHER_TRUSTEES = { "DA", "SY", "AO", "PS", "AU", "BA", "EA", "ED" };
+
+    /**
+     * Rights of custom assertions: RP, WP, CR.
+     */
+    private static final int[] OBJECT_RIGHTS = { 0x00000010, 0x00000020, 0x00000100 };
+
+    /**
+     * Assertion role made of arbitrary assertions.
+     */
+    private static final class CustomRoleAssertion extends AdRoleAssertion {
+
+        CustomRoleAssertion(final List<AceAssertion> assertions, final SID principal, final List<SID> tokenGroups) {
+            super(assertions, principal, false, tokenGroups);
+        }
+    }
+
+    @Param({ "10", "200", "2000" })
+    private int aceCount;
+
+    @Param({ "1", "100", "1000" })
+    private int tokenGroupCount;
+
+    @Param({ "7", "25", "100" })
+    private int assertionCount;
+
+    private ACL dacl;
+
+    private AdRoleAssertion role;
+
+    private DACLAssertor assertor;
+
+    @Setup
+    public void setUp() throws NamingException {
+        final Random random = new Random(42);
+
+        final SID principal = domainSid(1500);
+        final List<SID> tokenGroups = new ArrayList<>(tokenGroupCount);
+        for (int i = 0; i < tokenGroupCount; i++) {
+            tokenGroups.add(domainSid(2000 + i));
+        }
+
+        final List<AceAssertion> domainJoin = new DomainJoinRoleAssertion(principal, false, tokenGroups).
+                getAssertions();
+        final List<AceAssertion> assertions = new ArrayList<>(
+                domainJoin.subList(0, Math.min(assertionCount, domainJoin.size())));
+        while (assertions.size() < assertionCount) {
+            assertions.add(new AceAssertion(
+                    AceRights.parseValue(OBJECT_RIGHTS[random.nextInt(OBJECT_RIGHTS.length)]),
+                    new AceObjectFlags(AceObjectFlags.Flag.ACE_OBJECT_TYPE_PRESENT),
+                    Descriptors.OBJECT_TYPES[random.nextInt(Descriptors.OBJECT_TYPES.length)],
+                    null,
+                    AceFlag.CONTAINER_INHERIT_ACE,
+                    null));
+        }
+        role = new CustomRoleAssertion(assertions, principal, tokenGroups);
+
+        // grants satisfying the assertions, capped to the DACL size
+        final List<String> grants = new ArrayList<>();
+        final String last = tokenGroups.get(tokenGroupCount - 1).toString();
+        for (int i = 0; i < assertions.size(); i++) {
+            if (i < domainJoin.size()) {
+                grants.add(ace(assertions.get(i), last));
+            } else if (random.nextBoolean()) {
+                grants.add(ace(assertions.get(i), tokenGroups.get(random.nextInt(tokenGroupCount)).toString()));
+            }
+        }
+
+        final StringBuilder bld = new StringBuilder("D:AI");
+        for (int i = Math.min(grants.size(), aceCount); i < aceCount; i++) {
+            final String trustee;
+            final int kind = random.nextInt(4);
+            if (kind < 2) {
+                trustee = tokenGroups.get(random.nextInt(tokenGroupCount)).toString();
+            } else if (kind == 2) {
+                trustee = domainSid(1100 + random.nextInt(64)).toString();
+            } else {
+                trustee = OTHER_TRUSTEES[random.nextInt(OTHER_TRUSTEES.length)];
+            }
+
+            final String objectType = Descriptors.OBJECT_TYPES[random.nextInt(Descriptors.OBJECT_TYPES.length)];
+            if (random.nextInt(50) == 0) {
+                bld.append("(OD;CI;CR;").append(objectType).append(";;").append(trustee).append(')');
+            } else if (random.nextBoolean()) {
+                bld.append("(OA;CI;RP;").append(objectType).append(";;").append(trustee).append(')');
+            } else {
+                bld.append("(A;CI;RC;;;").append(trustee).append(')');
+            }
+        }
+        for (String grant : grants.subList(0, Math.min(grants.size(), aceCount))) {
+            bld.append(grant);
+        }
+
+        dacl = new SddlTextParser(Descriptors.DOMAIN).parse(bld).getDacl();
+        assertor = new DACLAssertor(dacl, true);
+        // packs the DACL once
+        assertor.doAssert(role);
+    }
+
+    private static SID domainSid(final long rid) {
+        return SID.fromString(Descriptors.DOMAIN + "-" + rid);
+    }
+
+    /**
+     * Builds the SDDL string of an ACE granting the given assertion.
+     */
+    private static String ace(final AceAssertion assertion, final String trustee) {
+        final boolean object = assertion.getObjectType() != null || assertion.getInheritedObjectType() != null;
+        return (object ? "(OA;" : "(A;")
+                + (assertion.getRequiredFlag() == null ? "" : assertion.getRequiredFlag().toString()) + ';'
+                + "0x" + Long.toHexString(assertion.getAceRight().asUInt()) + ';'
+                + (assertion.getObjectType() == null ? "" : assertion.getObjectType()) + ';'
+                + (assertion.getInheritedObjectType() == null ? "" : assertion.getInheritedObjectType()) + ';'
+                + trustee + ')';
+    }
+
+    /**
+     * Steady state: the assertor and its packed DACL are reused.
+     */
+    @Benchmark
+    public boolean doAssert() throws NamingException {
+        return assertor.doAssert(role);
+    }
+
+    /**
+     * A fresh assertor per invocation, hence packing the DACL too.
+     */
+    @Benchmark
+    public boolean doAssertFresh() throws NamingException {
+        return new DACLAssertor(dacl, true).doAssert(role);
+    }
+}
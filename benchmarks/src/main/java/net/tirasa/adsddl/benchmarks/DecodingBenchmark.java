@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.tirasa.adsddl.ntsd.utils.LittleEndian;
+import net.tirasa.adsddl.ntsd.utils.NumberFacility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares little-endian field decoding through {@link NumberFacility} (byte array round-trips, as done by parsers
+ * up to 1.9) with {@link LittleEndian} absolute reads.
+ *
+ * Each invocation decodes every 32-bit word of a 64 KB buffer, i.e. the largest possible ACL.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DecodingBenchmark {
+
+    private static final int SIZE = 64 * 1024;
+
+    private IntBuffer intBuffer;
+
+    private ByteBuffer leBuffer;
+
+    @Setup
+    public void setUp() {
+        final byte[] src = new byte[SIZE];
+        new Random(42).nextBytes(src);
+
+        intBuffer = ByteBuffer.wrap(src).asIntBuffer();
+        leBuffer = ByteBuffer.wrap(src).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Benchmark
+    public long uint32NumberFacility() {
+        long res = 0;
+        for (int i = 0; i < SIZE / 4; i++) {
+            res += NumberFacility.getReverseUInt(intBuffer.get(i));
+        }
+        return res;
+    }
+
+    @Benchmark
+    public long uint32LittleEndian() {
+        long res = 0;
+        for (int i = 0; i < SIZE / 4; i++) {
+            res += LittleEndian.getUInt32(leBuffer, i * 4);
+        }
+        return res;
+    }
+
+    @Benchmark
+    public long uint16NumberFacility() {
+        long res = 0;
+        for (int i = 0; i < SIZE / 4; i++) {
+            final byte[] bytes = NumberFacility.getBytes(intBuffer.get(i));
+            res += NumberFacility.getInt(bytes[3], bytes[2]);
+        }
+        return res;
+    }
+
+    @Benchmark
+    public long uint16LittleEndian() {
+        long res = 0;
+        for (int i = 0; i < SIZE / 4; i++) {
+            res += LittleEndian.getUInt16(leBuffer, i * 4 + 2);
+        }
+        return res;
+    }
+
+    @Benchmark
+    public int flagsNumberFacility() {
+        int res = 0;
+        for (int i = 0; i < SIZE / 4; i++) {
+            final byte[] bytes = NumberFacility.getBytes(intBuffer.get(i));
+            if (NumberFacility.getBits(bytes[3], bytes[2])[13]) {
+                res++;
+            }
+        }
+        return res;
+    }
+
+    @Benchmark
+    public int flagsLittleEndian() {
+        int res = 0;
+        for (int i = 0; i < SIZE / 4; i++) {
+            if ((LittleEndian.getUInt16(leBuffer, i * 4 + 2) & 0x0004) != 0) {
+                res++;
+            }
+        }
+        return res;
+    }
+}
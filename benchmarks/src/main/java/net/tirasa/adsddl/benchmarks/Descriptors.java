@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.benchmarks;
+
+import java.util.Random;
+import net.tirasa.adsddl.ntsd.SID;
+import net.tirasa.adsddl.ntsd.SddlTextParser;
+
+/**
+ * Builds synthetic, yet realistic, security descriptors with a given number of DACL ACEs: a mix of plain and object
+ * ACEs, explicit and inherited, granted to well-known and domain principals, over the property sets and extended
+ * rights commonly found on AD user objects.
+ *
+ * Output only depends on the ACE count and on the seed, so that results are comparable across runs.
+ */
+final class Descriptors {
+
+    static final SID DOMAIN = SID.fromString("S-1-5-21-3750063493-4261579475-3088784596");
+
+    private static final String[] TRUSTEES = { "DA", "SY", "AO", "PS", "RS", "AU", "BA", "EA", "WD", "ED" };
+
+    private static final String[] RIGHTS = { "RPWPCRCCDCLCLORCWOWDSDDTSW", "RPLCLORC", "CR", "RPWP", "RP", "RC" };
+
+    private static final String[] FLAGS = { "", "", "CI", "CIID", "CIIOID", "OICI" };
+
+    static final String[] OBJECT_TYPES = {
+        "ab721a53-1e2f-11d0-9819-00aa0040529b",
+        "ab721a54-1e2f-11d0-9819-00aa0040529b",
+        "ab721a56-1e2f-11d0-9819-00aa0040529b",
+        "77b5b886-944a-11d1-aebd-0000f80367c1",
+        "e45795b2-9455-11d1-aebd-0000f80367c1",
+        "e45795b3-9455-11d1-aebd-0000f80367c1",
+        "037088f8-0ae1-11d2-b422-00a0c968f939",
+        "4c164200-20c0-11d0-a768-00aa006e0529",
+        "bc0ac240-79a9-11d0-9020-00c04fc2d4cf",
+        "59ba2f42-79a2-11d0-9020-00c04fc2d3cf",
+        "5f202010-79a5-11d0-9020-00c04fc2d4cf",
+        "bf967a86-0de6-11d0-a285-00aa003049e2" };
+
+    static final String[] INHERITED_OBJECT_TYPES = {
+        "", "", "", "bf967aba-0de6-11d0-a285-00aa003049e2", "bf967a9c-0de6-11d0-a285-00aa003049e2" };
+
+    private Descriptors() {
+        // private constructor for static utility class
+    }
+
+    /**
+     * Builds the SDDL string of a security descriptor.
+     *
+     * @param aceCount number of DACL ACEs.
+     * @param seed random seed.
+     * @return SDDL string.
+     */
+    static String text(final int aceCount, final long seed) {
+        final Random random = new Random(seed);
+
+        final StringBuilder bld = new StringBuilder(aceCount * 96 + 32);
+        bld.append("O:DAG:DAD:AI");
+        for (int i = 0; i < aceCount; i++) {
+            final String trustee = random.nextInt(4) == 0
+                    ? "S-1-5-21-3750063493-4261579475-3088784596-" + (1100 + random.nextInt(64))
+                    : pick(random, TRUSTEES);
+
+            if (random.nextBoolean()) {
+                bld.append("(OA;").append(pick(random, FLAGS)).append(';').append(pick(random, RIGHTS)).append(';').
+                        append(pick(random, OBJECT_TYPES)).append(';').append(pick(random, INHERITED_OBJECT_TYPES)).
+                        append(';').append(trustee).append(')');
+            } else {
+                bld.append("(A;").append(pick(random, FLAGS)).append(';').append(pick(random, RIGHTS)).append(";;;").
+                        append(trustee).append(')');
+            }
+        }
+        return bld.toString();
+    }
+
+    /**
+     * Builds the binary form of a security descriptor.
+     *
+     * @param aceCount number of DACL ACEs.
+     * @param seed random seed.
+     * @return security descriptor as byte array.
+     */
+    static byte[] binary(final int aceCount, final long seed) {
+        return new SddlTextParser(DOMAIN).toByteArray(text(aceCount, seed));
+    }
+
+    private static String pick(final Random random, final String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+import net.tirasa.adsddl.ntsd.SDDL;
+import net.tirasa.adsddl.ntsd.SID;
+import net.tirasa.adsddl.ntsd.SddlTextParser;
+import net.tirasa.adsddl.ntsd.data.AceRights;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link SDDL#toByteArray()} with {@link SDDL#writeTo(ByteBuffer)} into a reused heap or direct buffer, over
+ * the <tt>defaultSecurityDescriptor</tt> of the AD <tt>user</tt> class.
+ *
+ * The <tt>parsed</tt> variants serialize an instance parsed from binary, whose unchanged ACLs and ACEs are copied
+ * verbatim, and the same instance after changing a single ACE.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EncodingBenchmark {
+
+    private SDDL sddl;
+
+    private SDDL parsed;
+
+    private SDDL changed;
+
+    private ByteBuffer heap;
+
+    private ByteBuffer direct;
+
+    @Setup
+    public void setUp() {
+        sddl = new SddlTextParser(SID.fromString("S-1-5-21-3750063493-4261579475-3088784596")).
+                parse(SddlTextParserBenchmark.USER_DEFAULT_SD);
+        parsed = new SDDL(sddl.toByteArray());
+        changed = new SDDL(sddl.toByteArray());
+        changed.getDacl().getAce(0).setRights(AceRights.parseValue(0x10));
+        heap = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+        direct = ByteBuffer.allocateDirect(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Benchmark
+    public byte[] toByteArray() {
+        return sddl.toByteArray();
+    }
+
+    @Benchmark
+    public int writeToHeap() {
+        heap.clear();
+        return sddl.writeTo(heap);
+    }
+
+    @Benchmark
+    public int writeToDirect() {
+        direct.clear();
+        return sddl.writeTo(direct);
+    }
+
+    @Benchmark
+    public int writeToParsed() {
+        heap.clear();
+        return parsed.writeTo(heap);
+    }
+
+    @Benchmark
+    public int writeToParsedOneChange() {
+        heap.clear();
+        return changed.writeTo(heap);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import net.tirasa.adsddl.ntsd.SID;
+import net.tirasa.adsddl.ntsd.utils.GUID;
+import net.tirasa.adsddl.ntsd.utils.Hex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building blocks invoked once per SID or per object ACE: {@link SID#parse(byte[])},
+ * {@link GUID#getGuidAsString(byte[])} and {@link Hex}, over a domain user SID and an object type GUID.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrimitivesBenchmark {
+
+    private byte[] sid;
+
+    private byte[] guid;
+
+    @Setup
+    public void setUp() {
+        sid = SID.fromString("S-1-5-21-1496946806-2192648263-3843101252-1029").toByteArray();
+        guid = GUID.getGuidAsByteArray("bf967a86-0de6-11d0-a285-00aa003049e2");
+    }
+
+    @Benchmark
+    public SID sidParse() {
+        return SID.parse(sid);
+    }
+
+    @Benchmark
+    public String guidAsString() {
+        return GUID.getGuidAsString(guid);
+    }
+
+    @Benchmark
+    public String hexGet() {
+        return Hex.get(sid);
+    }
+
+    @Benchmark
+    public String hexGetEscaped() {
+        return Hex.getEscaped(guid);
+    }
+}
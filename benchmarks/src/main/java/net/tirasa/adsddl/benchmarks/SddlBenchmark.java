@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import net.tirasa.adsddl.ntsd.SDDL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Core operations on whole security descriptors: parse, serialize, stringify and compare, over synthetic descriptors
+ * of increasing DACL size (see {@link Descriptors}).
+ *
+ * Instances are not frozen, hence string form, fingerprint and hash code are computed at each invocation; SIDs and
+ * ACEs still cache their own.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SddlBenchmark {
+
+    @Param({ "8", "64", "512" })
+    private int aceCount;
+
+    private byte[] binary;
+
+    private SDDL sddl;
+
+    private SDDL copy;
+
+    @Setup
+    public void setUp() {
+        binary = Descriptors.binary(aceCount, 42);
+        sddl = new SDDL(binary);
+        copy = new SDDL(binary.clone());
+    }
+
+    @Benchmark
+    public SDDL parse() {
+        return new SDDL(binary);
+    }
+
+    @Benchmark
+    public byte[] toByteArray() {
+        return sddl.toByteArray();
+    }
+
+    @Benchmark
+    public String toStringUncached() {
+        return sddl.toString();
+    }
+
+    @Benchmark
+    public boolean equalsCopy() {
+        return sddl.equals(copy);
+    }
+
+    @Benchmark
+    public int hashCodeUncached() {
+        return sddl.hashCode();
+    }
+}
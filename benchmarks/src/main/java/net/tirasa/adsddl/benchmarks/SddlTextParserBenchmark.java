@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import net.tirasa.adsddl.ntsd.SDDL;
+import net.tirasa.adsddl.ntsd.SID;
+import net.tirasa.adsddl.ntsd.SddlTextParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link SddlTextParser} over the <tt>defaultSecurityDescriptor</tt> of the AD <tt>user</tt> class,
+ * both to object graph and to binary form.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SddlTextParserBenchmark {
+
+    static final String USER_DEFAULT_SD = "D:(A;;RPWPCRCCDCLCLORCWOWDSDDTSW;;;DA)"
+            + "(A;;RPWPCRCCDCLCLORCWOWDSDDTSW;;;SY)"
+            + "(A;;RPWPCRCCDCLCLORCWOWDSDDTSW;;;AO)"
+            + "(A;;RPLCLORC;;;PS)"
+            + "(OA;;CR;ab721a53-1e2f-11d0-9819-00aa0040529b;;PS)"
+            + "(OA;;CR;ab721a54-1e2f-11d0-9819-00aa0040529b;;PS)"
+            + "(OA;;CR;ab721a56-1e2f-11d0-9819-00aa0040529b;;PS)"
+            + "(OA;;RPWP;77B5B886-944A-11d1-AEBD-0000F80367C1;;PS)"
+            + "(OA;;RPWP;E45795B2-9455-11d1-AEBD-0000F80367C1;;PS)"
+            + "(OA;;RPWP;E45795B3-9455-11d1-AEBD-0000F80367C1;;PS)"
+            + "(OA;;RP;037088f8-0ae1-11d2-b422-00a0c968f939;;RS)"
+            + "(OA;;RP;4c164200-20c0-11d0-a768-00aa006e0529;;RS)"
+            + "(OA;;RP;bc0ac240-79a9-11d0-9020-00c04fc2d4cf;;RS)"
+            + "(A;;RC;;;AU)"
+            + "(OA;;RP;59ba2f42-79a2-11d0-9020-00c04fc2d3cf;;AU)"
+            + "(OA;;RP;77B5B886-944A-11d1-AEBD-0000F80367C1;;AU)"
+            + "(OA;;RP;E45795B3-9455-11d1-AEBD-0000F80367C1;;AU)"
+            + "(OA;;RP;e48d0154-bcf8-11d1-8702-00c04fb96050;;AU)"
+            + "(OA;;CR;ab721a53-1e2f-11d0-9819-00aa0040529b;;WD)"
+            + "(OA;;RP;5f202010-79a5-11d0-9020-00c04fc2d4cf;;RS)"
+            + "(OA;;RPWP;bf967a7f-0de6-11d0-a285-00aa003049e2;;CA)"
+            + "(OA;;RP;46a9b11d-60ae-405a-b7e8-ff8a58d456d2;;S-1-5-32-560)"
+            + "(OA;;RPWP;6db69a1c-9422-11d1-aebd-0000f80367c1;;S-1-5-32-561)"
+            + "(OA;;RPWP;5805bc62-bdc9-4428-a5e2-856a0f4c185e;;S-1-5-32-561)"
+            + "(OA;;RPWP;4b6e08c0-df3c-11d1-9c86-006008764d0e;;S-1-5-32-561)";
+
+    private SddlTextParser parser;
+
+    @Setup
+    public void setUp() {
+        parser = new SddlTextParser(SID.fromString("S-1-5-21-3750063493-4261579475-3088784596"));
+    }
+
+    @Benchmark
+    public SDDL parse() {
+        return parser.parse(USER_DEFAULT_SD);
+    }
+
+    @Benchmark
+    public byte[] toByteArray() {
+        return parser.toByteArray(USER_DEFAULT_SD);
+    }
+}
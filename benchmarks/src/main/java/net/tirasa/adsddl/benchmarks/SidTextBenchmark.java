@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import net.tirasa.adsddl.ntsd.SID;
+import net.tirasa.adsddl.ntsd.utils.NumberFacility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares textual SID conversions: {@link SID#fromString(CharSequence)} against the <tt>split</tt> based conversion
+ * callers used to write by hand, and {@link SID#appendTo(StringBuilder)} against {@link SID#toString()}.
+ *
+ * Formatting benchmarks decode a new SID from binary at each invocation, so that the cached string form of
+ * {@link SID#toString()} does not hide the formatting cost.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SidTextBenchmark {
+
+    private static final String DOMAIN_USER = "S-1-5-21-1496946806-2192648263-3843101252-1029";
+
+    private byte[] binary;
+
+    private StringBuilder bld;
+
+    @Setup
+    public void setUp() {
+        binary = SID.fromString(DOMAIN_USER).toByteArray();
+        bld = new StringBuilder(64);
+    }
+
+    @Benchmark
+    public SID fromString() {
+        return SID.fromString(DOMAIN_USER);
+    }
+
+    @Benchmark
+    public SID fromStringBySplit() {
+        final String[] parts = DOMAIN_USER.split("-");
+
+        final byte[] authority = Arrays.copyOfRange(
+                ByteBuffer.allocate(8).putLong(Long.parseLong(parts[2])).array(), 2, 8);
+        final SID sid = SID.newInstance(authority);
+        for (int i = 3; i < parts.length; i++) {
+            sid.addSubAuthority(NumberFacility.getUIntBytes(Long.parseLong(parts[i])));
+        }
+        return sid;
+    }
+
+    @Benchmark
+    public String toStringUncached() {
+        return SID.parse(binary).toString();
+    }
+
+    @Benchmark
+    public int appendTo() {
+        bld.setLength(0);
+        return SID.parse(binary).appendTo(bld).length();
+    }
+
+    @Benchmark
+    public SID parseBinary() {
+        return SID.parse(binary);
+    }
+}
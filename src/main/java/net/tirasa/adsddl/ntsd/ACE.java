@@ -15,20 +15,20 @@
  */
 package net.tirasa.adsddl.ntsd;
 
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
-import java.nio.IntBuffer;
-import java.util.ArrayList;
+import java.nio.ByteOrder;
+import java.util.AbstractList;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import net.tirasa.adsddl.ntsd.data.AceFlag;
 import net.tirasa.adsddl.ntsd.data.AceObjectFlags;
 import net.tirasa.adsddl.ntsd.data.AceRights;
 import net.tirasa.adsddl.ntsd.data.AceType;
+import net.tirasa.adsddl.ntsd.data.Guid;
 import net.tirasa.adsddl.ntsd.utils.GUID;
-import net.tirasa.adsddl.ntsd.utils.Hex;
-import net.tirasa.adsddl.ntsd.utils.NumberFacility;
+import net.tirasa.adsddl.ntsd.utils.LittleEndian;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,15 +49,37 @@ public class ACE {
     private AceType type;
 
     /**
+     * ACE flags bitmask.
+     *
      * @see AceFlag
      */
-    private List<AceFlag> flags;
+    private byte flags;
+
+    /**
+     * Live list view of the ACE flags bitmask, lazily built.
+     */
+    private List<AceFlag> flagList;
+
+    /**
+     * ACCESS_MASK, meaningful as long as {@link #rights} has not been built.
+     */
+    private int accessMask;
 
     /**
      * @see AceRights
      */
     private AceRights rights;
 
+    /**
+     * Object flags bitmask, meaningful as long as {@link #objectFlags} has not been built.
+     */
+    private int objectFlagsMask;
+
+    /**
+     * Whether object flags are part of this ACE.
+     */
+    private boolean objectFlagsPresent;
+
     /**
      * @see AceObjectFlags
      */
@@ -83,6 +105,42 @@ public class ACE {
      */
     private SID sid;
 
+    /**
+     * Buffer this ACE was parsed from, kept for verbatim serialization as long as the ACE is not changed; null
+     * otherwise.
+     */
+    private ByteBuffer source;
+
+    /**
+     * Start position of this ACE into {@link #source}.
+     */
+    private int sourceOffset;
+
+    /**
+     * Change count of the trustee SID when last checked: see {@link #sync()}.
+     */
+    private int sidModCount;
+
+    /**
+     * Number of changes since creation, used by the holding ACLs to detect changes.
+     */
+    private int modCount;
+
+    /**
+     * Cached fingerprint; 0 when not (yet) available.
+     */
+    private long fingerprint;
+
+    /**
+     * Whether this instance cannot be modified.
+     */
+    private boolean frozen;
+
+    /**
+     * Cached string representation, only kept once frozen.
+     */
+    private String str;
+
     /**
      * Default constructor.
      */
@@ -102,57 +160,86 @@ public class ACE {
     }
 
     /**
-     * Load the ACE from the buffer returning the last ACE segment position into the buffer.
+     * Load the ACE from the buffer returning the position right after the ACE into the buffer.
      *
      * @param buff source buffer.
-     * @param start start loading position.
-     * @return last loading position.
+     * @param start start loading position (in bytes).
+     * @return next loading position (in bytes).
      */
-    int parse(final IntBuffer buff, final int start) {
-        int pos = start;
+    int parse(final ByteBuffer buff, final int start) {
+        return parse(buff, start, null, false);
+    }
 
-        byte[] bytes = NumberFacility.getBytes(buff.get(pos));
-        type = AceType.parseValue(bytes[0]);
-        flags = AceFlag.parseValue(bytes[1]);
+    /**
+     * Load the ACE from the buffer returning the position right after the ACE into the buffer.
+     *
+     * @param buff source buffer.
+     * @param start start loading position (in bytes).
+     * @param sidPool SID pool used to resolve the trustee; null to always decode a new SID.
+     * @param keepSource whether the source buffer can be referenced for verbatim serialization: if so, its content
+     * must not change afterwards.
+     * @return next loading position (in bytes).
+     */
+    int parse(final ByteBuffer buff, final int start, final SidPool sidPool, final boolean keepSource) {
+        type = AceType.parseValue(buff.get(start));
+        flags = buff.get(start + 1);
 
-        int size = NumberFacility.getInt(bytes[3], bytes[2]);
+        final int size = LittleEndian.getUInt16(buff, start + 2);
 
-        pos++;
-        rights = AceRights.parseValue(NumberFacility.getReverseInt(buff.get(pos)));
+        accessMask = LittleEndian.getInt32(buff, start + 4);
+        rights = null;
 
-        if (type == AceType.ACCESS_ALLOWED_OBJECT_ACE_TYPE || type == AceType.ACCESS_DENIED_OBJECT_ACE_TYPE) {
-            pos++;
-            objectFlags = AceObjectFlags.parseValue(NumberFacility.getReverseInt(buff.get(pos)));
+        int pos = start + 8;
 
-            if (objectFlags.getFlags().contains(AceObjectFlags.Flag.ACE_OBJECT_TYPE_PRESENT)) {
+        objectFlags = null;
+        objectFlagsPresent = type == AceType.ACCESS_ALLOWED_OBJECT_ACE_TYPE
+                || type == AceType.ACCESS_DENIED_OBJECT_ACE_TYPE;
+        if (objectFlagsPresent) {
+            objectFlagsMask = LittleEndian.getInt32(buff, pos);
+            pos += 4;
+
+            if ((objectFlagsMask & AceObjectFlags.Flag.ACE_OBJECT_TYPE_PRESENT.getValue()) != 0) {
                 objectType = new byte[16];
-                for (int j = 0; j < 4; j++) {
-                    pos++;
-                    System.arraycopy(NumberFacility.getBytes(buff.get(pos)), 0, objectType, j * 4, 4);
+                for (int j = 0; j < 16; j++) {
+                    objectType[j] = buff.get(pos + j);
                 }
+                pos += 16;
             }
 
-            if (objectFlags.getFlags().contains(AceObjectFlags.Flag.ACE_INHERITED_OBJECT_TYPE_PRESENT)) {
+            if ((objectFlagsMask & AceObjectFlags.Flag.ACE_INHERITED_OBJECT_TYPE_PRESENT.getValue()) != 0) {
                 inheritedObjectType = new byte[16];
-                for (int j = 0; j < 4; j++) {
-                    pos++;
-                    System.arraycopy(NumberFacility.getBytes(buff.get(pos)), 0, inheritedObjectType, j * 4, 4);
+                for (int j = 0; j < 16; j++) {
+                    inheritedObjectType[j] = buff.get(pos + j);
                 }
+                pos += 16;
             }
         }
 
-        pos++;
-        sid = new SID();
-        pos = sid.parse(buff, pos);
+        if (sidPool == null) {
+            sid = new SID();
+            pos = sid.parse(buff, pos);
+        } else {
+            // not frozen if the pool is full
+            sid = sidPool.parse(buff, pos);
+            pos += sid.getSize();
+        }
+        sidModCount = sid.getModCount();
 
-        int lastPos = start + (size / 4) - 1;
-        applicationData = new byte[4 * (lastPos - pos)];
+        final int end = start + size;
+        if (end > pos) {
+            applicationData = new byte[end - pos];
+            for (int j = 0; j < applicationData.length; j++) {
+                applicationData[j] = buff.get(pos + j);
+            }
+            pos = end;
+        }
 
-        int index = 0;
-        while (pos < lastPos) {
-            pos++;
-            System.arraycopy(NumberFacility.getBytes(buff.get(pos)), 0, applicationData, index, 4);
-            index += 4;
+        // verbatim serialization only makes sense if it would produce the same bytes as encoding
+        if (keepSource && pos == end && getSize() == size) {
+            source = buff;
+            sourceOffset = start;
+        } else {
+            source = null;
         }
 
         return pos;
@@ -172,10 +259,35 @@ public class ACE {
      * Gets ACE flags.
      *
      * @see AceFlag
-     * @return ACE flags; empty list if no flag has been specified.
+     * @return ACE flags, in {@link AceFlag} declaration order; empty list if no flag has been specified. The list is
+     * backed by this ACE: flags added to or removed from it are set or cleared on this ACE, unless frozen (see
+     * {@link #freeze()}).
      */
     public List<AceFlag> getFlags() {
-        return this.flags == null ? new ArrayList<AceFlag>() : this.flags;
+        if (flagList == null) {
+            flagList = new FlagList();
+        }
+        return flagList;
+    }
+
+    /**
+     * Gets ACE flags as bitmask.
+     *
+     * @see AceFlag
+     * @return ACE flags bitmask.
+     */
+    public byte getFlagsMask() {
+        return flags;
+    }
+
+    /**
+     * Checks whether the given ACE flag is set.
+     *
+     * @param flag ACE flag.
+     * @return <tt>true</tt> if set; <tt>false</tt> otherwise.
+     */
+    public boolean hasFlag(final AceFlag flag) {
+        return (flags & flag.getValue()) == flag.getValue();
     }
 
     /**
@@ -195,33 +307,67 @@ public class ACE {
      * @param applicationData application data.
      */
     public void setApplicationData(final byte[] applicationData) {
+        checkNotFrozen();
         this.applicationData = applicationData == null || applicationData.length == 0
                 ? null
                 : Arrays.copyOf(applicationData, applicationData.length);
+        changed();
     }
 
     /**
      * An ACCESS_MASK that specifies the user rights allowed by this ACE.
      *
      * @see AceRights
-     * @return ACE rights.
+     * @return ACE rights; changes to the returned instance are reflected by this ACE, unless frozen (see
+     * {@link #freeze()}).
      */
     public AceRights getRights() {
+        if (frozen) {
+            return AceRights.parseValue(accessMask);
+        }
+        if (rights == null) {
+            rights = AceRights.parseValue(accessMask);
+        }
         return rights;
     }
 
+    /**
+     * Gets the ACCESS_MASK that specifies the user rights allowed by this ACE, without building any {@link AceRights}.
+     *
+     * @return ACCESS_MASK as (possibly negative) int value.
+     */
+    public int getAccessMask() {
+        return rights == null ? accessMask : (int) rights.asUInt();
+    }
+
     /**
      * A 32-bit unsigned integer that specifies a set of bit flags that indicate whether the ObjectType and
      * InheritedObjectType fields contain valid data. This parameter can be one or more of the following values.
      *
      * @see AceObjectFlags
      *
-     * @return Flags.
+     * @return Flags; changes to the returned instance are reflected by this ACE, unless frozen (see
+     * {@link #freeze()}).
      */
     public AceObjectFlags getObjectFlags() {
+        if (frozen) {
+            return objectFlagsPresent ? AceObjectFlags.parseValue(objectFlagsMask) : null;
+        }
+        if (objectFlags == null && objectFlagsPresent) {
+            objectFlags = AceObjectFlags.parseValue(objectFlagsMask);
+        }
         return objectFlags;
     }
 
+    /**
+     * Gets object flags as bitmask, without building any {@link AceObjectFlags}.
+     *
+     * @return object flags bitmask; 0 if object flags are not available.
+     */
+    public int getObjectFlagsMask() {
+        return objectFlags == null ? objectFlagsMask : (int) objectFlags.asUInt();
+    }
+
     /**
      * A GUID (16 bytes) that identifies a property set, property, extended right, or type of child object. The purpose
      * of this GUID depends on the user rights specified in the Mask field. This field is valid only if the ACE
@@ -255,6 +401,26 @@ public class ACE {
                 : Arrays.copyOf(this.inheritedObjectType, this.inheritedObjectType.length);
     }
 
+    /**
+     * Checks whether ObjectType is equal to the given GUID, without copying it.
+     *
+     * @param guid GUID.
+     * @return <tt>true</tt> if equal; <tt>false</tt> otherwise.
+     */
+    public boolean isObjectType(final Guid guid) {
+        return guid.matches(objectType);
+    }
+
+    /**
+     * Checks whether InheritedObjectType is equal to the given GUID, without copying it.
+     *
+     * @param guid GUID.
+     * @return <tt>true</tt> if equal; <tt>false</tt> otherwise.
+     */
+    public boolean isInheritedObjectType(final Guid guid) {
+        return guid.matches(inheritedObjectType);
+    }
+
     /**
      * The SID of a trustee. The length of the SID MUST be a multiple of 4.
      *
@@ -274,7 +440,7 @@ public class ACE {
      * @return ACE size.
      */
     public int getSize() {
-        return 8 + (objectFlags == null ? 0 : 4)
+        return 8 + (objectFlagsPresent ? 4 : 0)
                 + (objectType == null ? 0 : 16)
                 + (inheritedObjectType == null ? 0 : 16)
                 + (sid == null ? 0 : sid.getSize())
@@ -288,7 +454,9 @@ public class ACE {
      * @see AceType
      */
     public void setType(final AceType type) {
+        checkNotFrozen();
         this.type = type;
+        changed();
     }
 
     /**
@@ -298,7 +466,15 @@ public class ACE {
      * @see AceFlag
      */
     public void addFlag(final AceFlag flag) {
-        this.flags.add(flag);
+        checkNotFrozen();
+        this.flags |= flag.getValue();
+        changed();
+    }
+
+    private void removeFlag(final AceFlag flag) {
+        checkNotFrozen();
+        this.flags &= ~flag.getValue();
+        changed();
     }
 
     /**
@@ -308,7 +484,22 @@ public class ACE {
      * @see AceRights
      */
     public void setRights(final AceRights rights) {
+        checkNotFrozen();
         this.rights = rights;
+        this.accessMask = rights == null ? 0 : (int) rights.asUInt();
+        changed();
+    }
+
+    /**
+     * Sets the ACCESS_MASK, without building any {@link AceRights}.
+     *
+     * @param accessMask ACCESS_MASK as (possibly negative) int value.
+     */
+    void setAccessMask(final int accessMask) {
+        checkNotFrozen();
+        this.rights = null;
+        this.accessMask = accessMask;
+        changed();
     }
 
     /**
@@ -318,7 +509,24 @@ public class ACE {
      * @see AceObjectFlags
      */
     public void setObjectFlags(final AceObjectFlags objectFlags) {
+        checkNotFrozen();
         this.objectFlags = objectFlags;
+        this.objectFlagsPresent = objectFlags != null;
+        this.objectFlagsMask = objectFlags == null ? 0 : (int) objectFlags.asUInt();
+        changed();
+    }
+
+    /**
+     * Sets object flags as bitmask, without building any {@link AceObjectFlags}.
+     *
+     * @param objectFlagsMask object flags bitmask.
+     */
+    void setObjectFlagsMask(final int objectFlagsMask) {
+        checkNotFrozen();
+        this.objectFlags = null;
+        this.objectFlagsPresent = true;
+        this.objectFlagsMask = objectFlagsMask;
+        changed();
     }
 
     /**
@@ -328,9 +536,11 @@ public class ACE {
      * @param objectType ACE object type.
      */
     public void setObjectType(final byte[] objectType) {
+        checkNotFrozen();
         this.objectType = objectType == null || objectType.length == 0
                 ? null
                 : Arrays.copyOf(objectType, objectType.length);
+        changed();
     }
 
     /**
@@ -339,9 +549,11 @@ public class ACE {
      * @param inheritedObjectType Inherited object type.
      */
     public void setInheritedObjectType(final byte[] inheritedObjectType) {
+        checkNotFrozen();
         this.inheritedObjectType = inheritedObjectType == null || inheritedObjectType.length == 0
                 ? null
                 : Arrays.copyOf(inheritedObjectType, inheritedObjectType.length);
+        changed();
     }
 
     /**
@@ -351,7 +563,109 @@ public class ACE {
      * @see SID
      */
     public void setSid(final SID sid) {
+        checkNotFrozen();
         this.sid = sid;
+        this.sidModCount = sid == null ? 0 : sid.getModCount();
+        changed();
+    }
+
+    /**
+     * Tells whether this instance cannot be modified.
+     *
+     * @return <tt>true</tt> if frozen; <tt>false</tt> otherwise.
+     * @see #freeze()
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Makes this instance, and its trustee SID, unmodifiable: setters raise {@link UnsupportedOperationException},
+     * while {@link #getRights()} and {@link #getObjectFlags()} return detached copies. Fingerprint and hash code are
+     * computed in advance, string representation is cached once computed.
+     *
+     * Once frozen, this instance can be read by many threads without further synchronization, provided that it is
+     * safely published, as for {@link SDDL#freeze()}.
+     *
+     * @return this instance.
+     */
+    public ACE freeze() {
+        if (!frozen) {
+            getFlags();
+            getFingerprint();
+            if (sid != null) {
+                sid.freeze();
+            }
+
+            // from now on, only rely on bitmasks: the objects handed out so far might still be changed
+            rights = null;
+            objectFlags = null;
+            frozen = true;
+        }
+        return this;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Frozen ACE instances cannot be modified");
+        }
+    }
+
+    /**
+     * Records a change: the source buffer, if any, is no longer good for serialization.
+     */
+    private void changed() {
+        source = null;
+        fingerprint = 0;
+        modCount++;
+    }
+
+    /**
+     * Catches up with changes made through the {@link AceRights} or {@link AceObjectFlags} instances of this ACE, or
+     * to its trustee SID, recording them as any other change.
+     */
+    void sync() {
+        if (!isSynced()) {
+            accessMask = getAccessMask();
+            objectFlagsMask = getObjectFlagsMask();
+            sidModCount = sid == null ? 0 : sid.getModCount();
+            changed();
+        }
+    }
+
+    /**
+     * Tells whether no change made through the {@link AceRights} or {@link AceObjectFlags} instances of this ACE, or
+     * to its trustee SID, is left to catch up with.
+     *
+     * @return <tt>true</tt> if every change has been recorded; <tt>false</tt> otherwise.
+     */
+    boolean isSynced() {
+        return frozen
+                || (getAccessMask() == accessMask
+                && getObjectFlagsMask() == objectFlagsMask
+                && (sid == null ? 0 : sid.getModCount()) == sidModCount);
+    }
+
+    /**
+     * Gets the number of changes recorded since creation; call {@link #sync()} first to include those made through
+     * rights and object flags objects or to the trustee SID.
+     *
+     * @return number of changes.
+     */
+    int getModCount() {
+        return modCount;
+    }
+
+    /**
+     * Checks whether this ACE can be serialized by copying its source bytes: rights and object flags might have been
+     * changed through the objects returned by {@link #getRights()} and {@link #getObjectFlags()}, and the trustee
+     * through its own setters.
+     *
+     * @return <tt>true</tt> if unchanged since parsed; <tt>false</tt> otherwise.
+     */
+    boolean isUnchanged() {
+        sync();
+        return source != null;
     }
 
     /**
@@ -360,52 +674,72 @@ public class ACE {
      * @return serialized ACE.
      */
     public byte[] toByteArray() {
+        final byte[] res = new byte[getSize()];
+        writeTo(ByteBuffer.wrap(res).order(ByteOrder.LITTLE_ENDIAN));
+        return res;
+    }
+
+    /**
+     * Serializes into the given buffer, starting at its current position; the position is then moved after the last
+     * byte written.
+     *
+     * @param dst destination buffer, either heap or direct, in any byte order.
+     * @return number of bytes written.
+     * @throws java.nio.BufferOverflowException if the buffer has not enough remaining bytes.
+     */
+    public int writeTo(final ByteBuffer dst) {
         final int size = getSize();
+        if (dst.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+
+        if (isUnchanged()) {
+            SourceSlice.copy(source, sourceOffset, size, dst);
+            return size;
+        }
 
-        final ByteBuffer buff = ByteBuffer.allocate(size);
+        final int start = dst.position();
 
         // Add type byte
-        buff.put(type.getValue());
+        dst.put(start, type.getValue());
 
         // add flags byte
-        byte flagSRC = 0x00;
-        for (AceFlag flag : getFlags()) {
-            flagSRC |= flag.getValue();
-        }
-        buff.put(flagSRC);
+        dst.put(start + 1, flags);
 
-        // add size bytes (2 reversed)
-        byte[] sizeSRC = NumberFacility.getBytes(size);
-        buff.put(sizeSRC[3]);
-        buff.put(sizeSRC[2]);
+        // add size
+        LittleEndian.putUInt16(dst, start + 2, size);
 
         // add right mask
-        buff.put(Hex.reverse(NumberFacility.getUIntBytes(rights.asUInt())));
+        LittleEndian.putInt32(dst, start + 4, getAccessMask());
+        dst.position(start + 8);
 
-        // add object flags (from int to byte[] + reversed)
-        if (objectFlags != null) {
-            buff.put(Hex.reverse(NumberFacility.getUIntBytes(objectFlags.asUInt())));
+        // add object flags
+        if (objectFlagsPresent) {
+            LittleEndian.putInt32(dst, start + 8, getObjectFlagsMask());
+            dst.position(start + 12);
         }
 
         // add object type
         if (objectType != null) {
-            buff.put(objectType);
+            dst.put(objectType);
         }
 
         // add inherited object type
         if (inheritedObjectType != null) {
-            buff.put(inheritedObjectType);
+            dst.put(inheritedObjectType);
         }
 
         // add sid
-        buff.put(sid.toByteArray());
+        if (sid != null) {
+            sid.writeTo(dst);
+        }
 
         // add application data
         if (applicationData != null) {
-            buff.put(applicationData);
+            dst.put(applicationData);
         }
 
-        return buff.array();
+        return size;
     }
 
     /**
@@ -416,62 +750,92 @@ public class ACE {
      */
     @Override
     public boolean equals(final Object ace) {
+        if (this == ace) {
+            return true;
+        }
+
         if (!(ace instanceof ACE)) {
             return false;
         }
 
         final ACE ext = ACE.class.cast(ace);
 
-        if (getSize() != ext.getSize()) {
-            LOG.debug("Different size");
-            return false;
-        }
-
-        if (getType() != ext.getType()) {
+        if (type != ext.type) {
             LOG.debug("Different type");
             return false;
         }
 
-        if (!Arrays.equals(getApplicationData(), ext.getApplicationData())) {
-            LOG.debug("Different application data");
+        if (flags != ext.flags) {
+            LOG.debug("Different flags");
             return false;
         }
 
-        if (!getSid().equals(ext.getSid())) {
-            LOG.debug("Different SID");
+        if (getAccessMask() != ext.getAccessMask()) {
+            LOG.debug("Different rights");
             return false;
         }
 
-        if ((getObjectFlags() == null && ext.getObjectFlags() != null)
-                || (getObjectFlags() != null && ext.getObjectFlags() == null)
-                || (getObjectFlags() != null && ext.getObjectFlags() != null
-                && getObjectFlags().asUInt() != ext.getObjectFlags().asUInt())) {
+        if (objectFlagsPresent != ext.objectFlagsPresent || getObjectFlagsMask() != ext.getObjectFlagsMask()) {
             LOG.debug("Different object flags");
             return false;
         }
 
-        if ((getObjectType() != null && ext.getObjectType() == null)
-                || (getObjectType() == null && ext.getObjectType() != null)
-                || (getObjectType() != null && ext.getObjectType() != null
-                && !Arrays.equals(getObjectType(), ext.getObjectType()))) {
+        if (!Arrays.equals(objectType, ext.objectType)) {
             LOG.debug("Different object type");
             return false;
         }
 
-        if ((getInheritedObjectType() != null && ext.getInheritedObjectType() == null)
-                || (getInheritedObjectType() == null && ext.getInheritedObjectType() != null)
-                || (getInheritedObjectType() != null && ext.getInheritedObjectType() != null
-                && !Arrays.equals(getInheritedObjectType(), ext.getInheritedObjectType()))) {
+        if (!Arrays.equals(inheritedObjectType, ext.inheritedObjectType)) {
             LOG.debug("Different inherited object type");
             return false;
         }
 
-        if (getRights().asUInt() != ext.getRights().asUInt()) {
-            LOG.debug("Different rights");
+        if (!Arrays.equals(applicationData, ext.applicationData)) {
+            LOG.debug("Different application data");
+            return false;
+        }
+
+        if (!Objects.equals(sid, ext.sid)) {
+            LOG.debug("Different SID");
             return false;
         }
 
-        return new HashSet<>(getFlags()).equals(new HashSet<>(ext.getFlags()));
+        return true;
+    }
+
+    /**
+     * Gets a 64-bit fingerprint of this ACE, consistent with {@link #equals(java.lang.Object)}: equal ACEs have equal
+     * fingerprints, while different ACEs are very unlikely to share the same one. The value is cached until the ACE
+     * or its trustee SID is changed.
+     *
+     * Changes made through rights and object flags objects, or to the trustee SID, are not recorded here, so that
+     * {@link #hashCode()} never alters this ACE: the cached value is not used while any of them is pending.
+     *
+     * @return fingerprint.
+     */
+    public long getFingerprint() {
+        if (frozen) {
+            return fingerprint;
+        }
+        if (!isSynced()) {
+            return computeFingerprint();
+        }
+        if (fingerprint == 0) {
+            fingerprint = computeFingerprint();
+        }
+        return fingerprint;
+    }
+
+    private long computeFingerprint() {
+        long res = Fingerprint.mix(Fingerprint.SEED, type == null ? Fingerprint.NULL : type.getValue());
+        res = Fingerprint.mix(res, flags);
+        res = Fingerprint.mix(res, getAccessMask());
+        res = Fingerprint.mix(res, objectFlagsPresent ? getObjectFlagsMask() : Fingerprint.NULL);
+        res = Fingerprint.mix(res, objectType);
+        res = Fingerprint.mix(res, inheritedObjectType);
+        res = Fingerprint.mix(res, applicationData);
+        res = Fingerprint.mix(res, sid == null ? Fingerprint.NULL : sid.getFingerprint());
+        return Fingerprint.finish(res);
     }
 
     /**
@@ -481,24 +845,30 @@ public class ACE {
      */
     @Override
     public String toString() {
+        if (str != null) {
+            return str;
+        }
+
         final StringBuilder bld = new StringBuilder();
         bld.append('(');
         bld.append(type.toString());
         bld.append(';');
 
-        for (AceFlag flag : flags) {
+        for (AceFlag flag : getFlags()) {
             bld.append(flag);
         }
 
         bld.append(';');
 
-        for (AceRights.ObjectRight right : rights.getObjectRights()) {
+        // not retained, so that this ACE does not get exposed to changes behind its back
+        final AceRights aceRights = AceRights.parseValue(getAccessMask());
+        for (AceRights.ObjectRight right : aceRights.getObjectRights()) {
             bld.append(right.name());
         }
 
-        if (rights.getOthers() != 0) {
+        if (aceRights.getOthers() != 0) {
             bld.append('[');
-            bld.append(rights.getOthers());
+            bld.append(aceRights.getOthers());
             bld.append(']');
         }
 
@@ -520,7 +890,11 @@ public class ACE {
 
         bld.append(')');
 
-        return bld.toString();
+        final String res = bld.toString();
+        if (frozen) {
+            str = res;
+        }
+        return res;
     }
 
     /**
@@ -530,16 +904,55 @@ public class ACE {
      */
     @Override
     public int hashCode() {
-        int hash = 3;
-        hash = 53 * hash + Objects.hashCode(this.type);
-        hash = 53 * hash + Objects.hashCode(this.flags);
-        hash = 53 * hash + Objects.hashCode(this.rights);
-        hash = 53 * hash + Objects.hashCode(this.objectFlags);
-        hash = 53 * hash + Arrays.hashCode(this.objectType);
-        hash = 53 * hash + Arrays.hashCode(this.inheritedObjectType);
-        hash = 53 * hash + Arrays.hashCode(this.applicationData);
-        hash = 53 * hash + Objects.hashCode(this.sid);
-        return hash;
+        return Fingerprint.toHashCode(getFingerprint());
     }
 
+    /**
+     * List view of the ACE flags bitmask: each flag is listed once, in {@link AceFlag} declaration order.
+     */
+    private final class FlagList extends AbstractList<AceFlag> {
+
+        @Override
+        public AceFlag get(final int index) {
+            int left = index;
+            for (AceFlag flag : AceFlag.values()) {
+                if (hasFlag(flag) && left-- == 0) {
+                    return flag;
+                }
+            }
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (AceFlag flag : AceFlag.values()) {
+                if (hasFlag(flag)) {
+                    size++;
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public void add(final int index, final AceFlag flag) {
+            // position is given by declaration order
+            addFlag(flag);
+        }
+
+        @Override
+        public AceFlag set(final int index, final AceFlag flag) {
+            final AceFlag previous = get(index);
+            removeFlag(previous);
+            addFlag(flag);
+            return previous;
+        }
+
+        @Override
+        public AceFlag remove(final int index) {
+            final AceFlag previous = get(index);
+            removeFlag(previous);
+            return previous;
+        }
+    }
 }
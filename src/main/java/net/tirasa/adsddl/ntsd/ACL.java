@@ -15,13 +15,19 @@
  */
 package net.tirasa.adsddl.ntsd;
 
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
-import java.nio.IntBuffer;
+import java.nio.ByteOrder;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import net.tirasa.adsddl.ntsd.data.AceFlag;
+import net.tirasa.adsddl.ntsd.data.AceType;
 import net.tirasa.adsddl.ntsd.data.AclRevision;
-import net.tirasa.adsddl.ntsd.utils.NumberFacility;
+import net.tirasa.adsddl.ntsd.utils.LittleEndian;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -58,6 +64,16 @@ public class ACL {
      */
     protected static final Logger LOG = LoggerFactory.getLogger(ACL.class);
 
+    /**
+     * Maximum size in bytes, as AclSize is an unsigned 16-bit integer.
+     */
+    public static final int MAX_SIZE = 0xFFFF;
+
+    /**
+     * Size in bytes beyond which a warning is logged, as the ACL approaches {@link #MAX_SIZE}.
+     */
+    public static final int SIZE_WARNING_THRESHOLD = 60 * 1024;
+
     /**
      * An unsigned 8-bit value that specifies the revision of the ACL. The only two legitimate forms of ACLs supported
      * for on-the-wire management or manipulation are type 2 and type 4. No other form is valid for manipulation on the
@@ -72,7 +88,90 @@ public class ACL {
      */
     private AclRevision revision;
 
-    private final List<ACE> aces = new ArrayList<>();
+    private final AceList aces = new AceList();
+
+    /**
+     * Cached size in bytes; -1 when it must be computed again.
+     */
+    private int size = -1;
+
+    /**
+     * Number of changes to the ACE list, to the ACEs or to their trustee SIDs since creation.
+     */
+    private int version;
+
+    /**
+     * Sum of the change counts of the decoded ACEs when last checked: as each count only grows, any change to an ACE
+     * (or to its trustee SID) alters the sum.
+     */
+    private int aceModCount;
+
+    /**
+     * Buffer this ACL was parsed from, kept for verbatim serialization as long as the ACL is not changed; null
+     * otherwise.
+     */
+    private ByteBuffer source;
+
+    /**
+     * Start position of this ACL into {@link #source}.
+     */
+    private int sourceOffset;
+
+    /**
+     * Change count of the ACE list when parsed.
+     */
+    private int sourceModCount;
+
+    /**
+     * Buffer ACEs not decoded yet are read from; null once all ACEs have been decoded.
+     */
+    private ByteBuffer lazySource;
+
+    /**
+     * SID pool used to resolve the trustees of ACEs not decoded yet; may be null.
+     */
+    private SidPool lazySidPool;
+
+    /**
+     * Whether ACEs not decoded yet can reference {@link #lazySource} for verbatim serialization.
+     */
+    private boolean lazyKeepSource;
+
+    /**
+     * Absolute offset into {@link #lazySource} of each ACE, built out of the AceSize fields only; null once all ACEs
+     * have been decoded.
+     */
+    private int[] aceOffsets;
+
+    /**
+     * Number of ACEs not decoded yet.
+     */
+    private int pendingAces;
+
+    /**
+     * Whether this instance cannot be modified.
+     */
+    private boolean frozen;
+
+    /**
+     * Cached fingerprint; 0 when not (yet) available.
+     */
+    private long fingerprint;
+
+    /**
+     * Change count of the ACE list when the fingerprint was computed.
+     */
+    private int fingerprintModCount;
+
+    /**
+     * Sum of the change counts of the decoded ACEs when the fingerprint was computed.
+     */
+    private int fingerprintAceModCount;
+
+    /**
+     * Cached string representation, only kept once frozen.
+     */
+    private String str;
 
     /**
      * Protected constructor.
@@ -81,34 +180,171 @@ public class ACL {
     }
 
     /**
-     * Load the ACL from the buffer returning the last ACL segment position into the buffer.
+     * Constructor.
+     *
+     * @param revision ACL revision.
+     */
+    ACL(final AclRevision revision) {
+        this.revision = revision;
+    }
+
+    /**
+     * Load the ACL from the buffer returning the position right after the last ACE into the buffer.
+     *
+     * @param buff source buffer.
+     * @param start start loading position (in bytes).
+     * @return next loading position (in bytes).
+     */
+    int parse(final ByteBuffer buff, final int start) {
+        return parse(buff, start, null, false);
+    }
+
+    /**
+     * Load the ACL from the buffer returning the position right after the last ACE into the buffer.
+     *
+     * @param buff source buffer.
+     * @param start start loading position (in bytes).
+     * @param sidPool SID pool used to resolve ACE trustees; null to always decode new SIDs.
+     * @param keepSource whether the source buffer can be referenced for verbatim serialization: if so, its content
+     * must not change afterwards.
+     * @return next loading position (in bytes).
+     */
+    int parse(final ByteBuffer buff, final int start, final SidPool sidPool, final boolean keepSource) {
+        return parse(buff, start, sidPool, keepSource, false);
+    }
+
+    /**
+     * Load the ACL from the buffer returning the position right after the last ACE into the buffer.
+     *
+     * When <tt>lazy</tt> is set, only the ACE headers are read, in order to build an index of ACE offsets out of their
+     * AceSize fields: each ACE is decoded on first access, while {@link #getAceType(int)}, {@link #getAceFlags(int)}
+     * and the <tt>next...Ace</tt> methods read the ACE header only. The source buffer is then referenced until all
+     * ACEs have been decoded, hence its content must not change afterwards.
      *
      * @param buff source buffer.
-     * @param start start loading position.
-     * @return last loading position.
+     * @param start start loading position (in bytes).
+     * @param sidPool SID pool used to resolve ACE trustees; null to always decode new SIDs.
+     * @param keepSource whether the source buffer can be referenced for verbatim serialization: if so, its content
+     * must not change afterwards.
+     * @param lazy whether ACEs must be decoded on first access.
+     * @return next loading position (in bytes).
+     * @throws IllegalArgumentException if <tt>lazy</tt> and any AceSize field is not valid.
      */
-    int parse(final IntBuffer buff, final int start) {
-        int pos = start;
-        // read for Dacl
-        byte[] bytes = NumberFacility.getBytes(buff.get(pos));
-        revision = AclRevision.parseValue(bytes[0]);
+    int parse(
+            final ByteBuffer buff,
+            final int start,
+            final SidPool sidPool,
+            final boolean keepSource,
+            final boolean lazy) {
 
-        pos++;
-        bytes = NumberFacility.getBytes(buff.get(pos));
-        final int aceCount = NumberFacility.getInt(bytes[1], bytes[0]);
+        revision = AclRevision.parseValue(buff.get(start));
 
-        for (int i = 0; i < aceCount; i++) {
-            pos++;
+        final int aceCount = LittleEndian.getUInt16(buff, start + 4);
+
+        if (lazy) {
+            return index(buff, start, aceCount, sidPool, keepSource);
+        }
 
+        int pos = start + 8;
+        for (int i = 0; i < aceCount; i++) {
             final ACE ace = new ACE();
+            pos = ace.parse(buff, pos, sidPool, keepSource);
+
             aces.add(ace);
+        }
+
+        // each ACE has been read as far as its encoding goes
+        setSize(pos - start);
 
-            pos = ace.parse(buff, pos);
+        // verbatim serialization only makes sense if it would produce the same bytes as encoding
+        if (keepSource && LittleEndian.getUInt16(buff, start + 2) == pos - start) {
+            source = buff;
+            sourceOffset = start;
+            sourceModCount = aces.getModCount();
+        } else {
+            source = null;
+        }
+
+        return pos;
+    }
+
+    private int index(
+            final ByteBuffer buff,
+            final int start,
+            final int aceCount,
+            final SidPool sidPool,
+            final boolean keepSource) {
+
+        final int[] offsets = new int[aceCount];
+
+        int pos = start + 8;
+        for (int i = 0; i < aceCount; i++) {
+            final int aceSize = LittleEndian.getUInt16(buff, pos + 2);
+            // header and access mask, at least
+            if (aceSize < 8) {
+                throw new IllegalArgumentException("Invalid ACE size " + aceSize + " at offset " + pos);
+            }
+            offsets[i] = pos;
+            pos += aceSize;
+        }
+        if (pos > buff.limit()) {
+            throw new IllegalArgumentException("ACEs exceed the source buffer by " + (pos - buff.limit()) + " bytes");
+        }
+
+        lazySource = aceCount == 0 ? null : buff;
+        lazySidPool = sidPool;
+        lazyKeepSource = keepSource;
+        aceOffsets = aceCount == 0 ? null : offsets;
+        pendingAces = aceCount;
+        aces.reset(aceCount);
+
+        // out of the AceSize fields, so that no ACE needs to be decoded for serialization
+        setSize(pos - start);
+
+        // ACEs are checked one by one, once decoded: see isUnchanged()
+        if (keepSource && LittleEndian.getUInt16(buff, start + 2) == pos - start) {
+            source = buff;
+            sourceOffset = start;
+            sourceModCount = aces.getModCount();
+        } else {
+            source = null;
         }
 
         return pos;
     }
 
+    /**
+     * Decodes the ACE at the given position, not decoded yet.
+     *
+     * @param index position.
+     * @return decoded ACE.
+     */
+    private ACE decode(final int index) {
+        final ACE ace = new ACE();
+        ace.parse(lazySource, aceOffsets[index], lazySidPool, lazyKeepSource);
+        if (ace.getSize() != getPendingAceSize(index)) {
+            // trustee SID overflowing AceSize
+            size = -1;
+        }
+
+        if (--pendingAces == 0) {
+            lazySource = null;
+            lazySidPool = null;
+            aceOffsets = null;
+        }
+        return ace;
+    }
+
+    /**
+     * Gets the size of the ACE at the given position, not decoded yet, out of its AceSize field.
+     *
+     * @param index position.
+     * @return ACE size in bytes.
+     */
+    private int getPendingAceSize(final int index) {
+        return LittleEndian.getUInt16(lazySource, aceOffsets[index] + 2);
+    }
+
     /**
      * Gets ACL revision.
      *
@@ -121,19 +357,144 @@ public class ACL {
     /**
      * Gets ACL size in bytes.
      *
+     * The size is cached: it is read while parsing, kept up to date when ACEs are added to the list returned by
+     * {@link #getAces()}, and computed again after any other change to the list or to the ACEs (including their
+     * trustee SIDs).
+     *
      * @return ACL size in bytes.
      */
     public int getSize() {
-        int size = 8;
+        checkAces();
+        if (size < 0) {
+            int res = 8;
+
+            // add aces, without decoding the pending ones
+            for (int i = 0; i < aces.size(); i++) {
+                final ACE ace = aces.peek(i);
+                res += ace == null ? getPendingAceSize(i) : ace.getSize();
+            }
 
-        // add aces
-        for (ACE ace : aces) {
-            size += ace.getSize();
+            setSize(res);
         }
 
         return size;
     }
 
+    /**
+     * Checks whether this ACL is close to {@link #MAX_SIZE}, i.e. beyond {@link #SIZE_WARNING_THRESHOLD}.
+     *
+     * @return <tt>true</tt> if close to the maximum size; <tt>false</tt> otherwise.
+     */
+    public boolean isNearSizeLimit() {
+        return getSize() > SIZE_WARNING_THRESHOLD;
+    }
+
+    /**
+     * Checks whether this ACL can be serialized by copying its source bytes, i.e. no ACE has been added, removed or
+     * replaced, and no ACE has been changed.
+     *
+     * @return <tt>true</tt> if unchanged since parsed; <tt>false</tt> otherwise.
+     */
+    boolean isUnchanged() {
+        if (source == null || aces.getModCount() != sourceModCount) {
+            return false;
+        }
+        for (int i = 0; i < aces.size(); i++) {
+            // ACEs not decoded yet are unchanged by definition
+            final ACE ace = aces.peek(i);
+            if (ace != null && !ace.isUnchanged()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tells whether this instance cannot be modified.
+     *
+     * @return <tt>true</tt> if frozen; <tt>false</tt> otherwise.
+     * @see #freeze()
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Makes this instance, and all of its ACEs, unmodifiable: the list returned by {@link #getAces()} raises
+     * {@link UnsupportedOperationException} on changes, as do ACE and SID setters. Size, fingerprint and hash code
+     * are computed in advance, string representation is cached once computed.
+     *
+     * Once frozen, this instance can be read by many threads without further synchronization, provided that it is
+     * safely published, as for {@link SDDL#freeze()}.
+     *
+     * @return this instance.
+     */
+    public ACL freeze() {
+        if (!frozen) {
+            for (int i = 0; i < aces.size(); i++) {
+                aces.get(i).freeze();
+            }
+            getSize();
+            fingerprint = getFingerprint();
+            frozen = true;
+        }
+        return this;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Frozen ACL instances cannot be modified");
+        }
+    }
+
+    /**
+     * Gets the number of changes to the ACE list, to the ACEs or to their trustee SIDs since creation, once caught up
+     * with changes made to the ACEs since last checked.
+     *
+     * @return number of changes.
+     */
+    int getVersion() {
+        checkAces();
+        return version;
+    }
+
+    /**
+     * Compares the change counts of the decoded ACEs with the ones last seen: on any change, the cached size is
+     * dropped and the version moves on. ACEs not decoded yet are unchanged by definition.
+     */
+    private void checkAces() {
+        if (frozen) {
+            return;
+        }
+
+        int sum = 0;
+        for (int i = 0; i < aces.size(); i++) {
+            final ACE ace = aces.peek(i);
+            if (ace != null) {
+                ace.sync();
+                sum += ace.getModCount();
+            }
+        }
+        if (sum != aceModCount) {
+            aceModCount = sum;
+            size = -1;
+            version++;
+        }
+    }
+
+    private void listChanged() {
+        size = -1;
+        version++;
+    }
+
+    private void setSize(final int size) {
+        if (size > SIZE_WARNING_THRESHOLD && (this.size < 0 || this.size <= SIZE_WARNING_THRESHOLD)) {
+            LOG.warn("ACL size {} bytes ({} ACEs) is approaching the maximum of {} bytes",
+                    size, aces.size(), MAX_SIZE);
+        }
+        this.size = size;
+    }
+
     /**
      * Gets ACE number: an unsigned 16-bit integer that specifies the count of the number of ACE records in the ACL.
      *
@@ -146,7 +507,7 @@ public class ACL {
     /**
      * Gets ACL ACEs.
      *
-     * @return list of ACEs.
+     * @return list of ACEs; it cannot be modified once this ACL is frozen.
      * 
      * @see ACE
      */
@@ -166,43 +527,122 @@ public class ACL {
         return aces.get(i);
     }
 
+    /**
+     * Gets the type of the ACE at the given position, without decoding it.
+     *
+     * @param i position.
+     * @return ACE type.
+     */
+    public AceType getAceType(final int i) {
+        final ACE ace = aces.peek(i);
+        return ace == null ? AceType.parseValue(lazySource.get(aceOffsets[i])) : ace.getType();
+    }
+
+    /**
+     * Gets the flags of the ACE at the given position, without decoding it.
+     *
+     * @param i position.
+     * @return ACE flags bitmask.
+     * @see AceFlag
+     */
+    public byte getAceFlags(final int i) {
+        final ACE ace = aces.peek(i);
+        return ace == null ? lazySource.get(aceOffsets[i] + 1) : ace.getFlagsMask();
+    }
+
+    /**
+     * Gets the position of the next ACE of any of the given types, skipping the others without decoding them.
+     *
+     * @param types ACE types.
+     * @param from position to start from (included).
+     * @return ACE position, or -1 if no more ACE is found.
+     */
+    public int nextAce(final Set<AceType> types, final int from) {
+        for (int i = Math.max(from, 0); i < aces.size(); i++) {
+            if (types.contains(getAceType(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the position of the next explicit (i.e. not inherited) ACE of any of the given types, skipping the others
+     * without decoding them.
+     *
+     * @param types ACE types.
+     * @param from position to start from (included).
+     * @return ACE position, or -1 if no more ACE is found.
+     * @see AceFlag#INHERITED_ACE
+     */
+    public int nextExplicitAce(final Set<AceType> types, final int from) {
+        final byte inherited = AceFlag.INHERITED_ACE.getValue();
+        for (int i = Math.max(from, 0); i < aces.size(); i++) {
+            if ((getAceFlags(i) & inherited) == 0 && types.contains(getAceType(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Serializes to byte array.
      *
      * @return serialized ACL.
      */
     public byte[] toByteArray() {
+        final byte[] res = new byte[getSize()];
+        writeTo(ByteBuffer.wrap(res).order(ByteOrder.LITTLE_ENDIAN));
+        return res;
+    }
 
-        int size = getSize();
+    /**
+     * Serializes into the given buffer, starting at its current position; the position is then moved after the last
+     * byte written.
+     *
+     * @param dst destination buffer, either heap or direct, in any byte order.
+     * @return number of bytes written.
+     * @throws java.nio.BufferOverflowException if the buffer has not enough remaining bytes.
+     */
+    public int writeTo(final ByteBuffer dst) {
+        final int size = getSize();
+        if (size > MAX_SIZE || getAceCount() > 0xFFFF) {
+            throw new IllegalStateException(
+                    "ACL too large: " + size + " bytes and " + getAceCount() + " ACEs, maximum is " + MAX_SIZE);
+        }
+        if (dst.remaining() < size) {
+            throw new BufferOverflowException();
+        }
 
-        final ByteBuffer buff = ByteBuffer.allocate(size);
+        if (isUnchanged()) {
+            SourceSlice.copy(source, sourceOffset, size, dst);
+            return size;
+        }
+
+        final int start = dst.position();
 
         // add revision
-        buff.put(revision.getValue());
+        dst.put(start, revision.getValue());
 
         // add reserved
-        buff.put((byte) 0x00);
+        dst.put(start + 1, (byte) 0x00);
 
-        // add size (2 bytes reversed)
-        byte[] sizeSRC = NumberFacility.getBytes(size);
-        buff.put(sizeSRC[3]);
-        buff.put(sizeSRC[2]);
+        // add size
+        LittleEndian.putUInt16(dst, start + 2, size);
 
-        // add ace count (2 bytes reversed)
-        byte[] aceCountSRC = NumberFacility.getBytes(getAceCount());
-        buff.put(aceCountSRC[3]);
-        buff.put(aceCountSRC[2]);
+        // add ace count
+        LittleEndian.putUInt16(dst, start + 4, getAceCount());
 
         // add reserved (2 bytes)
-        buff.put((byte) 0x00);
-        buff.put((byte) 0x00);
+        LittleEndian.putUInt16(dst, start + 6, 0);
+        dst.position(start + 8);
 
         // add aces
         for (ACE ace : aces) {
-            buff.put(ace.toByteArray());
+            ace.writeTo(dst);
         }
 
-        return buff.array();
+        return size;
     }
 
     /**
@@ -213,17 +653,16 @@ public class ACL {
      */
     @Override
     public boolean equals(final Object acl) {
+        if (this == acl) {
+            return true;
+        }
+
         if (!(acl instanceof ACL)) {
             return false;
         }
 
         final ACL ext = ACL.class.cast(acl);
 
-        if (getSize() != ext.getSize()) {
-            LOG.debug("Different size");
-            return false;
-        }
-
         if (getAceCount() != ext.getAceCount()) {
             LOG.debug("Different ace count");
             return false;
@@ -239,6 +678,50 @@ public class ACL {
         return true;
     }
 
+    /**
+     * Gets a 64-bit fingerprint of this ACL, consistent with {@link #equals(java.lang.Object)}; it is combined from the
+     * fingerprints cached by the contained ACEs, and cached in turn until the ACE list, any ACE or any trustee SID is
+     * changed.
+     *
+     * ACE changes are not recorded here, so that {@link #hashCode()} never alters this ACL or its ACEs: the cached
+     * value is not used while any ACE has changes pending (see {@link ACE#isSynced()}).
+     *
+     * @return fingerprint.
+     */
+    public long getFingerprint() {
+        if (frozen) {
+            return fingerprint;
+        }
+
+        boolean synced = true;
+        int sum = 0;
+        for (int i = 0; i < aces.size(); i++) {
+            final ACE ace = aces.peek(i);
+            if (ace != null) {
+                synced &= ace.isSynced();
+                sum += ace.getModCount();
+            }
+        }
+        if (synced && fingerprint != 0
+                && fingerprintModCount == aces.getModCount() && fingerprintAceModCount == sum) {
+
+            return fingerprint;
+        }
+
+        long res = Fingerprint.mix(Fingerprint.SEED, aces.size());
+        for (int i = 0; i < aces.size(); i++) {
+            // ACEs decoded here are new, hence do not alter the sum of change counts
+            res = Fingerprint.mix(res, aces.get(i).getFingerprint());
+        }
+        res = Fingerprint.finish(res);
+        if (synced) {
+            fingerprint = res;
+            fingerprintModCount = aces.getModCount();
+            fingerprintAceModCount = sum;
+        }
+        return res;
+    }
+
     /**
      * Serializes to string.
      *
@@ -246,6 +729,10 @@ public class ACL {
      */
     @Override
     public String toString() {
+        if (str != null) {
+            return str;
+        }
+
         final StringBuilder bld = new StringBuilder();
         bld.append('P');
 
@@ -253,7 +740,11 @@ public class ACL {
             bld.append(ace.toString());
         }
 
-        return bld.toString();
+        final String res = bld.toString();
+        if (frozen) {
+            str = res;
+        }
+        return res;
     }
 
     /**
@@ -263,9 +754,113 @@ public class ACL {
      */
     @Override
     public int hashCode() {
-        int hash = 7;
-        hash = 43 * hash + Objects.hashCode(this.aces);
-        return hash;
+        return Fingerprint.toHashCode(getFingerprint());
     }
 
+    /**
+     * List of ACEs keeping the ACL size up to date.
+     *
+     * ACEs do not reference the ACLs holding them: the sum of their change counts is kept along with the list, so
+     * that changes to the ACEs themselves are detected by {@link ACL#checkAces()}.
+     *
+     * ACEs not decoded yet are held as null and decoded on first access; any change to the list decodes all of them
+     * first.
+     */
+    private final class AceList extends AbstractList<ACE> implements RandomAccess {
+
+        private final List<ACE> list = new ArrayList<>();
+
+        @Override
+        public ACE get(final int index) {
+            ACE ace = list.get(index);
+            if (ace == null) {
+                ace = decode(index);
+                list.set(index, ace);
+            }
+            return ace;
+        }
+
+        /**
+         * Gets the ACE at the given position, without decoding it.
+         *
+         * @param index position.
+         * @return ACE; null if not decoded yet.
+         */
+        ACE peek(final int index) {
+            return list.get(index);
+        }
+
+        /**
+         * Replaces the content of this list with the given number of ACEs, not decoded yet.
+         *
+         * @param count number of ACEs.
+         */
+        void reset(final int count) {
+            list.clear();
+            list.addAll(Collections.nCopies(count, null));
+        }
+
+        private void decodeAll() {
+            for (int i = 0; pendingAces > 0 && i < list.size(); i++) {
+                get(i);
+            }
+        }
+
+        @Override
+        public int size() {
+            return list.size();
+        }
+
+        int getModCount() {
+            return modCount;
+        }
+
+        @Override
+        public void add(final int index, final ACE ace) {
+            checkNotFrozen();
+            decodeAll();
+            list.add(index, ace);
+            aceModCount += ace.getModCount();
+            if (size >= 0) {
+                setSize(size + ace.getSize());
+            }
+            version++;
+            modCount++;
+        }
+
+        @Override
+        public ACE set(final int index, final ACE ace) {
+            checkNotFrozen();
+            decodeAll();
+            final ACE previous = list.set(index, ace);
+            aceModCount += ace.getModCount() - previous.getModCount();
+            listChanged();
+            modCount++;
+            return previous;
+        }
+
+        @Override
+        public ACE remove(final int index) {
+            checkNotFrozen();
+            decodeAll();
+            final ACE previous = list.remove(index);
+            aceModCount -= previous.getModCount();
+            listChanged();
+            modCount++;
+            return previous;
+        }
+
+        @Override
+        protected void removeRange(final int fromIndex, final int toIndex) {
+            checkNotFrozen();
+            decodeAll();
+            final List<ACE> range = list.subList(fromIndex, toIndex);
+            for (ACE ace : range) {
+                aceModCount -= ace.getModCount();
+            }
+            range.clear();
+            listChanged();
+            modCount++;
+        }
+    }
 }
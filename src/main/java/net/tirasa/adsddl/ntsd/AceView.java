@@ -0,0 +1,275 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.ntsd;
+
+import java.nio.ByteBuffer;
+import net.tirasa.adsddl.ntsd.data.AceFlag;
+import net.tirasa.adsddl.ntsd.data.AceObjectFlags;
+import net.tirasa.adsddl.ntsd.data.AceType;
+import net.tirasa.adsddl.ntsd.data.Guid;
+import net.tirasa.adsddl.ntsd.utils.LittleEndian;
+
+/**
+ * Read-only flyweight view of an ACE stored into a little-endian ordered buffer.
+ *
+ * Every getter reads the requested field straight from the underlying buffer. Use {@link #materialize()} to obtain a
+ * mutable {@link ACE} instance.
+ *
+ * @see ACE
+ * @see <a href="https://msdn.microsoft.com/en-us/library/cc230295.aspx" target="_top">cc230295</a>
+ */
+public final class AceView {
+
+    private final ByteBuffer buff;
+
+    private final int offset;
+
+    /**
+     * Constructor.
+     *
+     * @param buff little-endian ordered source buffer.
+     * @param offset ACE absolute offset into the buffer.
+     */
+    AceView(final ByteBuffer buff, final int offset) {
+        this.buff = buff;
+        this.offset = offset;
+    }
+
+    /**
+     * Gets the absolute offset of this ACE into the underlying buffer.
+     *
+     * @return ACE offset.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Gets ACE type raw value.
+     *
+     * @return ACE type value.
+     */
+    public byte getTypeValue() {
+        return buff.get(offset);
+    }
+
+    /**
+     * Gets ACE type.
+     *
+     * @see AceType
+     * @return ACE type.
+     */
+    public AceType getType() {
+        return AceType.parseValue(getTypeValue());
+    }
+
+    /**
+     * Gets ACE flags as raw bit mask.
+     *
+     * @return ACE flags mask.
+     */
+    public byte getFlags() {
+        return buff.get(offset + 1);
+    }
+
+    /**
+     * Checks whether the given ACE flag is set.
+     *
+     * @param flag ACE flag.
+     * @return <tt>true</tt> if set; <tt>false</tt> otherwise.
+     */
+    public boolean hasFlag(final AceFlag flag) {
+        return (getFlags() & flag.getValue()) == flag.getValue();
+    }
+
+    /**
+     * An unsigned 16-bit integer that specifies the size, in bytes, of the ACE.
+     *
+     * @return ACE size.
+     */
+    public int getSize() {
+        return LittleEndian.getUInt16(buff, offset + 2);
+    }
+
+    /**
+     * Gets the ACCESS_MASK that specifies the user rights allowed by this ACE.
+     *
+     * @return access mask.
+     */
+    public int getAccessMask() {
+        return LittleEndian.getInt32(buff, offset + 4);
+    }
+
+    /**
+     * Checks whether this ACE carries object flags and object types.
+     *
+     * @return <tt>true</tt> if object ACE; <tt>false</tt> otherwise.
+     */
+    public boolean isObjectAce() {
+        final byte type = getTypeValue();
+        return type == AceType.ACCESS_ALLOWED_OBJECT_ACE_TYPE.getValue()
+                || type == AceType.ACCESS_DENIED_OBJECT_ACE_TYPE.getValue();
+    }
+
+    /**
+     * Gets object flags as raw bit mask.
+     *
+     * @return object flags mask; 0 if not an object ACE.
+     */
+    public int getObjectFlags() {
+        return isObjectAce() ? LittleEndian.getInt32(buff, offset + 8) : 0;
+    }
+
+    /**
+     * Checks whether ObjectType field is present.
+     *
+     * @return <tt>true</tt> if present; <tt>false</tt> otherwise.
+     */
+    public boolean hasObjectType() {
+        return (getObjectFlags() & AceObjectFlags.Flag.ACE_OBJECT_TYPE_PRESENT.getValue()) != 0;
+    }
+
+    /**
+     * Checks whether InheritedObjectType field is present.
+     *
+     * @return <tt>true</tt> if present; <tt>false</tt> otherwise.
+     */
+    public boolean hasInheritedObjectType() {
+        return (getObjectFlags() & AceObjectFlags.Flag.ACE_INHERITED_OBJECT_TYPE_PRESENT.getValue()) != 0;
+    }
+
+    /**
+     * Checks whether ObjectType is equal to the given GUID.
+     *
+     * @param guid GUID (16 bytes).
+     * @return <tt>true</tt> if equal; <tt>false</tt> otherwise.
+     */
+    public boolean isObjectType(final byte[] guid) {
+        return hasObjectType() && guidEquals(offset + 12, guid);
+    }
+
+    /**
+     * Checks whether InheritedObjectType is equal to the given GUID.
+     *
+     * @param guid GUID (16 bytes).
+     * @return <tt>true</tt> if equal; <tt>false</tt> otherwise.
+     */
+    public boolean isInheritedObjectType(final byte[] guid) {
+        return hasInheritedObjectType() && guidEquals(offset + (hasObjectType() ? 28 : 12), guid);
+    }
+
+    /**
+     * Checks whether ObjectType is equal to the given GUID.
+     *
+     * @param guid GUID.
+     * @return <tt>true</tt> if equal; <tt>false</tt> otherwise.
+     */
+    public boolean isObjectType(final Guid guid) {
+        return hasObjectType() && guid.matches(buff, offset + 12);
+    }
+
+    /**
+     * Checks whether InheritedObjectType is equal to the given GUID.
+     *
+     * @param guid GUID.
+     * @return <tt>true</tt> if equal; <tt>false</tt> otherwise.
+     */
+    public boolean isInheritedObjectType(final Guid guid) {
+        return hasInheritedObjectType() && guid.matches(buff, offset + (hasObjectType() ? 28 : 12));
+    }
+
+    /**
+     * Gets ObjectType.
+     *
+     * @return ObjectType; null if not available.
+     */
+    public byte[] getObjectType() {
+        return hasObjectType() ? copy(offset + 12, 16) : null;
+    }
+
+    /**
+     * Gets InheritedObjectType.
+     *
+     * @return InheritedObjectType; null if not available.
+     */
+    public byte[] getInheritedObjectType() {
+        return hasInheritedObjectType() ? copy(offset + (hasObjectType() ? 28 : 12), 16) : null;
+    }
+
+    /**
+     * Gets the SID of the trustee.
+     *
+     * @return SID view.
+     */
+    public SidView getSid() {
+        return new SidView(buff, getSidOffset());
+    }
+
+    /**
+     * Gets application data length in bytes.
+     *
+     * @return application data length.
+     */
+    public int getApplicationDataLength() {
+        final int sidOffset = getSidOffset();
+        return offset + getSize() - sidOffset - 8 - LittleEndian.getUInt8(buff, sidOffset + 1) * 4;
+    }
+
+    /**
+     * Builds a mutable ACE instance out of this view.
+     *
+     * @return ACE instance.
+     */
+    public ACE materialize() {
+        final ACE ace = new ACE();
+        ace.parse(buff, offset);
+        return ace;
+    }
+
+    private int getSidOffset() {
+        int pos = offset + 8;
+        if (isObjectAce()) {
+            pos += 4;
+            if (hasObjectType()) {
+                pos += 16;
+            }
+            if (hasInheritedObjectType()) {
+                pos += 16;
+            }
+        }
+        return pos;
+    }
+
+    private boolean guidEquals(final int pos, final byte[] guid) {
+        if (guid == null || guid.length != 16) {
+            return false;
+        }
+        for (int i = 0; i < 16; i++) {
+            if (buff.get(pos + i) != guid[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] copy(final int pos, final int length) {
+        final byte[] res = new byte[length];
+        for (int i = 0; i < length; i++) {
+            res[i] = buff.get(pos + i);
+        }
+        return res;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.ntsd;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import net.tirasa.adsddl.ntsd.data.AclRevision;
+import net.tirasa.adsddl.ntsd.utils.LittleEndian;
+
+/**
+ * Read-only flyweight view of an ACL stored into a little-endian ordered buffer.
+ *
+ * Every getter reads the requested field straight from the underlying buffer. ACEs are reached by following the
+ * AceSize field of the preceding ones, without decoding them: iterating this view walks the ACEs in a single pass,
+ * while {@link #getAce(int)} walks from the first ACE on each call. Use {@link #materialize()} to obtain a mutable
+ * {@link ACL} instance.
+ *
+ * @see ACL
+ * @see <a href="https://msdn.microsoft.com/en-us/library/cc230297.aspx" target="_top">cc230297</a>
+ */
+public final class AclView implements Iterable<AceView> {
+
+    private final ByteBuffer buff;
+
+    private final int offset;
+
+    /**
+     * Constructor.
+     *
+     * @param buff little-endian ordered source buffer.
+     * @param offset ACL absolute offset into the buffer.
+     */
+    AclView(final ByteBuffer buff, final int offset) {
+        this.buff = buff;
+        this.offset = offset;
+    }
+
+    /**
+     * Gets the absolute offset of this ACL into the underlying buffer.
+     *
+     * @return ACL offset.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Gets ACL revision.
+     *
+     * @return revision.
+     */
+    public AclRevision getRevision() {
+        return AclRevision.parseValue(buff.get(offset));
+    }
+
+    /**
+     * Gets ACL size in bytes, as reported by the AclSize field.
+     *
+     * @return ACL size in bytes.
+     */
+    public int getSize() {
+        return LittleEndian.getUInt16(buff, offset + 2);
+    }
+
+    /**
+     * Gets ACE number, as reported by the AceCount field.
+     *
+     * @return ACEs' number.
+     */
+    public int getAceCount() {
+        return LittleEndian.getUInt16(buff, offset + 4);
+    }
+
+    /**
+     * Gets the absolute offset of the ACE at the given position, walking the preceding ones.
+     *
+     * @param index position.
+     * @return ACE offset.
+     */
+    public int getAceOffset(final int index) {
+        if (index < 0 || index >= getAceCount()) {
+            throw new IndexOutOfBoundsException("Invalid ACE index " + index);
+        }
+
+        int pos = offset + 8;
+        for (int i = 0; i < index; i++) {
+            pos += LittleEndian.getUInt16(buff, pos + 2);
+        }
+        return pos;
+    }
+
+    /**
+     * Gets ACL ACE at the given position, walking the preceding ones: iterate this view to visit all ACEs.
+     *
+     * @param index position.
+     * @return ACE view.
+     */
+    public AceView getAce(final int index) {
+        return new AceView(buff, getAceOffset(index));
+    }
+
+    /**
+     * Iterates over ACEs in a single pass, each one being reached from the previous one through its AceSize field.
+     *
+     * @return ACE views' iterator.
+     */
+    @Override
+    public Iterator<AceView> iterator() {
+        return new Iterator<AceView>() {
+
+            private final int count = getAceCount();
+
+            private int index;
+
+            private int pos = offset + 8;
+
+            @Override
+            public boolean hasNext() {
+                return index < count;
+            }
+
+            @Override
+            public AceView next() {
+                if (index >= count) {
+                    throw new NoSuchElementException();
+                }
+
+                final AceView ace = new AceView(buff, pos);
+                pos += LittleEndian.getUInt16(buff, pos + 2);
+                index++;
+                return ace;
+            }
+        };
+    }
+
+    /**
+     * Builds a mutable ACL instance out of this view.
+     *
+     * @return ACL instance.
+     */
+    public ACL materialize() {
+        final ACL acl = new ACL();
+        acl.parse(buff, offset);
+        return acl;
+    }
+}
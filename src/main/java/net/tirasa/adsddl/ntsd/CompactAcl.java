@@ -0,0 +1,348 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.ntsd;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.tirasa.adsddl.ntsd.data.AceFlag;
+import net.tirasa.adsddl.ntsd.data.AceType;
+import net.tirasa.adsddl.ntsd.data.Guid;
+
+/**
+ * Immutable, packed snapshot of an {@link ACL}, meant for scan-heavy workloads (e.g. matching the same DACL against
+ * many assertions).
+ *
+ * ACE types, flags, access masks and object flags are stored in parallel primitive arrays, indexed by ACE position;
+ * trustee SIDs and object GUIDs are stored once per ACL, in dictionaries, and referenced by index. Matching loops
+ * resolve the SIDs and GUIDs they look for to dictionary indexes up front, then compare plain <tt>int</tt> values
+ * while walking the arrays, without touching any ACE, SID or GUID object.
+ *
+ * <pre>
+ * final CompactAcl dacl = new CompactAcl(sddl.getDacl());
+ * final int everyone = dacl.indexOfSid(SID.fromString("S-1-1-0"));
+ * for (int i = dacl.nextAce(everyone, 0); i &gt;= 0; i = dacl.nextAce(everyone, i + 1)) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * Instances are immutable, hence can be shared among threads.
+ */
+public final class CompactAcl {
+
+    /**
+     * Index standing for a missing SID or GUID.
+     */
+    public static final int NONE = -1;
+
+    private final int aceCount;
+
+    private final byte[] types;
+
+    private final byte[] flags;
+
+    private final int[] accessMasks;
+
+    private final int[] objectFlags;
+
+    private final int[] sids;
+
+    private final int[] objectTypes;
+
+    private final int[] inheritedObjectTypes;
+
+    private final SID[] sidDictionary;
+
+    private final Map<SID, Integer> sidIndexes;
+
+    private final Guid[] guidDictionary;
+
+    private final Map<Guid, Integer> guidIndexes;
+
+    private final ACL source;
+
+    private final int sourceVersion;
+
+    /**
+     * Constructor: takes a snapshot of the given ACL; later changes to the ACL are not reflected.
+     *
+     * @param acl ACL.
+     * @see #isSnapshotOf(net.tirasa.adsddl.ntsd.ACL)
+     */
+    public CompactAcl(final ACL acl) {
+        this.source = acl;
+        this.sourceVersion = acl.getVersion();
+        this.aceCount = acl.getAceCount();
+        this.types = new byte[aceCount];
+        this.flags = new byte[aceCount];
+        this.accessMasks = new int[aceCount];
+        this.objectFlags = new int[aceCount];
+        this.sids = new int[aceCount];
+        this.objectTypes = new int[aceCount];
+        this.inheritedObjectTypes = new int[aceCount];
+
+        final List<SID> sidList = new ArrayList<>();
+        final Map<SID, Integer> sidMap = new HashMap<>();
+        final List<Guid> guidList = new ArrayList<>();
+        final Map<Guid, Integer> guidMap = new HashMap<>();
+
+        for (int i = 0; i < aceCount; i++) {
+            final ACE ace = acl.getAce(i);
+
+            types[i] = ace.getType() == null ? AceType.UNEXPECTED.getValue() : ace.getType().getValue();
+            flags[i] = ace.getFlagsMask();
+            accessMasks[i] = ace.getAccessMask();
+            objectFlags[i] = ace.getObjectFlagsMask();
+            objectTypes[i] = indexOf(guidList, guidMap, ace.getObjectType());
+            inheritedObjectTypes[i] = indexOf(guidList, guidMap, ace.getInheritedObjectType());
+
+            final SID sid = ace.getSid();
+            if (sid == null) {
+                sids[i] = NONE;
+            } else {
+                Integer index = sidMap.get(sid);
+                if (index == null) {
+                    index = sidList.size();
+                    final SID copy = sid.isFrozen() ? sid : SID.parse(sid.toByteArray()).freeze();
+                    sidList.add(copy);
+                    sidMap.put(copy, index);
+                }
+                sids[i] = index;
+            }
+        }
+
+        this.sidDictionary = sidList.toArray(new SID[sidList.size()]);
+        this.sidIndexes = sidMap;
+        this.guidDictionary = guidList.toArray(new Guid[guidList.size()]);
+        this.guidIndexes = guidMap;
+    }
+
+    private static int indexOf(final List<Guid> guidList, final Map<Guid, Integer> guidMap, final byte[] guid) {
+        if (guid == null) {
+            return NONE;
+        }
+        final Guid key = Guid.fromBytes(guid);
+        Integer index = guidMap.get(key);
+        if (index == null) {
+            index = guidList.size();
+            guidList.add(key);
+            guidMap.put(key, index);
+        }
+        return index;
+    }
+
+    /**
+     * Tells whether this instance is an up-to-date snapshot of the given ACL, i.e. it has been built out of that very
+     * ACL, which has not been changed since.
+     *
+     * @param acl ACL.
+     * @return <tt>true</tt> if up-to-date snapshot of the given ACL; <tt>false</tt> otherwise.
+     */
+    public boolean isSnapshotOf(final ACL acl) {
+        return acl == source && acl.getVersion() == sourceVersion;
+    }
+
+    /**
+     * Gets ACE number.
+     *
+     * @return ACEs' number.
+     */
+    public int getAceCount() {
+        return aceCount;
+    }
+
+    /**
+     * Gets the type of the ACE at the given position.
+     *
+     * @param index ACE position.
+     * @return ACE type value; {@link AceType#UNEXPECTED} value if the ACE has no type.
+     * @see AceType#getValue()
+     */
+    public byte getType(final int index) {
+        return types[index];
+    }
+
+    /**
+     * Checks whether the ACE at the given position is of the given type.
+     *
+     * @param index ACE position.
+     * @param type ACE type.
+     * @return <tt>true</tt> if of the given type; <tt>false</tt> otherwise.
+     */
+    public boolean isType(final int index, final AceType type) {
+        return types[index] == type.getValue();
+    }
+
+    /**
+     * Gets the flags of the ACE at the given position.
+     *
+     * @param index ACE position.
+     * @return ACE flags bitmask.
+     * @see AceFlag
+     */
+    public byte getFlags(final int index) {
+        return flags[index];
+    }
+
+    /**
+     * Gets the ACCESS_MASK of the ACE at the given position.
+     *
+     * @param index ACE position.
+     * @return ACCESS_MASK as (possibly negative) int value.
+     */
+    public int getAccessMask(final int index) {
+        return accessMasks[index];
+    }
+
+    /**
+     * Gets the object flags of the ACE at the given position.
+     *
+     * @param index ACE position.
+     * @return object flags bitmask; 0 if object flags are not available.
+     */
+    public int getObjectFlags(final int index) {
+        return objectFlags[index];
+    }
+
+    /**
+     * Gets the dictionary index of the trustee SID of the ACE at the given position.
+     *
+     * @param index ACE position.
+     * @return SID index, or {@link #NONE}.
+     * @see #getSid(int)
+     */
+    public int getSidIndex(final int index) {
+        return sids[index];
+    }
+
+    /**
+     * Gets the dictionary index of the object type GUID of the ACE at the given position.
+     *
+     * @param index ACE position.
+     * @return GUID index, or {@link #NONE}.
+     * @see #getGuid(int)
+     */
+    public int getObjectTypeIndex(final int index) {
+        return objectTypes[index];
+    }
+
+    /**
+     * Gets the dictionary index of the inherited object type GUID of the ACE at the given position.
+     *
+     * @param index ACE position.
+     * @return GUID index, or {@link #NONE}.
+     * @see #getGuid(int)
+     */
+    public int getInheritedObjectTypeIndex(final int index) {
+        return inheritedObjectTypes[index];
+    }
+
+    /**
+     * Gets the position of the next ACE whose trustee is the SID with the given dictionary index.
+     *
+     * @param sidIndex SID index.
+     * @param from position to start from (included).
+     * @return ACE position, or -1 if no more ACE is found.
+     */
+    public int nextAce(final int sidIndex, final int from) {
+        if (sidIndex != NONE) {
+            for (int i = from; i < aceCount; i++) {
+                if (sids[i] == sidIndex) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the number of distinct trustee SIDs.
+     *
+     * @return SIDs' number.
+     */
+    public int getSidCount() {
+        return sidDictionary.length;
+    }
+
+    /**
+     * Gets the trustee SID with the given dictionary index.
+     *
+     * @param sidIndex SID index.
+     * @return frozen SID.
+     */
+    public SID getSid(final int sidIndex) {
+        return sidDictionary[sidIndex];
+    }
+
+    /**
+     * Gets the dictionary index of the given SID.
+     *
+     * @param sid SID.
+     * @return SID index, or {@link #NONE} if no ACE has the given SID as trustee.
+     */
+    public int indexOfSid(final SID sid) {
+        final Integer index = sid == null ? null : sidIndexes.get(sid);
+        return index == null ? NONE : index;
+    }
+
+    /**
+     * Gets the number of distinct object and inherited object type GUIDs.
+     *
+     * @return GUIDs' number.
+     */
+    public int getGuidCount() {
+        return guidDictionary.length;
+    }
+
+    /**
+     * Gets the GUID with the given dictionary index.
+     *
+     * @param guidIndex GUID index.
+     * @return GUID.
+     */
+    public Guid getGuid(final int guidIndex) {
+        return guidDictionary[guidIndex];
+    }
+
+    /**
+     * Gets the dictionary index of the given GUID.
+     *
+     * @param guid GUID; may be null.
+     * @return GUID index, or {@link #NONE} if no ACE refers to the given GUID.
+     */
+    public int indexOfGuid(final Guid guid) {
+        final Integer index = guid == null ? null : guidIndexes.get(guid);
+        return index == null ? NONE : index;
+    }
+
+    /**
+     * Gets the dictionary index of the given GUID.
+     *
+     * @param guid GUID as byte array; may be null.
+     * @return GUID index, or {@link #NONE} if no ACE refers to the given GUID.
+     */
+    public int indexOfGuid(final byte[] guid) {
+        if (guid != null) {
+            for (int i = 0; i < guidDictionary.length; i++) {
+                if (guidDictionary[i].matches(guid)) {
+                    return i;
+                }
+            }
+        }
+        return NONE;
+    }
+}
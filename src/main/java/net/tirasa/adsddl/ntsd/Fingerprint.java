@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.ntsd;
+
+/**
+ * 64-bit, non cryptographic fingerprint functions used by SDDL, ACL, ACE and SID.
+ *
+ * Values are combined in order with a multiply-xor step and finalized with the MurmurHash3 64-bit mixer, so that
+ * fingerprints can be safely truncated (e.g. to compute hash codes).
+ */
+final class Fingerprint {
+
+    /**
+     * Initial value.
+     */
+    static final long SEED = 0xCBF29CE484222325L;
+
+    /**
+     * Value standing for a missing (null) part.
+     */
+    static final long NULL = 0x5BD1E9955BD1E995L;
+
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Combines the given value into the given fingerprint.
+     *
+     * @param fingerprint fingerprint computed so far.
+     * @param value value.
+     * @return updated fingerprint.
+     */
+    static long mix(final long fingerprint, final long value) {
+        return Long.rotateLeft((fingerprint ^ value) * MULTIPLIER, 31);
+    }
+
+    /**
+     * Combines the given bytes, and their number, into the given fingerprint.
+     *
+     * @param fingerprint fingerprint computed so far.
+     * @param value bytes; null is allowed.
+     * @return updated fingerprint.
+     */
+    static long mix(final long fingerprint, final byte[] value) {
+        if (value == null) {
+            return mix(fingerprint, NULL);
+        }
+
+        long res = mix(fingerprint, value.length);
+        int i = 0;
+        for (; i + 8 <= value.length; i += 8) {
+            long word = 0;
+            for (int j = 0; j < 8; j++) {
+                word = (word << 8) | (value[i + j] & 0xFF);
+            }
+            res = mix(res, word);
+        }
+        if (i < value.length) {
+            long word = 0;
+            for (; i < value.length; i++) {
+                word = (word << 8) | (value[i] & 0xFF);
+            }
+            res = mix(res, word);
+        }
+        return res;
+    }
+
+    /**
+     * Finalizes the given fingerprint.
+     *
+     * @param fingerprint fingerprint computed so far.
+     * @return final fingerprint.
+     */
+    static long finish(final long fingerprint) {
+        long res = fingerprint;
+        res ^= res >>> 33;
+        res *= 0xFF51AFD7ED558CCDL;
+        res ^= res >>> 33;
+        res *= 0xC4CEB9FE1A85EC53L;
+        res ^= res >>> 33;
+        return res;
+    }
+
+    /**
+     * Folds the given fingerprint into a hash code.
+     *
+     * @param fingerprint fingerprint.
+     * @return hash code.
+     */
+    static int toHashCode(final long fingerprint) {
+        return (int) (fingerprint ^ (fingerprint >>> 32));
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.ntsd;
+
+/**
+ * Outcome of a validating parse (see {@link SDDL#tryParse(byte[])}): either a security descriptor, or the reason why
+ * the input is not valid and the position of the offending field.
+ */
+public final class ParseResult {
+
+    /**
+     * Reason why a security descriptor is not valid.
+     */
+    public enum Code {
+
+        /**
+         * Input shorter than the 20 bytes of the security descriptor header.
+         */
+        TRUNCATED_HEADER,
+        /**
+         * Revision of the security descriptor other than 1.
+         */
+        INVALID_REVISION,
+        /**
+         * Owner, group, SACL or DACL offset pointing into the header or beyond the input; position is the one of the
+         * offset field.
+         */
+        INVALID_OFFSET,
+        /**
+         * SID exceeding the input or the enclosing ACE.
+         */
+        TRUNCATED_SID,
+        /**
+         * SID with more than 15 sub-authorities; position is the one of the SubAuthorityCount field.
+         */
+        INVALID_SID,
+        /**
+         * AclSize lower than the ACL header or exceeding the input; position is the one of the AclSize field.
+         */
+        INVALID_ACL_SIZE,
+        /**
+         * Overall ACE number beyond the given limit; position is the one of the AceCount field.
+         */
+        TOO_MANY_ACES,
+        /**
+         * ACE header exceeding the enclosing ACL, i.e. AceCount not matching the ACEs actually present.
+         */
+        TRUNCATED_ACE,
+        /**
+         * AceType not defined (see {@link net.tirasa.adsddl.ntsd.data.AceType}).
+         */
+        UNKNOWN_ACE_TYPE,
+        /**
+         * AceSize lower than the ACE header or exceeding the enclosing ACL; position is the one of the AceSize field.
+         */
+        INVALID_ACE_SIZE,
+        /**
+         * Object ACE fields exceeding the ACE.
+         */
+        INVALID_ACE;
+
+    }
+
+    private final SDDL sddl;
+
+    private final Code code;
+
+    private final int position;
+
+    private ParseResult(final SDDL sddl, final Code code, final int position) {
+        this.sddl = sddl;
+        this.code = code;
+        this.position = position;
+    }
+
+    /**
+     * Builds a successful outcome.
+     *
+     * @param sddl security descriptor.
+     * @return parse outcome.
+     */
+    static ParseResult valid(final SDDL sddl) {
+        return new ParseResult(sddl, null, -1);
+    }
+
+    /**
+     * Builds a failed outcome.
+     *
+     * @param code reason why the input is not valid.
+     * @param position position (in bytes) of the offending field.
+     * @return parse outcome.
+     */
+    static ParseResult invalid(final Code code, final int position) {
+        return new ParseResult(null, code, position);
+    }
+
+    /**
+     * Checks whether the input is a valid security descriptor.
+     *
+     * @return <tt>true</tt> if valid; <tt>false</tt> otherwise.
+     */
+    public boolean isValid() {
+        return code == null;
+    }
+
+    /**
+     * Gets the parsed security descriptor.
+     *
+     * @return security descriptor; null if the input is not valid.
+     */
+    public SDDL getSddl() {
+        return sddl;
+    }
+
+    /**
+     * Gets the reason why the input is not valid.
+     *
+     * @return error code; null if the input is valid.
+     */
+    public Code getCode() {
+        return code;
+    }
+
+    /**
+     * Gets the position of the offending field into the input.
+     *
+     * @return position (in bytes); -1 if the input is valid.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    @Override
+    public String toString() {
+        return isValid()
+                ? "Valid security descriptor"
+                : "Invalid security descriptor at position " + position + ": " + code;
+    }
+}
@@ -15,12 +15,12 @@
  */
 package net.tirasa.adsddl.ntsd;
 
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
-import java.nio.IntBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 import java.util.Objects;
-import net.tirasa.adsddl.ntsd.utils.Hex;
-import net.tirasa.adsddl.ntsd.utils.NumberFacility;
+import net.tirasa.adsddl.ntsd.utils.LittleEndian;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -124,67 +124,316 @@ public class SDDL {
      */
     private ACL sacl;
 
+    /**
+     * Source buffer kept until all lazily decoded parts have been decoded.
+     */
+    private ByteBuffer source;
+
+    /**
+     * SID pool used to resolve owner, group and ACE trustees; may be null.
+     */
+    private SidPool sidPool;
+
+    /**
+     * Whether parsed ACLs and ACEs can reference the source buffer for verbatim serialization.
+     */
+    private boolean keepSource;
+
+    /**
+     * Whether ACEs are decoded on first access.
+     */
+    private boolean lazy;
+
+    /**
+     * Whether this instance cannot be modified.
+     */
+    private boolean frozen;
+
+    /**
+     * Cached fingerprint; 0 when not (yet) available.
+     */
+    private long fingerprint;
+
+
+    /**
+     * Cached string representation, only kept once frozen.
+     */
+    private String str;
+
+    /**
+     * Cached binary representation, only kept once frozen.
+     */
+    private volatile byte[] bytes;
+
     /**
      * Constructor.
      *
+     * The given array is copied once: parsed ACLs and ACEs keep the copy in order to be serialized by copying their
+     * own source bytes as long as they are not changed, while the given array can be reused by the caller.
+     *
      * @param src source as byte array.
      */
     public SDDL(byte[] src) {
-        final ByteBuffer sddlBuffer = ByteBuffer.wrap(src);
-        parse(sddlBuffer.asIntBuffer(), 0);
+        this(src, false);
     }
 
     /**
-     * Load the SDDL from the buffer returning the last SDDL segment position into the buffer.
+     * Constructor.
+     *
+     * When <tt>lazy</tt> is set, only header and offsets are decoded at construction time: owner, group, SACL and DACL
+     * are decoded on first access to the corresponding getter and then retained. SACL and DACL only index their ACEs
+     * out of the AceSize fields, each ACE being decoded on first access (see {@link ACL#getAce(int)},
+     * {@link ACL#nextAce(java.util.Set, int)}). As for {@link #SDDL(byte[])}, the given array is copied once, hence it
+     * can be reused by the caller. Lazy instances are not safe for concurrent access before all their
+     * parts have been decoded.
      *
-     * @param buff source buffer.
-     * @param start start loading position.
-     * @return last loading position.
+     * @param src source as byte array.
+     * @param lazy whether owner, group, SACL and DACL must be decoded on first access.
      */
-    private int parse(final IntBuffer buff, final int start) {
-        int pos = start;
+    public SDDL(final byte[] src, final boolean lazy) {
+        this(src, lazy, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * Owner, group and ACE trustees are resolved through the given pool, so that repeated SIDs are shared among all
+     * the security descriptors parsed with the same pool.
+     *
+     * @param src source as byte array.
+     * @param lazy whether owner, group, SACL and DACL must be decoded on first access.
+     * @param sidPool SID pool; if null, new SID instances are always decoded.
+     * @see SidPool
+     */
+    public SDDL(final byte[] src, final boolean lazy, final SidPool sidPool) {
+        this(ByteBuffer.wrap(src.clone()).order(ByteOrder.LITTLE_ENDIAN), lazy, sidPool);
+    }
+
+    /**
+     * Constructor.
+     *
+     * The given buffer is referenced, not copied: parsed ACLs and ACEs keep it in order to be serialized by copying
+     * their own source bytes, hence its content must not be changed afterwards.
+     *
+     * @param src little-endian ordered source buffer, starting with the security descriptor.
+     * @param lazy whether owner, group, SACL and DACL must be decoded on first access.
+     * @param sidPool SID pool; if null, new SID instances are always decoded.
+     */
+    SDDL(final ByteBuffer src, final boolean lazy, final SidPool sidPool) {
+        this.sidPool = sidPool;
+        this.keepSource = true;
+        parse(src, lazy);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param control control access bit flags, as unsigned 16-bit value.
+     * @param owner owner SID; may be null.
+     * @param group group SID; may be null.
+     * @param sacl SACL; may be null.
+     * @param dacl DACL; may be null.
+     */
+    SDDL(final int control, final SID owner, final SID group, final ACL sacl, final ACL dacl) {
+        this.revision = 0x01;
+        this.controlFlags = new byte[] { (byte) (control >> 8), (byte) control };
+        this.owner = owner;
+        this.group = group;
+        this.sacl = sacl;
+        this.dacl = dacl;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param src source buffer, starting with the security descriptor.
+     */
+    SDDL(final ByteBuffer src) {
+        this(src, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * The given buffer is not referenced by parsed ACLs and ACEs, hence the binary representation is always encoded
+     * out of the decoded fields, with reserved fields set to zero.
+     *
+     * @param src little-endian ordered source buffer, starting with the security descriptor.
+     * @param sidPool SID pool; if null, new SID instances are always decoded.
+     */
+    SDDL(final ByteBuffer src, final SidPool sidPool) {
+        this.sidPool = sidPool;
+        parse(src, false);
+    }
+
+    /**
+     * Parses the given security descriptor, validating it first: never throws on malformed or truncated input.
+     *
+     * @param src source as byte array; once valid, it is copied as by {@link #SDDL(byte[])}.
+     * @return parse outcome, reporting error code and position when not valid.
+     * @see #tryParse(byte[], net.tirasa.adsddl.ntsd.SidPool, int)
+     */
+    public static ParseResult tryParse(final byte[] src) {
+        return tryParse(src, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Parses the given security descriptor, validating it first: never throws on malformed or truncated input.
+     *
+     * Validation bounds-checks every offset and size against the input, in a single pass over owner, group and ACE
+     * headers: invalid inputs are rejected without decoding anything, at a cost no higher than parsing a valid one.
+     * Besides, validation is stricter than plain parsing: the revision must be 1, SIDs must have at most 15
+     * sub-authorities, ACE types must be known and every ACE must fit into its AceSize.
+     *
+     * @param src source as byte array; once valid, it is copied as by {@link #SDDL(byte[])}.
+     * @param sidPool SID pool; if null, new SID instances are always decoded.
+     * @param maxAces maximum number of ACEs allowed, SACL and DACL together, capping parse work.
+     * @return parse outcome, reporting error code and position when not valid.
+     */
+    public static ParseResult tryParse(final byte[] src, final SidPool sidPool, final int maxAces) {
+        if (src == null) {
+            return ParseResult.invalid(ParseResult.Code.TRUNCATED_HEADER, 0);
+        }
+
+        final ParseResult failure = new SdValidator(src, maxAces).validate();
+        return failure == null ? ParseResult.valid(new SDDL(src, false, sidPool)) : failure;
+    }
+
+    /**
+     * Reads the control access bit flags of the security descriptor starting at the current position of the given
+     * buffer, without decoding anything else.
+     *
+     * Like all the other <tt>peek</tt> methods, only absolute reads are performed: buffer position, limit and byte
+     * order are left untouched.
+     *
+     * @param src source buffer.
+     * @return control access bit flags, as unsigned 16-bit value.
+     * @see net.tirasa.adsddl.ntsd.data.ControlFlag
+     */
+    public static int peekControlFlags(final ByteBuffer src) {
+        return LittleEndian.getUInt16(src, src.position() + 2);
+    }
+
+    /**
+     * Reads the owner of the security descriptor starting at the current position of the given buffer, without
+     * decoding group, SACL and DACL.
+     *
+     * @param src source buffer.
+     * @return owner SID; null if not present.
+     */
+    public static SID peekOwner(final ByteBuffer src) {
+        return peekSID(src, (peekControlFlags(src) & 0x0001) == 0, 4);
+    }
+
+    /**
+     * Reads the group of the security descriptor starting at the current position of the given buffer, without
+     * decoding owner, SACL and DACL.
+     *
+     * @param src source buffer.
+     * @return group SID; null if not present.
+     */
+    public static SID peekGroup(final ByteBuffer src) {
+        return peekSID(src, (peekControlFlags(src) & 0x0002) == 0, 8);
+    }
+
+    /**
+     * Reads the number of ACEs into the DACL of the security descriptor starting at the current position of the given
+     * buffer, without decoding any ACE.
+     *
+     * @param src source buffer.
+     * @return number of DACL ACEs; -1 if the DACL is not present.
+     */
+    public static int peekAceCount(final ByteBuffer src) {
+        final int offset = peekOffset(src, (peekControlFlags(src) & 0x0004) != 0, 16);
+        return offset == 0 ? -1 : LittleEndian.getUInt16(src, src.position() + offset + 4);
+    }
+
+    /**
+     * Checks whether the security descriptor starting at the current position of the given buffer has a SACL.
+     *
+     * @param src source buffer.
+     * @return <tt>true</tt> if the SACL is present; <tt>false</tt> otherwise.
+     */
+    public static boolean hasSacl(final ByteBuffer src) {
+        return peekOffset(src, (peekControlFlags(src) & 0x0010) != 0, 12) != 0;
+    }
+
+    /**
+     * Checks whether the security descriptor starting at the current position of the given buffer has a DACL.
+     *
+     * @param src source buffer.
+     * @return <tt>true</tt> if the DACL is present; <tt>false</tt> otherwise.
+     */
+    public static boolean hasDacl(final ByteBuffer src) {
+        return peekOffset(src, (peekControlFlags(src) & 0x0004) != 0, 16) != 0;
+    }
+
+    /**
+     * Reads an offset from the header of the security descriptor starting at the current position of the given buffer.
+     *
+     * @param src source buffer.
+     * @param present whether the field is present, according to control access bit flags.
+     * @param pos offset position into the header.
+     * @return offset; 0 if not present.
+     */
+    private static int peekOffset(final ByteBuffer src, final boolean present, final int pos) {
+        return present ? LittleEndian.getInt32(src, src.position() + pos) : 0;
+    }
 
+    private static SID peekSID(final ByteBuffer src, final boolean present, final int pos) {
+        final int offset = peekOffset(src, present, pos);
+        if (offset == 0) {
+            return null;
+        }
+
+        final SID sid = new SID();
+        sid.parse(src, src.position() + offset);
+        return sid;
+    }
+
+    /**
+     * Load the SDDL header from the buffer; owner, group, SACL and DACL are decoded straight away unless
+     * <tt>lazy</tt>.
+     *
+     * @param buff source buffer, starting with the security descriptor.
+     * @param lazy whether owner, group, SACL and DACL must be decoded on first access.
+     */
+    private void parse(final ByteBuffer buff, final boolean lazy) {
         /**
          * Revision (1 byte): An unsigned 8-bit value that specifies the revision of the SECURITY_DESCRIPTOR
          * structure. This field MUST be set to one.
          */
-        final byte[] header = NumberFacility.getBytes(buff.get(pos));
-        revision = header[0];
+        revision = buff.get(0);
 
         /**
          * Control (2 bytes): An unsigned 16-bit field that specifies control access bit flags. The Self Relative
          * (SR) bit MUST be set when the security descriptor is in self-relative format.
          */
-        controlFlags = new byte[] { header[3], header[2] };
-        final boolean[] controlFlag = NumberFacility.getBits(controlFlags);
+        controlFlags = new byte[] { buff.get(3), buff.get(2) };
+        final int control = LittleEndian.getUInt16(buff, 2);
 
-        pos++;
         /**
          * OffsetOwner (4 bytes): An unsigned 32-bit integer that specifies the offset to the SID. This SID
          * specifies the owner of the object to which the security descriptor is associated. This must be a valid
          * offset if the OD flag is not set. If this field is set to zero, the OwnerSid field MUST not be present.
          */
-        if (!controlFlag[15]) {
-            offsetOwner = NumberFacility.getReverseUInt(buff.get(pos));
+        if ((control & 0x0001) == 0) {
+            offsetOwner = LittleEndian.getUInt32(buff, 4);
         } else {
             offsetOwner = 0;
         }
 
-        pos++;
-
         /**
          * OffsetGroup (4 bytes): An unsigned 32-bit integer that specifies the offset to the SID. This SID
          * specifies the group of the object to which the security descriptor is associated. This must be a valid
          * offset if the GD flag is not set. If this field is set to zero, the GroupSid field MUST not be present.
          */
-        if (!controlFlag[14]) {
-            offsetGroup = NumberFacility.getReverseUInt(buff.get(pos));
+        if ((control & 0x0002) == 0) {
+            offsetGroup = LittleEndian.getUInt32(buff, 8);
         } else {
             offsetGroup = 0;
         }
 
-        pos++;
-
         /**
          * OffsetSacl (4 bytes): An unsigned 32-bit integer that specifies the offset to the ACL that contains
          * system ACEs. Typically, the system ACL contains auditing ACEs (such as SYSTEM_AUDIT_ACE,
@@ -192,70 +441,54 @@ public class SDDL {
          * in section 2.4.4.13). This must be a valid offset if the SP flag is set; if the SP flag is not set, this
          * field MUST be set to zero. If this field is set to zero, the Sacl field MUST not be present.
          */
-        if (controlFlag[11]) {
-            offsetSACL = NumberFacility.getReverseUInt(buff.get(pos));
+        if ((control & 0x0010) != 0) {
+            offsetSACL = LittleEndian.getUInt32(buff, 12);
         } else {
             offsetSACL = 0;
         }
 
-        pos++;
-
         /**
          * OffsetDacl (4 bytes): An unsigned 32-bit integer that specifies the offset to the ACL that contains ACEs
          * that control access. Typically, the DACL contains ACEs that grant or deny access to principals or groups.
          * This must be a valid offset if the DP flag is set; if the DP flag is not set, this field MUST be set to
          * zero. If this field is set to zero, the Dacl field MUST not be present.
          */
-        if (controlFlag[13]) {
-            offsetDACL = NumberFacility.getReverseUInt(buff.get(pos));
+        if ((control & 0x0004) != 0) {
+            offsetDACL = LittleEndian.getUInt32(buff, 16);
         } else {
             offsetDACL = 0;
         }
 
-        /**
-         * OwnerSid (variable): The SID of the owner of the object. The length of the SID MUST be a multiple of 4.
-         * This field MUST be present if the OffsetOwner field is not zero.
-         */
-        if (offsetOwner > 0) {
-            // read for OwnerSid
-            pos = (int) (offsetOwner / 4);
-            owner = new SID();
-            pos = owner.parse(buff, pos);
+        source = buff;
+        this.lazy = lazy;
+        if (!lazy) {
+            decode();
         }
+    }
 
-        /**
-         * GroupSid (variable): The SID of the group of the object. The length of the SID MUST be a multiple of 4.
-         * This field MUST be present if the GroupOwner field is not zero.
-         */
-        if (offsetGroup > 0) {
-            // read for GroupSid
-            pos = (int) (offsetGroup / 4);
-            group = new SID();
-            pos = group.parse(buff, pos);
+    /**
+     * Decodes all the parts not decoded yet.
+     */
+    private void decode() {
+        if (source != null) {
+            getOwner();
+            getGroup();
+            getSacl();
+            getDacl();
         }
+    }
 
-        /**
-         * Sacl (variable): The SACL of the object. The length of the SID MUST be a multiple of 4. This field MUST
-         * be present if the SP flag is set.
-         */
-        if (offsetSACL > 0) {
-            // read for Sacl
-            pos = (int) (offsetSACL / 4);
-            sacl = new ACL();
-            pos = sacl.parse(buff, pos);
-        }
+    /**
+     * Releases the source buffer once all present parts have been decoded.
+     */
+    private void releaseSource() {
+        if ((offsetOwner == 0 || owner != null)
+                && (offsetGroup == 0 || group != null)
+                && (offsetSACL == 0 || sacl != null)
+                && (offsetDACL == 0 || dacl != null)) {
 
-        /**
-         * Dacl (variable): The DACL of the object. The length of the SID MUST be a multiple of 4. This field MUST
-         * be present if the DP flag is set.
-         */
-        if (offsetDACL > 0) {
-            pos = (int) (offsetDACL / 4);
-            dacl = new ACL();
-            pos = dacl.parse(buff, pos);
+            source = null;
         }
-
-        return pos;
     }
 
     /**
@@ -264,6 +497,7 @@ public class SDDL {
      * @return size.
      */
     public int getSize() {
+        decode();
         return 20 + (sacl == null ? 0 : sacl.getSize())
                 + (dacl == null ? 0 : dacl.getSize())
                 + (owner == null ? 0 : owner.getSize())
@@ -282,10 +516,62 @@ public class SDDL {
     /**
      * Gets control.
      *
-     * @return An unsigned 16-bit field that specifies control access bit flags.
+     * @return An unsigned 16-bit field that specifies control access bit flags; a copy, once frozen.
      */
     public byte[] getControlFlags() {
-        return controlFlags;
+        return frozen ? controlFlags.clone() : controlFlags;
+    }
+
+    /**
+     * Gets control, without copies.
+     *
+     * @return control access bit flags, as unsigned 16-bit value.
+     */
+    int getControl() {
+        return ((controlFlags[0] & 0xFF) << 8) | (controlFlags[1] & 0xFF);
+    }
+
+    /**
+     * Tells whether this instance cannot be modified.
+     *
+     * @return <tt>true</tt> if frozen; <tt>false</tt> otherwise.
+     * @see #freeze()
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Makes this instance, with owner, group, DACL and SACL, unmodifiable: any attempt to change them raises
+     * {@link UnsupportedOperationException}. All parts are decoded and fingerprint and hash code are computed in
+     * advance; string and binary representations are cached once computed.
+     *
+     * Once frozen, this instance can be shared among threads (e.g. by caches or parallel analyzers) without copies.
+     * Cached state is held in plain fields, hence the instance must be safely published to other threads: through a
+     * final or volatile field, a concurrent collection or a lock, as done by {@link SdStore}. Readers then need no
+     * further synchronization.
+     *
+     * @return this instance.
+     */
+    public SDDL freeze() {
+        if (!frozen) {
+            decode();
+            if (owner != null) {
+                owner.freeze();
+            }
+            if (group != null) {
+                group.freeze();
+            }
+            if (dacl != null) {
+                dacl.freeze();
+            }
+            if (sacl != null) {
+                sacl.freeze();
+            }
+            fingerprint = getFingerprint();
+            frozen = true;
+        }
+        return this;
     }
 
     /**
@@ -294,6 +580,14 @@ public class SDDL {
      * @return The SID of the owner of the object.
      */
     public SID getOwner() {
+        /**
+         * OwnerSid (variable): The SID of the owner of the object. The length of the SID MUST be a multiple of 4.
+         * This field MUST be present if the OffsetOwner field is not zero.
+         */
+        if (owner == null && offsetOwner > 0 && source != null) {
+            owner = parseSID((int) offsetOwner);
+            releaseSource();
+        }
         return owner;
     }
 
@@ -303,15 +597,42 @@ public class SDDL {
      * @return The SID of the group of the object.
      */
     public SID getGroup() {
+        /**
+         * GroupSid (variable): The SID of the group of the object. The length of the SID MUST be a multiple of 4.
+         * This field MUST be present if the GroupOwner field is not zero.
+         */
+        if (group == null && offsetGroup > 0 && source != null) {
+            group = parseSID((int) offsetGroup);
+            releaseSource();
+        }
         return group;
     }
 
+    private SID parseSID(final int offset) {
+        if (sidPool == null) {
+            final SID sid = new SID();
+            sid.parse(source, offset);
+            return sid;
+        }
+        return sidPool.parse(source, offset);
+    }
+
     /**
      * Gets DACL.
      *
      * @return The DACL of the object.
      */
     public ACL getDacl() {
+        /**
+         * Dacl (variable): The DACL of the object. The length of the SID MUST be a multiple of 4. This field MUST
+         * be present if the DP flag is set.
+         */
+        if (dacl == null && offsetDACL > 0 && source != null) {
+            final ACL acl = new ACL();
+            acl.parse(source, (int) offsetDACL, sidPool, keepSource, lazy);
+            dacl = acl;
+            releaseSource();
+        }
         return dacl;
     }
 
@@ -321,80 +642,100 @@ public class SDDL {
      * @return The SACL of the object.
      */
     public ACL getSacl() {
+        /**
+         * Sacl (variable): The SACL of the object. The length of the SID MUST be a multiple of 4. This field MUST
+         * be present if the SP flag is set.
+         */
+        if (sacl == null && offsetSACL > 0 && source != null) {
+            final ACL acl = new ACL();
+            acl.parse(source, (int) offsetSACL, sidPool, keepSource, lazy);
+            sacl = acl;
+            releaseSource();
+        }
         return sacl;
     }
 
     /**
      * Serializes SDDL as byte array.
      *
+     * Owner, group and header are always encoded; ACLs and ACEs parsed from a byte array and not changed since are
+     * copied verbatim from it.
+     *
      * @return SDL as byte array.
      */
     public byte[] toByteArray() {
-        final ByteBuffer buff = ByteBuffer.allocate(getSize());
+        byte[] res = bytes;
+        if (res != null) {
+            return res.clone();
+        }
+
+        res = new byte[getSize()];
+        writeTo(ByteBuffer.wrap(res).order(ByteOrder.LITTLE_ENDIAN));
+        if (frozen) {
+            bytes = res.clone();
+        }
+        return res;
+    }
+
+    /**
+     * Serializes into the given buffer, starting at its current position; the position is then moved after the last
+     * byte written.
+     *
+     * @param dst destination buffer, either heap or direct, in any byte order.
+     * @return number of bytes written.
+     * @throws java.nio.BufferOverflowException if the buffer has not enough remaining bytes.
+     */
+    public int writeTo(final ByteBuffer dst) {
+        final int size = getSize();
+        if (dst.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+
+        final byte[] cached = bytes;
+        if (cached != null) {
+            dst.put(cached);
+            return size;
+        }
+
+        final int start = dst.position();
 
         // add revision
-        buff.put(revision);
+        dst.put(start, revision);
 
         // add reserved
-        buff.put((byte) 0x00);
+        dst.put(start + 1, (byte) 0x00);
 
         // add contro flags
-        buff.put(controlFlags[1]);
-        buff.put(controlFlags[0]);
+        dst.put(start + 2, controlFlags[1]);
+        dst.put(start + 3, controlFlags[0]);
 
-        // add offset owner
-        buff.position(4);
+        dst.position(start + 20);
 
-        int nextAvailablePosition = 20;
-        // add owner SID
-        if (owner == null) {
-            buff.putInt(0);
-        } else {
-            buff.put(Hex.reverse(NumberFacility.getBytes(nextAvailablePosition)));
-            buff.position(nextAvailablePosition);
-            buff.put(owner.toByteArray());
-            nextAvailablePosition += owner.getSize();
+        // add owner SID and its offset
+        LittleEndian.putInt32(dst, start + 4, owner == null ? 0 : dst.position() - start);
+        if (owner != null) {
+            owner.writeTo(dst);
         }
 
-        // add offset group
-        buff.position(8);
-
-        // add group SID
-        if (group == null) {
-            buff.putInt(0);
-        } else {
-            buff.put(Hex.reverse(NumberFacility.getBytes(nextAvailablePosition)));
-            buff.position(nextAvailablePosition);
-            buff.put(group.toByteArray());
-            nextAvailablePosition += group.getSize();
+        // add group SID and its offset
+        LittleEndian.putInt32(dst, start + 8, group == null ? 0 : dst.position() - start);
+        if (group != null) {
+            group.writeTo(dst);
         }
 
-        // add offset sacl
-        buff.position(12);
-
-        // add SACL
-        if (sacl == null) {
-            buff.putInt(0);
-        } else {
-            buff.put(Hex.reverse(NumberFacility.getBytes(nextAvailablePosition)));
-            buff.position(nextAvailablePosition);
-            buff.put(sacl.toByteArray());
-            nextAvailablePosition += sacl.getSize();
+        // add SACL and its offset
+        LittleEndian.putInt32(dst, start + 12, sacl == null ? 0 : dst.position() - start);
+        if (sacl != null) {
+            sacl.writeTo(dst);
         }
 
-        // add offset dacl
-        buff.position(16);
-
-        // add DACL
-        if (dacl == null) {
-            buff.putInt(0);
-        } else {
-            buff.put(Hex.reverse(NumberFacility.getBytes(nextAvailablePosition)));
-            buff.position(nextAvailablePosition);
-            buff.put(dacl.toByteArray());
+        // add DACL and its offset
+        LittleEndian.putInt32(dst, start + 16, dacl == null ? 0 : dst.position() - start);
+        if (dacl != null) {
+            dacl.writeTo(dst);
         }
 
-        return buff.array();
+        return size;
     }
 
     /**
@@ -402,46 +743,65 @@ public class SDDL {
      */
     @Override
     public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
         if (!(o instanceof SDDL)) {
             return false;
         }
 
         final SDDL ext = SDDL.class.cast(o);
 
-        if (getSize() != ext.getSize()) {
-            LOG.debug("Different size");
-            return false;
-        }
-
         if (!Arrays.equals(getControlFlags(), ext.getControlFlags())) {
             LOG.debug("Different control flags");
             return false;
         }
 
-        if (!getOwner().equals(ext.getOwner())) {
-            LOG.debug("Different owner ....\nEspected; {}\nActual: {}",
-                    getOwner().toString(), ext.getOwner().toString());
+        if (!Objects.equals(getOwner(), ext.getOwner())) {
+            LOG.debug("Different owner ....\nEspected; {}\nActual: {}", getOwner(), ext.getOwner());
             return false;
         }
 
-        if (!getGroup().equals(ext.getGroup())) {
-            LOG.debug("Different group ....\nEspected; {}\nActual: {}",
-                    getGroup().toString(), ext.getGroup().toString());
+        if (!Objects.equals(getGroup(), ext.getGroup())) {
+            LOG.debug("Different group ....\nEspected; {}\nActual: {}", getGroup(), ext.getGroup());
             return false;
         }
 
-        if (!getDacl().equals(ext.getDacl())) {
+        if (!Objects.equals(getDacl(), ext.getDacl())) {
             LOG.debug("Different dacl");
             return false;
         }
 
-        if (!getSacl().equals(ext.getSacl())) {
+        if (!Objects.equals(getSacl(), ext.getSacl())) {
             LOG.debug("Different sacl");
             return false;
         }
         return true;
     }
 
+    /**
+     * Gets a 64-bit fingerprint of this security descriptor, consistent with {@link #equals(java.lang.Object)}: equal
+     * security descriptors have equal fingerprints, while different ones are very unlikely to share the same one.
+     * It is combined from the fingerprints cached by SIDs and ACEs, so that it can be used as a cheap key for
+     * de-duplication and caching; it is only cached here once frozen, being cheap to combine otherwise.
+     *
+     * @return fingerprint.
+     */
+    public long getFingerprint() {
+        if (frozen) {
+            return fingerprint;
+        }
+
+        decode();
+        long res = Fingerprint.mix(Fingerprint.SEED, getControl());
+        res = Fingerprint.mix(res, owner == null ? Fingerprint.NULL : owner.getFingerprint());
+        res = Fingerprint.mix(res, group == null ? Fingerprint.NULL : group.getFingerprint());
+        res = Fingerprint.mix(res, dacl == null ? Fingerprint.NULL : dacl.getFingerprint());
+        res = Fingerprint.mix(res, sacl == null ? Fingerprint.NULL : sacl.getFingerprint());
+        return Fingerprint.finish(res);
+    }
+
     /**
      * Serializes SDDL as string.
      *
@@ -451,6 +811,11 @@ public class SDDL {
      */
     @Override
     public String toString() {
+        if (str != null) {
+            return str;
+        }
+
+        decode();
         final StringBuilder bld = new StringBuilder();
 
         if (owner != null) {
@@ -472,7 +837,11 @@ public class SDDL {
             bld.append(sacl.toString());
         }
 
-        return bld.toString();
+        final String res = bld.toString();
+        if (frozen) {
+            str = res;
+        }
+        return res;
     }
 
     /**
@@ -480,12 +849,6 @@ public class SDDL {
      */
     @Override
     public int hashCode() {
-        int hash = 5;
-        hash = 71 * hash + Arrays.hashCode(this.controlFlags);
-        hash = 71 * hash + Objects.hashCode(this.owner);
-        hash = 71 * hash + Objects.hashCode(this.group);
-        hash = 71 * hash + Objects.hashCode(this.dacl);
-        hash = 71 * hash + Objects.hashCode(this.sacl);
-        return hash;
+        return Fingerprint.toHashCode(getFingerprint());
     }
 }
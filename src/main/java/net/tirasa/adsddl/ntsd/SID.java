@@ -15,15 +15,15 @@
  */
 package net.tirasa.adsddl.ntsd;
 
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
-import java.nio.IntBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
 import net.tirasa.adsddl.ntsd.utils.Hex;
-import net.tirasa.adsddl.ntsd.utils.NumberFacility;
+import net.tirasa.adsddl.ntsd.utils.LittleEndian;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,16 +48,21 @@ import org.slf4j.LoggerFactory;
  *
  * Consumers of SIDs SHOULD NOT rely on anything more than that the SID has the appropriate structure.
  *
+ * Instances are ordered by identifier authority first, then by sub-authorities (compared as unsigned values), shorter
+ * SIDs first when one is prefix of the other; the ordering is consistent with {@link #equals(java.lang.Object)}.
+ *
  * @see <a href="https://msdn.microsoft.com/en-us/library/cc230371.aspx" target="_top">cc230371</a>
  * @see <a href="https://msdn.microsoft.com/en-us/library/gg465313.aspx" target="_top">gg465313</a>
  */
-public class SID {
+public class SID implements Comparable<SID> {
 
     /**
      * Logger.
      */
     protected static final Logger LOG = LoggerFactory.getLogger(SID.class);
 
+    private static final int[] NO_SUB_AUTHORITIES = new int[0];
+
     /**
      * An 8-bit unsigned integer that specifies the revision level of the SID. This value MUST be set to 0x01.
      */
@@ -67,17 +72,44 @@ public class SID {
      * A SID_IDENTIFIER_AUTHORITY (6 bytes) structure that indicates the authority under which the SID was created.
      * It describes the entity that created the SID. The Identifier Authority value {0,0,0,0,0,5} denotes SIDs created
      * by the NT SID authority.
+     *
+     * Stored as unsigned 48-bit big-endian value.
      */
-    private byte[] identifierAuthority;
+    private long identifierAuthority;
 
     /**
      * A variable length list of unsigned 32-bit integers that uniquely identifies a principal relative to the
      * IdentifierAuthority.
      */
-    private final List<byte[]> subAuthorities;
+    private int[] subAuthorities;
+
+    /**
+     * Cached string form; null when not (yet) available.
+     */
+    private String str;
+
+    /**
+     * Cached hash code; 0 when not (yet) available.
+     */
+    private int hash;
+
+    /**
+     * Cached fingerprint; 0 when not (yet) available.
+     */
+    private long fingerprint;
+
+    /**
+     * Whether this instance is shared, hence cannot be modified.
+     */
+    private boolean frozen;
+
+    /**
+     * Number of changes since creation, used by the ACEs holding this SID to detect changes.
+     */
+    private int modCount;
 
     SID() {
-        subAuthorities = new ArrayList<>();
+        subAuthorities = NO_SUB_AUTHORITIES;
     }
 
     /**
@@ -100,51 +132,180 @@ public class SID {
      * @return SID instance.
      */
     public static SID parse(final byte[] src) {
-        final ByteBuffer sddlBuffer = ByteBuffer.wrap(src);
         final SID sid = new SID();
-        sid.parse(sddlBuffer.asIntBuffer(), 0);
+        sid.parse(ByteBuffer.wrap(src).order(ByteOrder.LITTLE_ENDIAN), 0);
         return sid;
     }
 
     /**
-     * Load the SID from the buffer returning the last SID segment position into the buffer.
+     * Instances a SID instance of the given byte array, resolving it through the given pool.
+     *
+     * @param src SID as byte array.
+     * @param pool SID pool; if null, a new SID instance is always returned.
+     * @return SID instance, possibly shared.
+     * @see SidPool
+     */
+    public static SID parse(final byte[] src, final SidPool pool) {
+        return pool == null ? parse(src) : pool.parse(src);
+    }
+
+    /**
+     * Instances a SID instance of the given string form, <tt>S-1-IdentifierAuthority-SubAuthority1-...</tt>; the
+     * revision is read as given, as emitted by {@link #toString()}.
+     *
+     * The identifier authority is read as decimal value, unless prefixed by <tt>0x</tt> or given as 12 hexadecimal
+     * digits (as produced by {@link #toString()} for values not fitting 32 bits). As for any string form, the
+     * trailing <tt>-0</tt> is read as a sub-authority set to zero.
+     *
+     * @param src SID as string.
+     * @return SID instance.
+     * @throws IllegalArgumentException if the given string is not a valid SID.
+     */
+    public static SID fromString(final CharSequence src) {
+        return fromString(src, 0, src.length());
+    }
+
+    /**
+     * Instances a SID instance of the string form found into the given range of characters.
+     *
+     * @param src source characters.
+     * @param from SID string start position (inclusive).
+     * @param to SID string end position (exclusive).
+     * @return SID instance.
+     * @throws IllegalArgumentException if the given range does not contain a valid SID.
+     * @see #fromString(java.lang.CharSequence)
+     */
+    static SID fromString(final CharSequence src, final int from, final int to) {
+        if (to - from < 5 || (src.charAt(from) != 'S' && src.charAt(from) != 's') || src.charAt(from + 1) != '-') {
+            throw invalid(src, from, to);
+        }
+
+        // revision
+        int pos = from + 2;
+        int end = nextDash(src, pos, to);
+        final long revision = parseDecimal(src, pos, end, 0xFF, from, to);
+
+        // identifier authority
+        pos = end + 1;
+        end = nextDash(src, pos, to);
+        final long authority;
+        if (end - pos > 2 && src.charAt(pos) == '0' && (src.charAt(pos + 1) == 'x' || src.charAt(pos + 1) == 'X')) {
+            authority = parseHex(src, pos + 2, end, from, to);
+        } else if (end - pos == 12) {
+            authority = parseHex(src, pos, end, from, to);
+        } else {
+            authority = parseDecimal(src, pos, end, 0xFFFFFFFFL, from, to);
+        }
+
+        // sub-authorities
+        final int[] subs = new int[15];
+        int count = 0;
+        while (end < to) {
+            if (count == subs.length) {
+                throw invalid(src, from, to);
+            }
+            pos = end + 1;
+            end = nextDash(src, pos, to);
+            subs[count++] = (int) parseDecimal(src, pos, end, 0xFFFFFFFFL, from, to);
+        }
+
+        final SID sid = new SID();
+        sid.revision = (byte) revision;
+        sid.identifierAuthority = authority;
+        sid.subAuthorities = count == 0 ? NO_SUB_AUTHORITIES : Arrays.copyOf(subs, count);
+        return sid;
+    }
+
+    private static IllegalArgumentException invalid(final CharSequence src, final int from, final int to) {
+        return new IllegalArgumentException("Invalid SID: " + src.subSequence(from, to));
+    }
+
+    private static int nextDash(final CharSequence src, final int from, final int to) {
+        int pos = from;
+        while (pos < to && src.charAt(pos) != '-') {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static long parseDecimal(
+            final CharSequence src, final int from, final int to, final long max, final int start, final int end) {
+
+        if (from >= to || to - from > 10) {
+            throw invalid(src, start, end);
+        }
+
+        long res = 0;
+        for (int i = from; i < to; i++) {
+            final char c = src.charAt(i);
+            if (c < '0' || c > '9') {
+                throw invalid(src, start, end);
+            }
+            res = res * 10 + (c - '0');
+        }
+
+        if (res > max) {
+            throw invalid(src, start, end);
+        }
+        return res;
+    }
+
+    private static long parseHex(final CharSequence src, final int from, final int to, final int start, final int end) {
+        if (from >= to || to - from > 12) {
+            throw invalid(src, start, end);
+        }
+
+        long res = 0;
+        for (int i = from; i < to; i++) {
+            final int digit = Character.digit(src.charAt(i), 16);
+            if (digit < 0) {
+                throw invalid(src, start, end);
+            }
+            res = (res << 4) | digit;
+        }
+        return res;
+    }
+
+    /**
+     * Load the SID from the buffer returning the position right after the SID into the buffer.
      *
      * @param buff source buffer.
-     * @param start start loading position.
-     * @return last loading position.
+     * @param start start loading position (in bytes).
+     * @return next loading position (in bytes).
      */
-    int parse(final IntBuffer buff, final int start) {
-        int pos = start;
+    int parse(final ByteBuffer buff, final int start) {
+        checkNotFrozen();
 
         // Check for a SID (http://msdn.microsoft.com/en-us/library/cc230371.aspx)
-        final byte[] sidHeader = NumberFacility.getBytes(buff.get(pos));
 
         // Revision(1 byte): An 8-bit unsigned integer that specifies the revision level of the SID.
         // This value MUST be set to 0x01.
-        revision = sidHeader[0];
+        revision = buff.get(start);
 
         //SubAuthorityCount (1 byte): An 8-bit unsigned integer that specifies the number of elements 
         //in the SubAuthority array. The maximum number of elements allowed is 15.
-        int subAuthorityCount = NumberFacility.getInt(sidHeader[1]);
+        final int subAuthorityCount = LittleEndian.getUInt8(buff, start + 1);
 
         // IdentifierAuthority (6 bytes): A SID_IDENTIFIER_AUTHORITY structure that indicates the 
         // authority under which the SID was created. It describes the entity that created the SID. 
         // The Identifier Authority value {0,0,0,0,0,5} denotes SIDs created by the NT SID authority.
-        identifierAuthority = new byte[6];
-
-        System.arraycopy(sidHeader, 2, identifierAuthority, 0, 2);
-
-        pos++;
-        System.arraycopy(NumberFacility.getBytes(buff.get(pos)), 0, identifierAuthority, 2, 4);
+        identifierAuthority = LittleEndian.getUInt48BigEndian(buff, start + 2);
 
         // SubAuthority (variable): A variable length array of unsigned 32-bit integers that uniquely 
         // identifies a principal relative to the IdentifierAuthority. Its length is determined by 
         // SubAuthorityCount.
+        int pos = start + 8;
+        subAuthorities = subAuthorityCount == 0 ? NO_SUB_AUTHORITIES : new int[subAuthorityCount];
         for (int j = 0; j < subAuthorityCount; j++) {
-            pos++;
-            subAuthorities.add(Hex.reverse(NumberFacility.getBytes(buff.get(pos))));
+            subAuthorities[j] = LittleEndian.getInt32(buff, pos);
+            pos += 4;
         }
 
+        str = null;
+        hash = 0;
+        fingerprint = 0;
+        modCount++;
+
         return pos;
     }
 
@@ -164,7 +325,7 @@ public class SID {
      * @return sub-authorities number.
      */
     public int getSubAuthorityCount() {
-        return subAuthorities == null ? 0 : subAuthorities.size() > 15 ? 15 : subAuthorities.size();
+        return subAuthorities.length > 15 ? 15 : subAuthorities.length;
     }
 
     /**
@@ -173,7 +334,20 @@ public class SID {
      * @return identifier authority.
      */
     public byte[] getIdentifierAuthority() {
-        return identifierAuthority == null ? null : Arrays.copyOf(identifierAuthority, identifierAuthority.length);
+        final byte[] res = new byte[6];
+        for (int i = 0; i < 6; i++) {
+            res[i] = (byte) (identifierAuthority >>> (40 - i * 8));
+        }
+        return res;
+    }
+
+    /**
+     * Gets identifier authority as unsigned 48-bit value.
+     *
+     * @return identifier authority.
+     */
+    public long getIdentifierAuthorityValue() {
+        return identifierAuthority;
     }
 
     /**
@@ -183,22 +357,33 @@ public class SID {
      * @return sub-authorities.
      */
     public List<byte[]> getSubAuthorities() {
-        final List<byte[]> res = new ArrayList<>(getSubAuthorityCount());
-        for (byte[] sub : subAuthorities) {
-            if (sub != null) {
-                res.add(Arrays.copyOf(sub, sub.length));
-            }
+        final List<byte[]> res = new ArrayList<>(subAuthorities.length);
+        for (int sub : subAuthorities) {
+            res.add(new byte[] { (byte) (sub >>> 24), (byte) (sub >>> 16), (byte) (sub >>> 8), (byte) sub });
         }
         return Collections.unmodifiableList(res);
     }
 
+    /**
+     * Gets the sub-authority at the given position as unsigned 32-bit value.
+     *
+     * @param index sub-authority position.
+     * @return sub-authority.
+     */
+    public long getSubAuthority(final int index) {
+        if (index < 0 || index >= subAuthorities.length) {
+            throw new IndexOutOfBoundsException("Invalid sub-authority index " + index);
+        }
+        return subAuthorities[index] & 0xFFFFFFFFL;
+    }
+
     /**
      * Gets size of the SID byte array form.
      *
      * @return size of SID byte aray form.
      */
     public int getSize() {
-        return 8 + subAuthorities.size() * 4;
+        return 8 + subAuthorities.length * 4;
     }
 
     /**
@@ -208,7 +393,13 @@ public class SID {
      * @return the current SID instance.
      */
     public SID setRevision(byte revision) {
+        checkNotFrozen();
         this.revision = revision;
+
+        str = null;
+        hash = 0;
+        fingerprint = 0;
+        modCount++;
         return this;
     }
 
@@ -222,8 +413,18 @@ public class SID {
         if (identifierAuthority == null || identifierAuthority.length != 6) {
             throw new IllegalArgumentException("Invalid identifier authority");
         }
+        checkNotFrozen();
 
-        this.identifierAuthority = Arrays.copyOf(identifierAuthority, identifierAuthority.length);
+        long value = 0;
+        for (byte b : identifierAuthority) {
+            value = (value << 8) | (b & 0xFF);
+        }
+        this.identifierAuthority = value;
+
+        str = null;
+        hash = 0;
+        fingerprint = 0;
+        modCount++;
         return this;
     }
 
@@ -238,25 +439,154 @@ public class SID {
             throw new IllegalArgumentException("Invalid sub-authority to be added");
         }
 
-        this.subAuthorities.add(Arrays.copyOf(sub, sub.length));
+        return addSubAuthority(
+                ((sub[0] & 0xFFL) << 24) | ((sub[1] & 0xFF) << 16) | ((sub[2] & 0xFF) << 8) | (sub[3] & 0xFF));
+    }
+
+    /**
+     * Adds sub-authority:a principal relative to the IdentifierAuthority.
+     *
+     * @param sub sub-authority as unsigned 32-bit value.
+     * @return the current SID instance.
+     */
+    public SID addSubAuthority(final long sub) {
+        if (sub < 0 || sub > 0xFFFFFFFFL) {
+            throw new IllegalArgumentException("Invalid sub-authority to be added");
+        }
+        checkNotFrozen();
+
+        subAuthorities = Arrays.copyOf(subAuthorities, subAuthorities.length + 1);
+        subAuthorities[subAuthorities.length - 1] = (int) sub;
+
+        str = null;
+        hash = 0;
+        fingerprint = 0;
+        modCount++;
+        return this;
+    }
+
+    /**
+     * Tells whether this instance is shared (e.g. handed out by a {@link SidPool}) or has been frozen, hence cannot be
+     * modified.
+     *
+     * @return <tt>true</tt> if frozen; <tt>false</tt> otherwise.
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Makes this instance unmodifiable: setters raise {@link UnsupportedOperationException}. Hash code, fingerprint
+     * and string representation are computed in advance.
+     *
+     * Once frozen, this instance can be read by many threads without further synchronization, provided that it is
+     * safely published, as for {@link SDDL#freeze()}: {@link SidPool} does so for the SIDs it hands out.
+     *
+     * @return this instance.
+     */
+    public SID freeze() {
+        if (!frozen) {
+            hashCode();
+            getFingerprint();
+            toString();
+            frozen = true;
+        }
         return this;
     }
 
+    /**
+     * Gets the number of changes since creation.
+     *
+     * @return number of changes.
+     */
+    int getModCount() {
+        return modCount;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Frozen SID instances cannot be modified");
+        }
+    }
+
+    /**
+     * Checks whether the SID stored into the buffer at the given position is the same as this instance, revision
+     * included.
+     *
+     * @param buff source buffer.
+     * @param start SID position (in bytes).
+     * @return <tt>true</tt> if matching; <tt>false</tt> otherwise.
+     */
+    boolean matches(final ByteBuffer buff, final int start) {
+        if (revision != buff.get(start)
+                || subAuthorities.length != LittleEndian.getUInt8(buff, start + 1)
+                || identifierAuthority != LittleEndian.getUInt48BigEndian(buff, start + 2)) {
+
+            return false;
+        }
+        for (int i = 0; i < subAuthorities.length; i++) {
+            if (subAuthorities[i] != LittleEndian.getInt32(buff, start + 8 + i * 4)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the hash code of the SID stored into the buffer at the given position, without decoding it: the result
+     * is the same as {@link #hashCode()} of the corresponding SID instance.
+     *
+     * @param buff source buffer.
+     * @param start SID position (in bytes).
+     * @return hash code.
+     */
+    static int hashCode(final ByteBuffer buff, final int start) {
+        final int count = LittleEndian.getUInt8(buff, start + 1);
+        int subs = 1;
+        for (int i = 0; i < count; i++) {
+            subs = 31 * subs + LittleEndian.getInt32(buff, start + 8 + i * 4);
+        }
+        return 97 * (97 * 5 + Long.hashCode(LittleEndian.getUInt48BigEndian(buff, start + 2))) + subs;
+    }
+
     /**
      * Serializes to byte array.
      *
      * @return serialized SID.
      */
     public byte[] toByteArray() {
+        final byte[] res = new byte[getSize()];
+        writeTo(ByteBuffer.wrap(res).order(ByteOrder.LITTLE_ENDIAN));
+        return res;
+    }
+
+    /**
+     * Serializes into the given buffer, starting at its current position; the position is then moved after the last
+     * byte written.
+     *
+     * @param dst destination buffer, either heap or direct, in any byte order.
+     * @return number of bytes written.
+     * @throws java.nio.BufferOverflowException if the buffer has not enough remaining bytes.
+     */
+    public int writeTo(final ByteBuffer dst) {
         // variable content size depending on sub authorities number
-        final ByteBuffer buff = ByteBuffer.allocate(getSize());
-        buff.put(revision);
-        buff.put(NumberFacility.getBytes(subAuthorities.size())[3]);
-        buff.put(identifierAuthority);
-        for (byte[] sub : subAuthorities) {
-            buff.put(Hex.reverse(sub));
+        final int size = getSize();
+        if (dst.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+
+        final int start = dst.position();
+        dst.put(start, revision);
+        dst.put(start + 1, (byte) subAuthorities.length);
+        LittleEndian.putUInt48BigEndian(dst, start + 2, identifierAuthority);
+        int pos = start + 8;
+        for (int sub : subAuthorities) {
+            LittleEndian.putInt32(dst, pos, sub);
+            pos += 4;
         }
-        return buff.array();
+
+        dst.position(start + size);
+        return size;
     }
 
     /**
@@ -266,64 +596,109 @@ public class SID {
      */
     @Override
     public String toString() {
-        final StringBuilder bld = new StringBuilder();
-        bld.append("S-1-");
+        if (str == null) {
+            str = appendTo(new StringBuilder(16 + subAuthorities.length * 11)).toString();
+        }
+
+        return str;
+    }
+
+    /**
+     * Appends the string form of this SID to the given builder, without building any intermediate string.
+     *
+     * @param bld string builder.
+     * @return the given string builder.
+     * @see #toString()
+     */
+    public StringBuilder appendTo(final StringBuilder bld) {
+        return appendTo(bld, false);
+    }
+
+    /**
+     * Appends the string form of this SID to the given builder, without building any intermediate string.
+     *
+     * @param bld string builder.
+     * @param hexPrefix whether identifier authorities beyond 32 bits must be prefixed by <tt>0x</tt>, as in the SDDL
+     * form.
+     * @return the given string builder.
+     */
+    StringBuilder appendTo(final StringBuilder bld, final boolean hexPrefix) {
+        final boolean hex = (identifierAuthority >>> 32) != 0;
+        if (str != null && !(hex && hexPrefix)) {
+            return bld.append(str);
+        }
 
-        if (identifierAuthority[0] == 0x00 && identifierAuthority[1] == 0x00) {
-            bld.append(NumberFacility.getUInt(
-                    identifierAuthority[2], identifierAuthority[3], identifierAuthority[4], identifierAuthority[5]));
+        // the revision MUST be 1, but any stored value is emitted, so that fromString() reads it back
+        bld.append("S-").append(revision & 0xFF).append('-');
+
+        if (!hex) {
+            bld.append(identifierAuthority);
         } else {
-            bld.append(Hex.get(identifierAuthority));
+            if (hexPrefix) {
+                bld.append("0x");
+            }
+            for (int shift = 40; shift >= 0; shift -= 8) {
+                Hex.append(bld, (byte) (identifierAuthority >>> shift));
+            }
         }
 
-        if (subAuthorities.isEmpty()) {
+        if (subAuthorities.length == 0) {
             bld.append("-0");
         } else {
-            for (byte[] sub : subAuthorities) {
-                bld.append("-");
-                bld.append(NumberFacility.getUInt(sub));
+            for (int sub : subAuthorities) {
+                bld.append('-');
+                bld.append(sub & 0xFFFFFFFFL);
             }
         }
 
-        return bld.toString();
+        return bld;
     }
 
     /**
      * {@inheritDoc }
      *
+     * SIDs are equal when revision, identifier authority and sub-authorities are the same, as in their binary form.
+     *
      * @param sid SID to be compared with.
      * @return <tt>true</tt> if equals; <tt>false</tt> otherwise.
      */
     @Override
     public boolean equals(final Object sid) {
+        if (this == sid) {
+            return true;
+        }
+
         if (!(sid instanceof SID)) {
             return false;
         }
 
         final SID ext = SID.class.cast(sid);
 
-        if (getSize() != ext.getSize()) {
-            LOG.debug("Different size");
+        if (revision != ext.revision) {
+            LOG.debug("Different revision");
             return false;
         }
 
-        if (getSubAuthorityCount() != ext.getSubAuthorityCount()) {
+        if (subAuthorities.length != ext.subAuthorities.length) {
             LOG.debug("Different sub authorities");
             return false;
         }
 
-        if (!Arrays.equals(getIdentifierAuthority(), ext.getIdentifierAuthority())) {
-            LOG.debug("Different identifier authority: {}-{}",
-                    Hex.get(identifierAuthority), Hex.get(ext.getIdentifierAuthority()));
+        if (identifierAuthority != ext.identifierAuthority) {
+            LOG.debug("Different identifier authority");
             return false;
         }
 
-        for (int i = 0; i < subAuthorities.size(); i++) {
-            if (!Arrays.equals(subAuthorities.get(i), ext.getSubAuthorities().get(i))) {
-                LOG.debug("Different sub authority: {}-{}",
-                        Hex.get(subAuthorities.get(i)), Hex.get(ext.getSubAuthorities().get(i)));
-                return false;
-            }
+        if ((hash != 0 && ext.hash != 0 && hash != ext.hash)
+                || (fingerprint != 0 && ext.fingerprint != 0 && fingerprint != ext.fingerprint)) {
+
+            LOG.debug("Different hash");
+            return false;
+        }
+
+        if (!Arrays.equals(subAuthorities, ext.subAuthorities)) {
+            LOG.debug("Different sub authority");
+            return false;
         }
 
         return true;
@@ -336,10 +711,49 @@ public class SID {
      */
     @Override
     public int hashCode() {
-        int hash = 5;
-        hash = 97 * hash + Arrays.hashCode(this.identifierAuthority);
-        hash = 97 * hash + Objects.hashCode(this.subAuthorities);
+        if (hash == 0) {
+            // keep consistent with hashCode(ByteBuffer, int)
+            hash = 97 * (97 * 5 + Long.hashCode(this.identifierAuthority)) + Arrays.hashCode(this.subAuthorities);
+        }
         return hash;
     }
 
+    /**
+     * Gets a 64-bit fingerprint of this SID, consistent with {@link #equals(java.lang.Object)}: equal SIDs have equal
+     * fingerprints, while different SIDs are very unlikely to share the same one. The value is cached until the SID is
+     * changed.
+     *
+     * @return fingerprint.
+     */
+    public long getFingerprint() {
+        if (fingerprint == 0) {
+            long res = Fingerprint.mix(Fingerprint.SEED, revision);
+            res = Fingerprint.mix(res, identifierAuthority);
+            res = Fingerprint.mix(res, subAuthorities.length);
+            for (int sub : subAuthorities) {
+                res = Fingerprint.mix(res, sub);
+            }
+            fingerprint = Fingerprint.finish(res);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @param sid SID to be compared with.
+     * @return a negative integer, zero, or a positive integer as this SID is less than, equal to, or greater than the
+     * given SID.
+     */
+    @Override
+    public int compareTo(final SID sid) {
+        int res = Long.compare(identifierAuthority, sid.identifierAuthority);
+        for (int i = 0; res == 0 && i < subAuthorities.length && i < sid.subAuthorities.length; i++) {
+            res = Integer.compareUnsigned(subAuthorities[i], sid.subAuthorities[i]);
+        }
+        if (res == 0) {
+            res = Integer.compare(subAuthorities.length, sid.subAuthorities.length);
+        }
+        return res == 0 ? Byte.compare(revision, sid.revision) : res;
+    }
 }
@@ -0,0 +1,307 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.ntsd;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Thread-safe, content-addressed store of security descriptors, much like the <tt>sd_table</tt> of the AD database.
+ *
+ * Within a directory, most objects share a small set of distinct security descriptors: each distinct descriptor is
+ * stored once, keyed by the SHA-256 digest of its canonical binary form (as encoded by {@link SDDL#toByteArray()} out
+ * of the decoded fields, never copying source bytes verbatim, so that reserved fields are always zero), and
+ * identified by a compact <tt>int</tt> id. Callers can then map objects to ids, taking a few bytes per object
+ * instead of a whole descriptor.
+ *
+ * Each id is bound to a single parsed instance, shared by all callers and hence frozen (see {@link SDDL#freeze()}).
+ * References are counted; once an id is released as many times as it was added, its descriptor is dropped and the id
+ * can be reused.
+ *
+ * <pre>
+ * final SdStore store = new SdStore(new SidPool());
+ * final int id = store.add(entry.getAttribute("nTSecurityDescriptor").getBytes());
+ * ...
+ * final SDDL sddl = store.get(id);
+ * </pre>
+ */
+public final class SdStore {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " not available", e);
+        }
+    });
+
+    /**
+     * Distinct security descriptor.
+     */
+    private static final class Entry {
+
+        private final byte[] bytes;
+
+        private final SDDL sddl;
+
+        /**
+         * Digests resolving to this entry: the one of the canonical form, plus the ones of any other encoding added.
+         */
+        private final List<ByteBuffer> keys = new ArrayList<>(1);
+
+        private int references;
+
+        Entry(final byte[] bytes, final SDDL sddl) {
+            this.bytes = bytes;
+            this.sddl = sddl;
+        }
+    }
+
+    private final SidPool sidPool;
+
+    private final Map<ByteBuffer, Integer> ids = new HashMap<>();
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    private int[] freeIds = new int[8];
+
+    private int freeCount;
+
+    private long references;
+
+    /**
+     * Constructor: security descriptors are parsed without SID pooling.
+     */
+    public SdStore() {
+        this(null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param sidPool pool of shared SID instances, used when parsing stored descriptors; may be null.
+     */
+    public SdStore(final SidPool sidPool) {
+        this.sidPool = sidPool;
+    }
+
+    /**
+     * Adds a reference to the given security descriptor, storing it if not already present.
+     *
+     * Descriptors already added with the very same encoding are resolved from their digest, without parsing.
+     *
+     * @param src security descriptor as byte array; it is not retained.
+     * @return id of the security descriptor.
+     * @throws IllegalArgumentException if the given bytes are not a valid security descriptor.
+     */
+    public int add(final byte[] src) {
+        final ByteBuffer key = digest(src);
+
+        synchronized (this) {
+            final Integer id = ids.get(key);
+            if (id != null) {
+                return reference(id);
+            }
+        }
+
+        return add(decode(src, sidPool), key);
+    }
+
+    /**
+     * Adds a reference to the given security descriptor, storing its current content if not already present.
+     *
+     * @param sddl security descriptor; it is not retained.
+     * @return id of the security descriptor.
+     */
+    public int add(final SDDL sddl) {
+        return add(decode(sddl.toByteArray(), sidPool), null);
+    }
+
+    private int add(final SDDL decoded, final ByteBuffer alias) {
+        final byte[] canonical = decoded.toByteArray();
+        final ByteBuffer key = digest(canonical);
+
+        Integer id;
+        synchronized (this) {
+            id = ids.get(key);
+            if (id != null) {
+                addAlias(id, alias);
+                return reference(id);
+            }
+        }
+
+        // freeze outside the lock; the stored instance does not refer to any source bytes
+        final SDDL sddl = decoded.freeze();
+
+        synchronized (this) {
+            // another thread may have stored the same descriptor meanwhile
+            id = ids.get(key);
+            if (id == null) {
+                final Entry entry = new Entry(canonical, sddl);
+                if (freeCount > 0) {
+                    id = freeIds[--freeCount];
+                    entries.set(id, entry);
+                } else {
+                    id = entries.size();
+                    entries.add(entry);
+                }
+                entry.keys.add(key);
+                ids.put(key, id);
+            }
+            addAlias(id, alias);
+            return reference(id);
+        }
+    }
+
+    private void addAlias(final int id, final ByteBuffer alias) {
+        if (alias != null && !ids.containsKey(alias)) {
+            entries.get(id).keys.add(alias);
+            ids.put(alias, id);
+        }
+    }
+
+    private int reference(final int id) {
+        entries.get(id).references++;
+        references++;
+        return id;
+    }
+
+    /**
+     * Gets the id of the given security descriptor, without adding any reference.
+     *
+     * @param src security descriptor as byte array.
+     * @return id of the security descriptor, or -1 if not stored.
+     * @throws IllegalArgumentException if the given bytes are not a valid security descriptor.
+     */
+    public int find(final byte[] src) {
+        final ByteBuffer raw = digest(src);
+        Integer id;
+        synchronized (this) {
+            id = ids.get(raw);
+        }
+        if (id == null) {
+            final ByteBuffer key = digest(decode(src, null).toByteArray());
+            synchronized (this) {
+                id = ids.get(key);
+            }
+        }
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Releases a reference to the given security descriptor, dropping it when no reference is left.
+     *
+     * @param id id of the security descriptor.
+     * @return number of references left.
+     * @throws IllegalArgumentException if no security descriptor is stored with the given id.
+     */
+    public synchronized int release(final int id) {
+        final Entry entry = entry(id);
+
+        entry.references--;
+        references--;
+        if (entry.references == 0) {
+            entry.keys.forEach(ids::remove);
+            entries.set(id, null);
+
+            if (freeCount == freeIds.length) {
+                freeIds = Arrays.copyOf(freeIds, freeCount << 1);
+            }
+            freeIds[freeCount++] = id;
+        }
+        return entry.references;
+    }
+
+    /**
+     * Gets the parsed instance of the given security descriptor, shared by all callers and frozen.
+     *
+     * @param id id of the security descriptor.
+     * @return security descriptor.
+     * @throws IllegalArgumentException if no security descriptor is stored with the given id.
+     */
+    public synchronized SDDL get(final int id) {
+        return entry(id).sddl;
+    }
+
+    /**
+     * Gets the canonical binary form of the given security descriptor.
+     *
+     * @param id id of the security descriptor.
+     * @return security descriptor as byte array.
+     * @throws IllegalArgumentException if no security descriptor is stored with the given id.
+     */
+    public synchronized byte[] getBytes(final int id) {
+        return entry(id).bytes.clone();
+    }
+
+    /**
+     * Gets the number of references to the given security descriptor.
+     *
+     * @param id id of the security descriptor.
+     * @return reference count, 0 if no security descriptor is stored with the given id.
+     */
+    public synchronized int getReferenceCount(final int id) {
+        final Entry entry = id >= 0 && id < entries.size() ? entries.get(id) : null;
+        return entry == null ? 0 : entry.references;
+    }
+
+    /**
+     * Gets the number of distinct security descriptors stored.
+     *
+     * @return number of distinct security descriptors.
+     */
+    public synchronized int size() {
+        return entries.size() - freeCount;
+    }
+
+    /**
+     * Gets the total number of references to stored security descriptors.
+     *
+     * @return total reference count.
+     */
+    public synchronized long getReferenceCount() {
+        return references;
+    }
+
+    private Entry entry(final int id) {
+        final Entry entry = id >= 0 && id < entries.size() ? entries.get(id) : null;
+        if (entry == null) {
+            throw new IllegalArgumentException("No security descriptor stored with id " + id);
+        }
+        return entry;
+    }
+
+    private static SDDL decode(final byte[] src, final SidPool sidPool) {
+        try {
+            return new SDDL(ByteBuffer.wrap(src).order(ByteOrder.LITTLE_ENDIAN), sidPool);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid security descriptor", e);
+        }
+    }
+
+    private static ByteBuffer digest(final byte[] src) {
+        return ByteBuffer.wrap(DIGEST.get().digest(src));
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.ntsd;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import net.tirasa.adsddl.ntsd.data.AceObjectFlags;
+import net.tirasa.adsddl.ntsd.data.AceType;
+import net.tirasa.adsddl.ntsd.data.ControlFlag;
+import net.tirasa.adsddl.ntsd.utils.LittleEndian;
+
+/**
+ * Bounds-checks every offset and size of a self-relative security descriptor, without decoding it and without
+ * throwing: once validated, parsing cannot read beyond the input.
+ *
+ * Work is linear in the input size, and further capped by the maximum number of ACEs allowed.
+ */
+final class SdValidator {
+
+    private static final int HEADER_SIZE = 20;
+
+    private static final int ACL_HEADER_SIZE = 8;
+
+    /**
+     * ACE header and access mask.
+     */
+    private static final int ACE_HEADER_SIZE = 8;
+
+    /**
+     * Revision, SubAuthorityCount and IdentifierAuthority.
+     */
+    private static final int SID_HEADER_SIZE = 8;
+
+    private static final int MAX_SUB_AUTHORITIES = 15;
+
+    private static final int GUID_SIZE = 16;
+
+    private final ByteBuffer buff;
+
+    private final int length;
+
+    private final int maxAces;
+
+    private int aceCount;
+
+    /**
+     * Constructor.
+     *
+     * @param src security descriptor as byte array.
+     * @param maxAces maximum number of ACEs allowed, SACL and DACL together.
+     */
+    SdValidator(final byte[] src, final int maxAces) {
+        this.buff = ByteBuffer.wrap(src).order(ByteOrder.LITTLE_ENDIAN);
+        this.length = src.length;
+        this.maxAces = maxAces;
+    }
+
+    /**
+     * Validates the security descriptor.
+     *
+     * @return failed outcome; null if valid.
+     */
+    ParseResult validate() {
+        if (length < HEADER_SIZE) {
+            return ParseResult.invalid(ParseResult.Code.TRUNCATED_HEADER, length);
+        }
+        if (buff.get(0) != 0x01) {
+            return ParseResult.invalid(ParseResult.Code.INVALID_REVISION, 0);
+        }
+
+        final int control = LittleEndian.getUInt16(buff, 2);
+
+        ParseResult res = null;
+        if (!ControlFlag.OD.isSet(control)) {
+            res = checkSidOffset(4);
+        }
+        if (res == null && !ControlFlag.GD.isSet(control)) {
+            res = checkSidOffset(8);
+        }
+        if (res == null && ControlFlag.SP.isSet(control)) {
+            res = checkAcl(12);
+        }
+        if (res == null && ControlFlag.DP.isSet(control)) {
+            res = checkAcl(16);
+        }
+        return res;
+    }
+
+    /**
+     * Reads the offset at the given header position.
+     *
+     * @param field offset position into the header.
+     * @param minSize minimum size of the structure the offset points to.
+     * @return offset; 0 if not present, -1 if not valid.
+     */
+    private long offset(final int field, final int minSize) {
+        final long offset = LittleEndian.getUInt32(buff, field);
+        if (offset == 0) {
+            return 0;
+        }
+        return offset < HEADER_SIZE || offset + minSize > length ? -1 : offset;
+    }
+
+    private ParseResult checkSidOffset(final int field) {
+        final long offset = offset(field, SID_HEADER_SIZE);
+        if (offset < 0) {
+            return ParseResult.invalid(ParseResult.Code.INVALID_OFFSET, field);
+        }
+        return offset == 0 ? null : checkSid((int) offset, length);
+    }
+
+    private ParseResult checkSid(final int start, final int end) {
+        if (start + SID_HEADER_SIZE > end) {
+            return ParseResult.invalid(ParseResult.Code.TRUNCATED_SID, start);
+        }
+
+        final int subAuthorityCount = LittleEndian.getUInt8(buff, start + 1);
+        if (subAuthorityCount > MAX_SUB_AUTHORITIES) {
+            return ParseResult.invalid(ParseResult.Code.INVALID_SID, start + 1);
+        }
+        if (start + SID_HEADER_SIZE + 4 * subAuthorityCount > end) {
+            return ParseResult.invalid(ParseResult.Code.TRUNCATED_SID, start);
+        }
+        return null;
+    }
+
+    private ParseResult checkAcl(final int field) {
+        final long offset = offset(field, ACL_HEADER_SIZE);
+        if (offset < 0) {
+            return ParseResult.invalid(ParseResult.Code.INVALID_OFFSET, field);
+        }
+        if (offset == 0) {
+            return null;
+        }
+
+        final int start = (int) offset;
+        final int aclSize = LittleEndian.getUInt16(buff, start + 2);
+        if (aclSize < ACL_HEADER_SIZE || start + aclSize > length) {
+            return ParseResult.invalid(ParseResult.Code.INVALID_ACL_SIZE, start + 2);
+        }
+
+        final int count = LittleEndian.getUInt16(buff, start + 4);
+        aceCount += count;
+        if (aceCount > maxAces) {
+            return ParseResult.invalid(ParseResult.Code.TOO_MANY_ACES, start + 4);
+        }
+
+        final int end = start + aclSize;
+        int pos = start + ACL_HEADER_SIZE;
+        for (int i = 0; i < count; i++) {
+            if (pos + ACE_HEADER_SIZE > end) {
+                return ParseResult.invalid(ParseResult.Code.TRUNCATED_ACE, pos);
+            }
+
+            final ParseResult res = checkAce(pos, end);
+            if (res != null) {
+                return res;
+            }
+            pos += LittleEndian.getUInt16(buff, pos + 2);
+        }
+        return null;
+    }
+
+    private ParseResult checkAce(final int start, final int aclEnd) {
+        final AceType type = AceType.parseValue(buff.get(start));
+        if (type == null) {
+            return ParseResult.invalid(ParseResult.Code.UNKNOWN_ACE_TYPE, start);
+        }
+
+        final int aceSize = LittleEndian.getUInt16(buff, start + 2);
+        final int end = start + aceSize;
+        if (aceSize < ACE_HEADER_SIZE || end > aclEnd) {
+            return ParseResult.invalid(ParseResult.Code.INVALID_ACE_SIZE, start + 2);
+        }
+
+        int pos = start + ACE_HEADER_SIZE;
+        if (type == AceType.ACCESS_ALLOWED_OBJECT_ACE_TYPE || type == AceType.ACCESS_DENIED_OBJECT_ACE_TYPE) {
+            if (pos + 4 > end) {
+                return ParseResult.invalid(ParseResult.Code.INVALID_ACE, pos);
+            }
+
+            final int objectFlags = LittleEndian.getInt32(buff, pos);
+            pos += 4;
+            if ((objectFlags & AceObjectFlags.Flag.ACE_OBJECT_TYPE_PRESENT.getValue()) != 0) {
+                pos += GUID_SIZE;
+            }
+            if ((objectFlags & AceObjectFlags.Flag.ACE_INHERITED_OBJECT_TYPE_PRESENT.getValue()) != 0) {
+                pos += GUID_SIZE;
+            }
+            if (pos > end) {
+                return ParseResult.invalid(ParseResult.Code.INVALID_ACE, start + ACE_HEADER_SIZE);
+            }
+        }
+
+        return checkSid(pos, end);
+    }
+}
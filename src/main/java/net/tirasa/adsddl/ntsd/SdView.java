@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.ntsd;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import net.tirasa.adsddl.ntsd.utils.LittleEndian;
+
+/**
+ * Read-only flyweight view of a self-relative SECURITY_DESCRIPTOR stored into a (heap or direct) buffer.
+ *
+ * The view does not copy nor decode the source: every getter reads the requested field at its offset, so that
+ * scanning many descriptors does not build any {@link SDDL}, {@link ACL}, {@link ACE} or {@link SID} graph. Offsets
+ * and sizes are trusted as found into the buffer. Use {@link #materialize()} to obtain a mutable {@link SDDL}
+ * instance.
+ *
+ * The source buffer position, limit and byte order are never changed by the view; its content must not change while
+ * the view is in use.
+ *
+ * @see SDDL
+ * @see <a href="https://msdn.microsoft.com/en-us/library/cc230366.aspx" target="_top">cc230366</a>
+ */
+public final class SdView {
+
+    private final ByteBuffer buff;
+
+    private final int offset;
+
+    private SdView(final ByteBuffer buff, final int offset) {
+        this.buff = buff;
+        this.offset = offset;
+    }
+
+    /**
+     * Creates a view of the security descriptor starting at the current position of the given buffer.
+     *
+     * @param src source buffer.
+     * @return security descriptor view.
+     */
+    public static SdView wrap(final ByteBuffer src) {
+        return new SdView(src.duplicate().order(ByteOrder.LITTLE_ENDIAN), src.position());
+    }
+
+    /**
+     * Creates a view of the security descriptor stored into the given byte array.
+     *
+     * @param src source as byte array.
+     * @return security descriptor view.
+     */
+    public static SdView wrap(final byte[] src) {
+        return wrap(ByteBuffer.wrap(src));
+    }
+
+    /**
+     * Get revison.
+     *
+     * @return An unsigned 8-bit value that specifies the revision of the SECURITY_DESCRIPTOR structure..
+     */
+    public byte getRevision() {
+        return buff.get(offset);
+    }
+
+    /**
+     * Gets control.
+     *
+     * @return An unsigned 16-bit field that specifies control access bit flags.
+     */
+    public int getControlFlags() {
+        return LittleEndian.getUInt16(buff, offset + 2);
+    }
+
+    /**
+     * Gets owner offset, relative to the beginning of the security descriptor.
+     *
+     * @return owner offset; 0 if not present.
+     */
+    public int getOffsetOwner() {
+        return (getControlFlags() & 0x0001) == 0 ? LittleEndian.getInt32(buff, offset + 4) : 0;
+    }
+
+    /**
+     * Gets group offset, relative to the beginning of the security descriptor.
+     *
+     * @return group offset; 0 if not present.
+     */
+    public int getOffsetGroup() {
+        return (getControlFlags() & 0x0002) == 0 ? LittleEndian.getInt32(buff, offset + 8) : 0;
+    }
+
+    /**
+     * Gets SACL offset, relative to the beginning of the security descriptor.
+     *
+     * @return SACL offset; 0 if not present.
+     */
+    public int getOffsetSACL() {
+        return (getControlFlags() & 0x0010) == 0 ? 0 : LittleEndian.getInt32(buff, offset + 12);
+    }
+
+    /**
+     * Gets DACL offset, relative to the beginning of the security descriptor.
+     *
+     * @return DACL offset; 0 if not present.
+     */
+    public int getOffsetDACL() {
+        return (getControlFlags() & 0x0004) == 0 ? 0 : LittleEndian.getInt32(buff, offset + 16);
+    }
+
+    /**
+     * Gets owner.
+     *
+     * @return The SID of the owner of the object; null if not present.
+     */
+    public SidView getOwner() {
+        final int pos = getOffsetOwner();
+        return pos > 0 ? new SidView(buff, offset + pos) : null;
+    }
+
+    /**
+     * Gets group.
+     *
+     * @return The SID of the group of the object; null if not present.
+     */
+    public SidView getGroup() {
+        final int pos = getOffsetGroup();
+        return pos > 0 ? new SidView(buff, offset + pos) : null;
+    }
+
+    /**
+     * Gets SACL.
+     *
+     * @return The SACL of the object; null if not present.
+     */
+    public AclView getSacl() {
+        final int pos = getOffsetSACL();
+        return pos > 0 ? new AclView(buff, offset + pos) : null;
+    }
+
+    /**
+     * Gets DACL.
+     *
+     * @return The DACL of the object; null if not present.
+     */
+    public AclView getDacl() {
+        final int pos = getOffsetDACL();
+        return pos > 0 ? new AclView(buff, offset + pos) : null;
+    }
+
+    /**
+     * Builds a mutable SDDL instance out of this view.
+     *
+     * @return SDDL instance.
+     */
+    public SDDL materialize() {
+        final ByteBuffer dup = buff.duplicate();
+        dup.position(offset);
+        return new SDDL(dup.slice().order(ByteOrder.LITTLE_ENDIAN));
+    }
+}
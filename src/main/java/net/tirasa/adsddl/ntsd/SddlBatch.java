@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.ntsd;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Parses many security descriptors (e.g. the <tt>nTSecurityDescriptor</tt> values of a whole LDAP page) in parallel.
+ *
+ * The input list is recursively split on a {@link ForkJoinPool}, so that idle workers steal the remaining ranges;
+ * results are stored by index, hence input order is preserved. Instances are immutable and can be shared.
+ *
+ * <pre>
+ * final SddlBatch batch = new SddlBatch(ForkJoinPool.commonPool(), SddlBatch.ErrorMode.COLLECT, new SidPool());
+ * final SddlBatch.Result result = batch.parse(values);
+ * </pre>
+ */
+public final class SddlBatch {
+
+    /**
+     * Behavior on invalid security descriptors.
+     */
+    public enum ErrorMode {
+
+        /**
+         * Stop at the first invalid security descriptor and raise {@link IllegalArgumentException}, reporting its
+         * index: the lowest one among invalid inputs, regardless of how parsing was scheduled. Inputs following it
+         * are not necessarily parsed.
+         */
+        FAIL_FAST,
+        /**
+         * Parse every security descriptor, collecting failures by index.
+         */
+        COLLECT;
+
+    }
+
+    /**
+     * Outcome of a batch parse.
+     */
+    public static final class Result {
+
+        private final List<SDDL> descriptors;
+
+        private final SortedMap<Integer, RuntimeException> errors;
+
+        private Result(final List<SDDL> descriptors, final SortedMap<Integer, RuntimeException> errors) {
+            this.descriptors = descriptors;
+            this.errors = errors;
+        }
+
+        /**
+         * Gets parsed security descriptors, in input order.
+         *
+         * @return unmodifiable list of security descriptors, holding <tt>null</tt> for invalid inputs.
+         */
+        public List<SDDL> getDescriptors() {
+            return descriptors;
+        }
+
+        /**
+         * Gets parse failures.
+         *
+         * @return unmodifiable map of failures, keyed by input index.
+         */
+        public SortedMap<Integer, RuntimeException> getErrors() {
+            return errors;
+        }
+
+        /**
+         * Checks whether any input failed to parse.
+         *
+         * @return <tt>true</tt> if at least one input is invalid; <tt>false</tt> otherwise.
+         */
+        public boolean hasErrors() {
+            return !errors.isEmpty();
+        }
+    }
+
+    /**
+     * Number of leaf tasks per worker: a few, so that uneven descriptor sizes are balanced by stealing.
+     */
+    private static final int TASKS_PER_WORKER = 8;
+
+    private final ForkJoinPool pool;
+
+    private final ErrorMode errorMode;
+
+    private final SidPool sidPool;
+
+    /**
+     * Constructor: fail-fast parsing on the common pool, without SID pooling.
+     */
+    public SddlBatch() {
+        this(ForkJoinPool.commonPool(), ErrorMode.FAIL_FAST, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param pool pool running parse tasks.
+     * @param errorMode behavior on invalid security descriptors.
+     * @param sidPool pool of shared SID instances; may be null.
+     */
+    public SddlBatch(final ForkJoinPool pool, final ErrorMode errorMode, final SidPool sidPool) {
+        if (pool == null || errorMode == null) {
+            throw new IllegalArgumentException("Pool and error mode are required");
+        }
+        this.pool = pool;
+        this.errorMode = errorMode;
+        this.sidPool = sidPool;
+    }
+
+    /**
+     * Parses all the given security descriptors, failing fast on the common pool.
+     *
+     * @param src security descriptors as byte arrays.
+     * @return parsed security descriptors, in input order.
+     */
+    public static List<SDDL> parseAll(final List<byte[]> src) {
+        return new SddlBatch().parse(src).getDescriptors();
+    }
+
+    /**
+     * Parses all the given security descriptors.
+     *
+     * @param src security descriptors as byte arrays.
+     * @return parse outcome; with {@link ErrorMode#FAIL_FAST} it never reports errors, since the first failure is
+     * raised instead.
+     */
+    public Result parse(final List<byte[]> src) {
+        final byte[][] input = src.toArray(new byte[src.size()][]);
+        final SDDL[] output = new SDDL[input.length];
+        final AtomicReferenceArray<RuntimeException> failures = new AtomicReferenceArray<>(input.length);
+
+        if (input.length > 0) {
+            final int threshold = Math.max(1, input.length / (pool.getParallelism() * TASKS_PER_WORKER));
+            pool.invoke(new ParseTask(
+                    input, output, failures, new AtomicInteger(input.length), 0, input.length, threshold));
+        }
+
+        final SortedMap<Integer, RuntimeException> errors = new TreeMap<>();
+        for (int i = 0; i < input.length; i++) {
+            final RuntimeException failure = failures.get(i);
+            if (failure != null) {
+                if (errorMode == ErrorMode.FAIL_FAST) {
+                    throw new IllegalArgumentException("Invalid security descriptor at index " + i, failure);
+                }
+                errors.put(i, failure);
+            }
+        }
+
+        return new Result(
+                Collections.unmodifiableList(Arrays.asList(output)),
+                Collections.unmodifiableSortedMap(errors));
+    }
+
+    private final class ParseTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 5066466458467617932L;
+
+        private final byte[][] input;
+
+        private final SDDL[] output;
+
+        private final AtomicReferenceArray<RuntimeException> failures;
+
+        /**
+         * Lowest failing index found so far in {@link ErrorMode#FAIL_FAST} mode, input length if none: inputs past
+         * it are skipped, while the ones before it are still parsed, so that the lowest failing index is eventually
+         * found whatever the task scheduling.
+         */
+        private final AtomicInteger firstFailure;
+
+        private final int from;
+
+        private final int to;
+
+        private final int threshold;
+
+        ParseTask(
+                final byte[][] input,
+                final SDDL[] output,
+                final AtomicReferenceArray<RuntimeException> failures,
+                final AtomicInteger firstFailure,
+                final int from,
+                final int to,
+                final int threshold) {
+
+            this.input = input;
+            this.output = output;
+            this.failures = failures;
+            this.firstFailure = firstFailure;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > threshold) {
+                final int middle = (from + to) >>> 1;
+                invokeAll(
+                        new ParseTask(input, output, failures, firstFailure, from, middle, threshold),
+                        new ParseTask(input, output, failures, firstFailure, middle, to, threshold));
+                return;
+            }
+
+            for (int i = from; i < to && i < firstFailure.get(); i++) {
+                try {
+                    output[i] = new SDDL(input[i], false, sidPool);
+                } catch (RuntimeException e) {
+                    failures.set(i, e);
+                    if (errorMode == ErrorMode.FAIL_FAST) {
+                        firstFailure.accumulateAndGet(i, Math::min);
+                    }
+                }
+            }
+        }
+    }
+}
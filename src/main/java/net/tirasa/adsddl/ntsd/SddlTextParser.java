@@ -0,0 +1,545 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.ntsd;
+
+import net.tirasa.adsddl.ntsd.data.AceFlag;
+import net.tirasa.adsddl.ntsd.data.AceObjectFlags;
+import net.tirasa.adsddl.ntsd.data.AceRightsAlias;
+import net.tirasa.adsddl.ntsd.data.AceType;
+import net.tirasa.adsddl.ntsd.data.AclRevision;
+import net.tirasa.adsddl.ntsd.data.ControlFlag;
+import net.tirasa.adsddl.ntsd.data.Guid;
+import net.tirasa.adsddl.ntsd.data.SidAlias;
+
+/**
+ * Single-pass parser of SDDL strings, e.g. <tt>O:DAG:DAD:PAI(A;CI;RPWP;;;S-1-5-32-544)(OA;;CR;...;;PS)</tt>, as found
+ * into the <tt>defaultSecurityDescriptor</tt> attribute of schema classes.
+ *
+ * Supported syntax:
+ * <ul>
+ * <li>owner (<tt>O:</tt>), group (<tt>G:</tt>), DACL (<tt>D:</tt>) and SACL (<tt>S:</tt>) components, in any
+ * order;</li>
+ * <li>ACL flags <tt>P</tt>, <tt>AI</tt>, <tt>AR</tt> and <tt>NO_ACCESS_CONTROL</tt>;</li>
+ * <li>ACE types, ACE flags and rights aliases (see {@link AceType}, {@link AceFlag}, {@link AceRightsAlias}), rights
+ * given as hexadecimal (<tt>0x...</tt>) or decimal values, and the <tt>[n]</tt> suffix produced by
+ * {@link ACE#toString()} for rights without alias;</li>
+ * <li>SIDs in <tt>S-1-...</tt> form or as aliases (see {@link SidAlias}): domain relative aliases require the domain
+ * SIDs to be given at construction time.</li>
+ * </ul>
+ * Object and inherited object GUIDs are supported by <tt>OA</tt> and <tt>OD</tt> ACEs only, consistently with the
+ * binary form handled by {@link ACE}; conditional expressions and resource attributes are not supported.
+ *
+ * Instances are immutable, hence thread-safe. Any syntax error raises {@link IllegalArgumentException}, reporting the
+ * position of the offending character.
+ */
+public final class SddlTextParser {
+
+    private static final AceType[] ACE_TYPES = AceType.values();
+
+    private static final AceFlag[] ACE_FLAGS = AceFlag.values();
+
+    private static final String NO_ACCESS_CONTROL = "NO_ACCESS_CONTROL";
+
+    /**
+     * Binary form of the SID for each alias, indexed by ordinal; null if not resolvable.
+     */
+    private final byte[][] aliases = new byte[SidAlias.values().length][];
+
+    /**
+     * Constructor: domain relative SID aliases will not be resolved.
+     */
+    public SddlTextParser() {
+        this(null, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param domainSid SID of the domain used to resolve domain relative SID aliases (e.g. <tt>DA</tt>), including
+     * forest-wide ones (e.g. <tt>EA</tt>); may be null.
+     */
+    public SddlTextParser(final SID domainSid) {
+        this(domainSid, domainSid);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param domainSid SID of the domain used to resolve domain relative SID aliases (e.g. <tt>DA</tt>); may be null.
+     * @param rootDomainSid SID of the forest root domain used to resolve forest-wide SID aliases (e.g. <tt>EA</tt>);
+     * may be null.
+     */
+    public SddlTextParser(final SID domainSid, final SID rootDomainSid) {
+        for (SidAlias alias : SidAlias.values()) {
+            if (!alias.isDomainRelative()) {
+                aliases[alias.ordinal()] = SID.fromString(alias.getSid()).toByteArray();
+            } else {
+                final SID domain = alias.isRootDomainRelative() ? rootDomainSid : domainSid;
+                if (domain != null) {
+                    aliases[alias.ordinal()] = SID.parse(domain.toByteArray()).addSubAuthority(alias.getRid()).
+                            toByteArray();
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses the given SDDL string.
+     *
+     * @param src SDDL string.
+     * @return security descriptor.
+     */
+    public SDDL parse(final CharSequence src) {
+        final Cursor cur = new Cursor(src);
+
+        int control = ControlFlag.SR.getValue();
+        SID owner = null;
+        SID group = null;
+        ACL dacl = null;
+        ACL sacl = null;
+        boolean daclFound = false;
+        boolean saclFound = false;
+
+        while (cur.pos < cur.end) {
+            final char component = cur.src.charAt(cur.pos);
+            if (cur.pos + 1 >= cur.end || cur.src.charAt(cur.pos + 1) != ':') {
+                throw cur.error("component expected");
+            }
+            cur.pos += 2;
+
+            switch (component) {
+                case 'O':
+                    if (owner != null) {
+                        throw cur.error("duplicate owner");
+                    }
+                    owner = readSid(cur, cur.nextComponent());
+                    break;
+
+                case 'G':
+                    if (group != null) {
+                        throw cur.error("duplicate group");
+                    }
+                    group = readSid(cur, cur.nextComponent());
+                    break;
+
+                case 'D':
+                    if (daclFound) {
+                        throw cur.error("duplicate DACL");
+                    }
+                    daclFound = true;
+                    control |= ControlFlag.DP.getValue();
+
+                    final int daclFlags = readAclFlags(cur);
+                    if ((daclFlags & ACL_PROTECTED) != 0) {
+                        control |= ControlFlag.PD.getValue();
+                    }
+                    if ((daclFlags & ACL_AUTO_INHERITED) != 0) {
+                        control |= ControlFlag.DI.getValue();
+                    }
+                    if ((daclFlags & ACL_AUTO_INHERIT_REQ) != 0) {
+                        control |= ControlFlag.DC.getValue();
+                    }
+                    dacl = (daclFlags & ACL_NO_ACCESS_CONTROL) == 0 ? readAces(cur) : null;
+                    break;
+
+                case 'S':
+                    if (saclFound) {
+                        throw cur.error("duplicate SACL");
+                    }
+                    saclFound = true;
+                    control |= ControlFlag.SP.getValue();
+
+                    final int saclFlags = readAclFlags(cur);
+                    if ((saclFlags & ACL_PROTECTED) != 0) {
+                        control |= ControlFlag.PS.getValue();
+                    }
+                    if ((saclFlags & ACL_AUTO_INHERITED) != 0) {
+                        control |= ControlFlag.SI.getValue();
+                    }
+                    if ((saclFlags & ACL_AUTO_INHERIT_REQ) != 0) {
+                        control |= ControlFlag.SC.getValue();
+                    }
+                    sacl = (saclFlags & ACL_NO_ACCESS_CONTROL) == 0 ? readAces(cur) : null;
+                    break;
+
+                default:
+                    cur.pos -= 2;
+                    throw cur.error("unknown component '" + component + "'");
+            }
+        }
+
+        return new SDDL(control, owner, group, sacl, dacl);
+    }
+
+    /**
+     * Parses the given SDDL string straight to the binary (self-relative) form of the security descriptor.
+     *
+     * @param src SDDL string.
+     * @return security descriptor as byte array.
+     */
+    public byte[] toByteArray(final CharSequence src) {
+        return parse(src).toByteArray();
+    }
+
+    /**
+     * Parses the given ACL string, i.e. the value of the <tt>D:</tt> or <tt>S:</tt> component without ACL flags, e.g.
+     * <tt>(A;;RPWP;;;PS)(A;;RC;;;AU)</tt>.
+     *
+     * @param src ACL string.
+     * @return ACL.
+     */
+    public ACL parseAcl(final CharSequence src) {
+        final Cursor cur = new Cursor(src);
+        final ACL acl = readAces(cur);
+        if (cur.pos < cur.end) {
+            throw cur.error("unexpected character");
+        }
+        return acl;
+    }
+
+    /**
+     * Parses the given ACE string, e.g. <tt>(OA;CI;RPWP;bf967a7f-0de6-11d0-a285-00aa003049e2;;PS)</tt>.
+     *
+     * @param src ACE string.
+     * @return ACE.
+     */
+    public ACE parseAce(final CharSequence src) {
+        final Cursor cur = new Cursor(src);
+        final ACE ace = readAce(cur);
+        if (cur.pos < cur.end) {
+            throw cur.error("unexpected character");
+        }
+        return ace;
+    }
+
+    /**
+     * Parses the given SID string, either in <tt>S-1-...</tt> form or as alias.
+     *
+     * @param src SID string.
+     * @return SID.
+     */
+    public SID parseSid(final CharSequence src) {
+        final Cursor cur = new Cursor(src);
+        return readSid(cur, cur.end);
+    }
+
+    private static final int ACL_PROTECTED = 0x01;
+
+    private static final int ACL_AUTO_INHERITED = 0x02;
+
+    private static final int ACL_AUTO_INHERIT_REQ = 0x04;
+
+    private static final int ACL_NO_ACCESS_CONTROL = 0x08;
+
+    private int readAclFlags(final Cursor cur) {
+        int flags = 0;
+        while (cur.pos < cur.end && cur.src.charAt(cur.pos) != '(' && !cur.atComponent()) {
+            final char c = cur.src.charAt(cur.pos);
+            if (c == 'P') {
+                flags |= ACL_PROTECTED;
+                cur.pos++;
+            } else if (c == 'A' && cur.pos + 1 < cur.end && cur.src.charAt(cur.pos + 1) == 'I') {
+                flags |= ACL_AUTO_INHERITED;
+                cur.pos += 2;
+            } else if (c == 'A' && cur.pos + 1 < cur.end && cur.src.charAt(cur.pos + 1) == 'R') {
+                flags |= ACL_AUTO_INHERIT_REQ;
+                cur.pos += 2;
+            } else if (cur.startsWith(NO_ACCESS_CONTROL)) {
+                flags |= ACL_NO_ACCESS_CONTROL;
+                cur.pos += NO_ACCESS_CONTROL.length();
+            } else {
+                throw cur.error("unknown ACL flag");
+            }
+        }
+        return flags;
+    }
+
+    private static boolean isObjectAce(final AceType type) {
+        return type == AceType.ACCESS_ALLOWED_OBJECT_ACE_TYPE || type == AceType.ACCESS_DENIED_OBJECT_ACE_TYPE;
+    }
+
+    private ACL readAces(final Cursor cur) {
+        final ACL acl = new ACL(AclRevision.ACL_REVISION);
+
+        boolean objectAces = false;
+        while (cur.pos < cur.end && cur.src.charAt(cur.pos) == '(') {
+            final ACE ace = readAce(cur);
+            objectAces |= isObjectAce(ace.getType());
+            acl.getAces().add(ace);
+        }
+
+        return objectAces ? copyAs(acl, AclRevision.ACL_REVISION_DS) : acl;
+    }
+
+    private static ACL copyAs(final ACL acl, final AclRevision revision) {
+        final ACL res = new ACL(revision);
+        res.getAces().addAll(acl.getAces());
+        return res;
+    }
+
+    private ACE readAce(final Cursor cur) {
+        cur.expect('(');
+
+        // ACE type
+        int end = cur.next(';');
+        final AceType type = readAceType(cur, end);
+        final ACE ace = ACE.newInstance(type);
+        cur.pos = end + 1;
+
+        // ACE flags
+        end = cur.next(';');
+        while (cur.pos < end) {
+            ace.addFlag(readAceFlag(cur, end));
+        }
+        cur.pos = end + 1;
+
+        // rights
+        end = cur.next(';');
+        ace.setAccessMask(readRights(cur, end));
+        cur.pos = end + 1;
+
+        // object type and inherited object type
+        final boolean objectAce = isObjectAce(type);
+        int objectFlags = 0;
+
+        end = cur.next(';');
+        if (end > cur.pos) {
+            checkObjectAce(cur, objectAce);
+            ace.setObjectType(readGuid(cur, end));
+            objectFlags |= AceObjectFlags.Flag.ACE_OBJECT_TYPE_PRESENT.getValue();
+        }
+        cur.pos = end + 1;
+
+        end = cur.next(';');
+        if (end > cur.pos) {
+            checkObjectAce(cur, objectAce);
+            ace.setInheritedObjectType(readGuid(cur, end));
+            objectFlags |= AceObjectFlags.Flag.ACE_INHERITED_OBJECT_TYPE_PRESENT.getValue();
+        }
+        cur.pos = end + 1;
+
+        if (objectAce) {
+            ace.setObjectFlagsMask(objectFlags);
+        }
+
+        // trustee
+        end = cur.next(')');
+        final int semicolon = cur.indexOf(';', end);
+        if (semicolon >= 0) {
+            cur.pos = semicolon;
+            throw cur.error("conditional expressions and resource attributes are not supported");
+        }
+        ace.setSid(readSid(cur, end));
+        cur.pos = end + 1;
+
+        return ace;
+    }
+
+    private static void checkObjectAce(final Cursor cur, final boolean objectAce) {
+        if (!objectAce) {
+            throw cur.error("object GUIDs are supported by OA and OD ACEs only");
+        }
+    }
+
+    private static AceType readAceType(final Cursor cur, final int end) {
+        for (AceType type : ACE_TYPES) {
+            if (type != AceType.UNEXPECTED && cur.matches(type.toString(), end)) {
+                return type;
+            }
+        }
+        throw cur.error("unknown ACE type");
+    }
+
+    private static AceFlag readAceFlag(final Cursor cur, final int end) {
+        if (cur.pos + 2 <= end) {
+            final char first = cur.src.charAt(cur.pos);
+            final char second = cur.src.charAt(cur.pos + 1);
+            for (AceFlag flag : ACE_FLAGS) {
+                final String str = flag.toString();
+                if (str.charAt(0) == first && str.charAt(1) == second) {
+                    cur.pos += 2;
+                    return flag;
+                }
+            }
+        }
+        throw cur.error("unknown ACE flag");
+    }
+
+    private static int readRights(final Cursor cur, final int end) {
+        if (cur.pos == end) {
+            return 0;
+        }
+
+        if (end - cur.pos > 2 && cur.src.charAt(cur.pos) == '0'
+                && (cur.src.charAt(cur.pos + 1) == 'x' || cur.src.charAt(cur.pos + 1) == 'X')) {
+
+            cur.pos += 2;
+            return (int) readNumber(cur, end, 16);
+        }
+
+        if (Character.isDigit(cur.src.charAt(cur.pos))) {
+            return (int) readNumber(cur, end, 10);
+        }
+
+        int mask = 0;
+        while (cur.pos < end) {
+            if (cur.src.charAt(cur.pos) == '[') {
+                // custom rights, as produced by ACE.toString()
+                cur.pos++;
+                final int close = cur.indexOf(']', end);
+                if (close < 0) {
+                    throw cur.error("']' expected");
+                }
+                mask |= (int) readNumber(cur, close, 10);
+                cur.pos = close + 1;
+            } else {
+                final AceRightsAlias alias = cur.pos + 2 <= end
+                        ? AceRightsAlias.parseValue(cur.src.charAt(cur.pos), cur.src.charAt(cur.pos + 1))
+                        : null;
+                if (alias == null) {
+                    throw cur.error("unknown rights alias");
+                }
+                mask |= alias.getValue();
+                cur.pos += 2;
+            }
+        }
+        return mask;
+    }
+
+    private static long readNumber(final Cursor cur, final int end, final int radix) {
+        final int from = cur.pos;
+        long res = 0;
+        while (cur.pos < end) {
+            final int digit = Character.digit(cur.src.charAt(cur.pos), radix);
+            if (digit < 0) {
+                throw cur.error("invalid number");
+            }
+            res = res * radix + digit;
+            if (res > 0xFFFFFFFFL) {
+                cur.pos = from;
+                throw cur.error("number out of range");
+            }
+            cur.pos++;
+        }
+        if (cur.pos == from) {
+            throw cur.error("number expected");
+        }
+        return res;
+    }
+
+    private static byte[] readGuid(final Cursor cur, final int end) {
+        try {
+            final byte[] res = Guid.decode(cur.src, cur.pos, end);
+            cur.pos = end;
+            return res;
+        } catch (IllegalArgumentException e) {
+            throw cur.error("invalid GUID");
+        }
+    }
+
+    private SID readSid(final Cursor cur, final int end) {
+        if (end - cur.pos == 2) {
+            final SidAlias alias = SidAlias.parseValue(cur.src.charAt(cur.pos), cur.src.charAt(cur.pos + 1));
+            if (alias == null) {
+                throw cur.error("unknown SID alias");
+            }
+            if (aliases[alias.ordinal()] == null) {
+                throw cur.error("domain SID required to resolve SID alias " + alias.name());
+            }
+            cur.pos = end;
+            return SID.parse(aliases[alias.ordinal()]);
+        }
+
+        try {
+            final SID sid = SID.fromString(cur.src, cur.pos, end);
+            cur.pos = end;
+            return sid;
+        } catch (IllegalArgumentException e) {
+            throw cur.error(e.getMessage());
+        }
+    }
+
+    /**
+     * Parsing state: source and current position.
+     */
+    private static final class Cursor {
+
+        private final CharSequence src;
+
+        private final int end;
+
+        private int pos;
+
+        Cursor(final CharSequence src) {
+            this.src = src;
+            this.end = src.length();
+            this.pos = 0;
+        }
+
+        IllegalArgumentException error(final String message) {
+            return new IllegalArgumentException("Invalid SDDL at position " + pos + ": " + message);
+        }
+
+        void expect(final char c) {
+            if (pos >= end || src.charAt(pos) != c) {
+                throw error("'" + c + "' expected");
+            }
+            pos++;
+        }
+
+        int indexOf(final char c, final int to) {
+            for (int i = pos; i < to; i++) {
+                if (src.charAt(i) == c) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        int next(final char c) {
+            final int res = indexOf(c, end);
+            if (res < 0) {
+                throw error("'" + c + "' expected");
+            }
+            return res;
+        }
+
+        boolean atComponent() {
+            return pos + 1 < end && src.charAt(pos + 1) == ':';
+        }
+
+        int nextComponent() {
+            final int colon = indexOf(':', end);
+            return colon < 0 ? end : colon - 1;
+        }
+
+        boolean startsWith(final String token) {
+            return end - pos >= token.length() && matches(token, pos + token.length());
+        }
+
+        boolean matches(final String token, final int to) {
+            if (to - pos != token.length()) {
+                return false;
+            }
+            for (int i = 0; i < token.length(); i++) {
+                if (src.charAt(pos + i) != token.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.ntsd;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import net.tirasa.adsddl.ntsd.data.AceFlag;
+import net.tirasa.adsddl.ntsd.data.AceObjectFlags;
+import net.tirasa.adsddl.ntsd.data.AceRightsAlias;
+import net.tirasa.adsddl.ntsd.data.AceType;
+import net.tirasa.adsddl.ntsd.data.ControlFlag;
+import net.tirasa.adsddl.ntsd.data.Guid;
+import net.tirasa.adsddl.ntsd.data.SidAlias;
+
+/**
+ * Writer of security descriptors as SDDL strings, e.g. <tt>O:DAG:DAD:PAI(A;CI;RPWP;;;BA)(OA;;CR;...;;PS)</tt>, the
+ * same form as returned by <tt>ConvertSecurityDescriptorToStringSecurityDescriptor</tt> and accepted by
+ * {@link SddlTextParser}.
+ *
+ * Unlike {@link SDDL#toString()}, output can be read back by {@link SddlTextParser}:
+ * <ul>
+ * <li>ACL flags <tt>P</tt>, <tt>AI</tt> and <tt>AR</tt> are written only when the matching control flags are set, and
+ * a present but null DACL or SACL is written as <tt>NO_ACCESS_CONTROL</tt>;</li>
+ * <li>rights are written as aliases (see {@link AceRightsAlias}), in ascending bit order, whenever every bit set has
+ * one; as hexadecimal value (<tt>0x...</tt>) otherwise;</li>
+ * <li>SIDs are written as aliases (see {@link SidAlias}) when well-known: domain relative aliases require the domain
+ * SIDs to be given at construction time; identifier authorities beyond 32 bits are written as hexadecimal value
+ * (<tt>0x...</tt>).</li>
+ * </ul>
+ *
+ * Output is not lossless, though: ACE application data has no SDDL form and is dropped, and object audit ACEs
+ * (<tt>OU</tt>) are written with their GUIDs, which {@link SddlTextParser} accepts for <tt>OA</tt> and <tt>OD</tt>
+ * ACEs only.
+ *
+ * Components are appended straight to the given {@link Appendable}, with no intermediate string per ACE: when
+ * writing many descriptors, a single, reused buffer pre-sized by {@link #estimateLength(SDDL)} avoids any copy.
+ *
+ * Instances are immutable, hence thread-safe.
+ */
+public final class SddlTextWriter {
+
+    private static final String NO_ACCESS_CONTROL = "NO_ACCESS_CONTROL";
+
+    /**
+     * ACE flags, in ascending bit order.
+     */
+    private static final AceFlag[] ACE_FLAGS = {
+        AceFlag.OBJECT_INHERIT_ACE,
+        AceFlag.CONTAINER_INHERIT_ACE,
+        AceFlag.NO_PROPAGATE_INHERIT_ACE,
+        AceFlag.INHERIT_ONLY_ACE,
+        AceFlag.INHERITED_ACE,
+        AceFlag.SUCCESSFUL_ACCESS_ACE_FLAG,
+        AceFlag.FAILED_ACCESS_ACE_FLAG };
+
+    /**
+     * Single-bit rights alias for each bit position, null where none is defined.
+     */
+    private static final String[] RIGHTS = rights(
+            AceRightsAlias.CC, AceRightsAlias.DC, AceRightsAlias.LC, AceRightsAlias.SW, AceRightsAlias.RP,
+            AceRightsAlias.WP, AceRightsAlias.DT, AceRightsAlias.LO, AceRightsAlias.CR, AceRightsAlias.SD,
+            AceRightsAlias.RC, AceRightsAlias.WD, AceRightsAlias.WO, AceRightsAlias.GA, AceRightsAlias.GX,
+            AceRightsAlias.GW, AceRightsAlias.GR);
+
+    /**
+     * Single-bit rights alias for each bit position, for mandatory label ACEs.
+     */
+    private static final String[] LABEL_RIGHTS = rights(AceRightsAlias.NW, AceRightsAlias.NR, AceRightsAlias.NX);
+
+    /**
+     * File rights aliases, written only on exact match: all of them include SYNCHRONIZE, which has no alias on its
+     * own. Key rights aliases are left out, as they overlap with combinations of directory service rights.
+     */
+    private static final AceRightsAlias[] FILE_RIGHTS = {
+        AceRightsAlias.FA, AceRightsAlias.FR, AceRightsAlias.FW, AceRightsAlias.FX };
+
+    /**
+     * Alias for each resolvable SID.
+     */
+    private final Map<SID, String> aliases = new HashMap<>();
+
+    /**
+     * Constructor: domain relative SIDs will be written in <tt>S-1-...</tt> form.
+     */
+    public SddlTextWriter() {
+        this(null, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param domainSid SID of the domain used to write domain relative SID aliases (e.g. <tt>DA</tt>), including
+     * forest-wide ones (e.g. <tt>EA</tt>); may be null.
+     */
+    public SddlTextWriter(final SID domainSid) {
+        this(domainSid, domainSid);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param domainSid SID of the domain used to write domain relative SID aliases (e.g. <tt>DA</tt>); may be null.
+     * @param rootDomainSid SID of the forest root domain used to write forest-wide SID aliases (e.g. <tt>EA</tt>);
+     * may be null.
+     */
+    public SddlTextWriter(final SID domainSid, final SID rootDomainSid) {
+        for (SidAlias alias : SidAlias.values()) {
+            if (!alias.isDomainRelative()) {
+                aliases.putIfAbsent(SID.fromString(alias.getSid()).freeze(), alias.name());
+            } else {
+                final SID domain = alias.isRootDomainRelative() ? rootDomainSid : domainSid;
+                if (domain != null) {
+                    aliases.putIfAbsent(
+                            SID.parse(domain.toByteArray()).addSubAuthority(alias.getRid()).freeze(), alias.name());
+                }
+            }
+        }
+    }
+
+    private static String[] rights(final AceRightsAlias... values) {
+        final String[] res = new String[32];
+        for (AceRightsAlias alias : values) {
+            res[Integer.numberOfTrailingZeros(alias.getValue())] = alias.name();
+        }
+        return res;
+    }
+
+    /**
+     * Writes the given security descriptor as SDDL string.
+     *
+     * @param sddl security descriptor.
+     * @return SDDL string.
+     */
+    public String write(final SDDL sddl) {
+        return write(sddl, new StringBuilder(estimateLength(sddl))).toString();
+    }
+
+    /**
+     * Appends the given security descriptor as SDDL string to the given builder.
+     *
+     * @param sddl security descriptor.
+     * @param dst string builder.
+     * @return the given string builder.
+     */
+    public StringBuilder write(final SDDL sddl, final StringBuilder dst) {
+        try {
+            appendSddl(sddl, dst);
+        } catch (IOException e) {
+            // StringBuilder never throws IOException
+            throw new UncheckedIOException(e);
+        }
+        return dst;
+    }
+
+    /**
+     * Appends the given security descriptor as SDDL string to the given destination.
+     *
+     * @param sddl security descriptor.
+     * @param dst destination, e.g. a {@link java.io.Writer}.
+     * @return the given destination.
+     * @throws IOException if the destination cannot be written.
+     */
+    public Appendable write(final SDDL sddl, final Appendable dst) throws IOException {
+        appendSddl(sddl, dst);
+        return dst;
+    }
+
+    /**
+     * Gets an estimate of the SDDL string length of the given security descriptor, meant to pre-size buffers.
+     *
+     * @param sddl security descriptor.
+     * @return estimated length, in chars.
+     */
+    public int estimateLength(final SDDL sddl) {
+        // owner and group, then ACLs
+        return 96 + estimateLength(sddl.getDacl()) + estimateLength(sddl.getSacl());
+    }
+
+    private static int estimateLength(final ACL acl) {
+        if (acl == null) {
+            return NO_ACCESS_CONTROL.length() + 8;
+        }
+
+        int res = 8;
+        for (int i = 0; i < acl.getAceCount(); i++) {
+            final ACE ace = acl.getAce(i);
+            res += 32 + (ace.getSid() == null ? 0 : ace.getSid().getSubAuthorityCount() * 11)
+                    + Integer.bitCount(ace.getObjectFlagsMask() & 0x03) * Guid.STRING_LENGTH;
+        }
+        return res;
+    }
+
+    private void appendSddl(final SDDL sddl, final Appendable dst) throws IOException {
+        final int control = sddl.getControl();
+
+        // SIDs and GUIDs are written straight into a destination builder, otherwise staged into a reused one
+        final StringBuilder scratch = dst instanceof StringBuilder ? (StringBuilder) dst : new StringBuilder(64);
+
+        if (sddl.getOwner() != null) {
+            appendSid(sddl.getOwner(), dst.append("O:"), scratch);
+        }
+        if (sddl.getGroup() != null) {
+            appendSid(sddl.getGroup(), dst.append("G:"), scratch);
+        }
+        if (ControlFlag.DP.isSet(control)) {
+            dst.append("D:");
+            appendAclFlags(
+                    control, ControlFlag.PD, ControlFlag.DC, ControlFlag.DI, sddl.getDacl() == null, dst);
+            appendAcl(sddl.getDacl(), dst, scratch);
+        }
+        if (ControlFlag.SP.isSet(control)) {
+            dst.append("S:");
+            appendAclFlags(
+                    control, ControlFlag.PS, ControlFlag.SC, ControlFlag.SI, sddl.getSacl() == null, dst);
+            appendAcl(sddl.getSacl(), dst, scratch);
+        }
+    }
+
+    private static void appendAclFlags(
+            final int control,
+            final ControlFlag protectedFlag,
+            final ControlFlag autoInheritReqFlag,
+            final ControlFlag autoInheritedFlag,
+            final boolean noAccessControl,
+            final Appendable dst) throws IOException {
+
+        if (protectedFlag.isSet(control)) {
+            dst.append('P');
+        }
+        if (autoInheritReqFlag.isSet(control)) {
+            dst.append("AR");
+        }
+        if (autoInheritedFlag.isSet(control)) {
+            dst.append("AI");
+        }
+        if (noAccessControl) {
+            dst.append(NO_ACCESS_CONTROL);
+        }
+    }
+
+    private void appendAcl(final ACL acl, final Appendable dst, final StringBuilder scratch) throws IOException {
+        if (acl != null) {
+            for (int i = 0; i < acl.getAceCount(); i++) {
+                appendAce(acl.getAce(i), dst, scratch);
+            }
+        }
+    }
+
+    private void appendAce(final ACE ace, final Appendable dst, final StringBuilder scratch) throws IOException {
+        final AceType type = ace.getType();
+
+        dst.append('(').append(type.toString()).append(';');
+
+        final byte flags = ace.getFlagsMask();
+        for (AceFlag flag : ACE_FLAGS) {
+            if ((flags & flag.getValue()) != 0) {
+                dst.append(flag.toString());
+            }
+        }
+        dst.append(';');
+
+        appendRights(ace.getAccessMask(), type == AceType.SYSTEM_MANDATORY_LABEL_ACE_TYPE ? LABEL_RIGHTS : RIGHTS, dst);
+        dst.append(';');
+
+        final int objectFlags = ace.getObjectFlagsMask();
+        if ((objectFlags & AceObjectFlags.Flag.ACE_OBJECT_TYPE_PRESENT.getValue()) != 0) {
+            appendGuid(ace.getObjectType(), dst, scratch);
+        }
+        dst.append(';');
+        if ((objectFlags & AceObjectFlags.Flag.ACE_INHERITED_OBJECT_TYPE_PRESENT.getValue()) != 0) {
+            appendGuid(ace.getInheritedObjectType(), dst, scratch);
+        }
+        dst.append(';');
+
+        if (ace.getSid() != null) {
+            appendSid(ace.getSid(), dst, scratch);
+        }
+        dst.append(')');
+    }
+
+    private static void appendRights(final int mask, final String[] rights, final Appendable dst) throws IOException {
+        if (rights == RIGHTS) {
+            for (AceRightsAlias alias : FILE_RIGHTS) {
+                if (mask == alias.getValue()) {
+                    dst.append(alias.name());
+                    return;
+                }
+            }
+        }
+
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            if (rights[Integer.numberOfTrailingZeros(bits)] == null) {
+                dst.append("0x").append(Integer.toHexString(mask));
+                return;
+            }
+        }
+
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            dst.append(rights[Integer.numberOfTrailingZeros(bits)]);
+        }
+    }
+
+    private static void appendGuid(final byte[] guid, final Appendable dst, final StringBuilder scratch)
+            throws IOException {
+
+        if (guid == null) {
+            return;
+        }
+        if (dst == scratch) {
+            Guid.append(scratch, guid, 0);
+        } else {
+            scratch.setLength(0);
+            dst.append(Guid.append(scratch, guid, 0));
+        }
+    }
+
+    private void appendSid(final SID sid, final Appendable dst, final StringBuilder scratch) throws IOException {
+        final String alias = aliases.get(sid);
+        if (alias != null) {
+            dst.append(alias);
+        } else if (dst == scratch) {
+            sid.appendTo(scratch, true);
+        } else {
+            scratch.setLength(0);
+            dst.append(sid.appendTo(scratch, true));
+        }
+    }
+}
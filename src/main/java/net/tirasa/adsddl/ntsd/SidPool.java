@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.ntsd;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe, bounded pool of shared SID instances.
+ *
+ * Within a domain, a few hundred SIDs (SYSTEM, Domain Admins, Authenticated Users, delegated groups, ...) are found in
+ * almost every ACE: when a pool is given to {@link SID#parse(byte[], SidPool)} or {@link SDDL#SDDL(byte[], boolean,
+ * SidPool)}, repeated SIDs are resolved to a single canonical instance instead of being decoded again. Lookups read
+ * the SID straight from the source buffer, so that hits do not allocate.
+ *
+ * Pooled instances are frozen (see {@link SID#isFrozen()}): any attempt to modify them raises
+ * {@link UnsupportedOperationException}. Once the pool holds <tt>maxSize</tt> distinct SIDs, further SIDs are not
+ * pooled and are returned as new, modifiable instances. Pooled SIDs are never evicted.
+ */
+public final class SidPool {
+
+    /**
+     * Default maximum number of pooled SIDs.
+     */
+    public static final int DEFAULT_MAX_SIZE = 4096;
+
+    private final int maxSize;
+
+    private final AtomicReferenceArray<SID> table;
+
+    private final int mask;
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructor: pool holding up to {@link #DEFAULT_MAX_SIZE} SIDs.
+     */
+    public SidPool() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize maximum number of pooled SIDs.
+     */
+    public SidPool(final int maxSize) {
+        if (maxSize <= 0 || maxSize > (1 << 28)) {
+            throw new IllegalArgumentException("Invalid pool size: " + maxSize);
+        }
+        this.maxSize = maxSize;
+
+        // keep load factor below 0.5 so that probe sequences stay short and always reach an empty slot
+        final int capacity = Integer.highestOneBit(maxSize) << 2;
+        this.table = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Gets the canonical instance of the SID stored into the given byte array.
+     *
+     * @param src SID as byte array.
+     * @return shared SID instance, or a new one if the pool is full.
+     */
+    public SID parse(final byte[] src) {
+        return parse(ByteBuffer.wrap(src).order(ByteOrder.LITTLE_ENDIAN), 0);
+    }
+
+    /**
+     * Gets the canonical instance of the SID stored into the buffer at the given position.
+     *
+     * @param buff little-endian ordered source buffer.
+     * @param start SID position (in bytes).
+     * @return shared SID instance, or a new one if the pool is full.
+     */
+    SID parse(final ByteBuffer buff, final int start) {
+        final int hash = SID.hashCode(buff, start);
+
+        int slot = spread(hash) & mask;
+        SID current;
+        while ((current = table.get(slot)) != null) {
+            if (current.hashCode() == hash && current.matches(buff, start)) {
+                hits.increment();
+                return current;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        misses.increment();
+        final SID sid = new SID();
+        sid.parse(buff, start);
+        return insert(sid, hash, slot);
+    }
+
+    /**
+     * Gets the canonical instance of the given SID: either a pooled SID equal to the given one, or a frozen copy of
+     * it, just added to the pool.
+     *
+     * @param sid SID.
+     * @return shared SID instance, or the given one if the pool is full.
+     */
+    public SID intern(final SID sid) {
+        final byte[] src = sid.toByteArray();
+        final ByteBuffer buff = ByteBuffer.wrap(src).order(ByteOrder.LITTLE_ENDIAN);
+
+        final SID res = parse(buff, 0);
+        return res.isFrozen() ? res : sid;
+    }
+
+    private SID insert(final SID sid, final int hash, final int from) {
+        if (size.incrementAndGet() > maxSize) {
+            size.decrementAndGet();
+            return sid;
+        }
+
+        sid.freeze();
+
+        int slot = from;
+        while (true) {
+            if (table.compareAndSet(slot, null, sid)) {
+                return sid;
+            }
+
+            // slot taken meanwhile: it may be the same SID, added by another thread
+            final SID current = table.get(slot);
+            if (current.hashCode() == hash && current.equals(sid)) {
+                size.decrementAndGet();
+                return current;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Gets the maximum number of pooled SIDs.
+     *
+     * @return maximum number of pooled SIDs.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Gets the number of pooled SIDs.
+     *
+     * @return number of pooled SIDs.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Gets the number of lookups resolved to an already pooled SID.
+     *
+     * @return hit count.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that required to decode the SID.
+     *
+     * @return miss count.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the ratio of lookups resolved to an already pooled SID.
+     *
+     * @return hit rate, between 0 and 1; 0 if no lookup has been performed.
+     */
+    public double getHitRate() {
+        final long hitCount = getHitCount();
+        final long total = hitCount + getMissCount();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return "SidPool [size=" + size() + ", maxSize=" + maxSize
+                + ", hits=" + getHitCount() + ", misses=" + getMissCount() + "]";
+    }
+}
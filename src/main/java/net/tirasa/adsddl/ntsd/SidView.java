@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.ntsd;
+
+import java.nio.ByteBuffer;
+import net.tirasa.adsddl.ntsd.utils.Hex;
+import net.tirasa.adsddl.ntsd.utils.LittleEndian;
+
+/**
+ * Read-only flyweight view of a SID stored into a little-endian ordered buffer.
+ *
+ * Every getter reads the requested field straight from the underlying buffer: no field is decoded in advance and
+ * no intermediate array is allocated. Use {@link #materialize()} to obtain a mutable {@link SID} instance.
+ *
+ * @see SID
+ * @see <a href="https://msdn.microsoft.com/en-us/library/cc230371.aspx" target="_top">cc230371</a>
+ */
+public final class SidView {
+
+    private final ByteBuffer buff;
+
+    private final int offset;
+
+    /**
+     * Constructor.
+     *
+     * @param buff little-endian ordered source buffer.
+     * @param offset SID absolute offset into the buffer.
+     */
+    SidView(final ByteBuffer buff, final int offset) {
+        this.buff = buff;
+        this.offset = offset;
+    }
+
+    /**
+     * Gets the absolute offset of this SID into the underlying buffer.
+     *
+     * @return SID offset.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Gets revision level of the SID.
+     *
+     * @return revision.
+     */
+    public byte getRevision() {
+        return buff.get(offset);
+    }
+
+    /**
+     * Gets sub-authority number.
+     *
+     * @return sub-authorities number.
+     */
+    public int getSubAuthorityCount() {
+        return LittleEndian.getUInt8(buff, offset + 1);
+    }
+
+    /**
+     * Gets identifier authority as unsigned 48-bit value.
+     *
+     * @return identifier authority.
+     */
+    public long getIdentifierAuthority() {
+        return LittleEndian.getUInt48BigEndian(buff, offset + 2);
+    }
+
+    /**
+     * Gets the sub-authority at the given position as unsigned 32-bit value.
+     *
+     * @param index sub-authority position.
+     * @return sub-authority.
+     */
+    public long getSubAuthority(final int index) {
+        if (index < 0 || index >= getSubAuthorityCount()) {
+            throw new IndexOutOfBoundsException("Invalid sub-authority index " + index);
+        }
+        return LittleEndian.getUInt32(buff, offset + 8 + index * 4);
+    }
+
+    /**
+     * Gets size of the SID byte array form.
+     *
+     * @return size of SID byte aray form.
+     */
+    public int getSize() {
+        return 8 + getSubAuthorityCount() * 4;
+    }
+
+    /**
+     * Builds a mutable SID instance out of this view.
+     *
+     * @return SID instance.
+     */
+    public SID materialize() {
+        final SID sid = new SID();
+        sid.parse(buff, offset);
+        return sid;
+    }
+
+    /**
+     * Serializes to string.
+     *
+     * @return serialized SID.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder bld = new StringBuilder();
+        bld.append("S-").append(buff.get(offset) & 0xFF).append('-');
+
+        if (buff.get(offset + 2) == 0x00 && buff.get(offset + 3) == 0x00) {
+            bld.append(getIdentifierAuthority());
+        } else {
+            for (int i = 2; i < 8; i++) {
+                Hex.append(bld, buff.get(offset + i));
+            }
+        }
+
+        final int count = getSubAuthorityCount();
+        if (count == 0) {
+            bld.append("-0");
+        } else {
+            for (int i = 0; i < count; i++) {
+                bld.append('-');
+                bld.append(getSubAuthority(i));
+            }
+        }
+
+        return bld.toString();
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.ntsd;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Verbatim copy of unchanged source regions, used by ACL and ACE serialization.
+ */
+final class SourceSlice {
+
+    /**
+     * Copies <tt>length</tt> bytes of the source buffer, starting at the given absolute position, into the
+     * destination buffer at its current position; the source buffer is left untouched.
+     *
+     * @param src source buffer.
+     * @param from absolute position into the source buffer.
+     * @param length number of bytes to copy.
+     * @param dst destination buffer.
+     */
+    static void copy(final ByteBuffer src, final int from, final int length, final ByteBuffer dst) {
+        if (src.hasArray()) {
+            dst.put(src.array(), src.arrayOffset() + from, length);
+        } else {
+            final ByteBuffer dup = src.duplicate();
+            dup.limit(from + length).position(from);
+            dst.put(dup);
+        }
+    }
+}
@@ -25,6 +25,7 @@ import net.tirasa.adsddl.ntsd.data.AceFlag;
 import net.tirasa.adsddl.ntsd.data.AceObjectFlags;
 import net.tirasa.adsddl.ntsd.data.AceRights;
 import net.tirasa.adsddl.ntsd.data.AceRights.ObjectRight;
+import net.tirasa.adsddl.ntsd.data.Guid;
 
 /**
  * Represents an assertion that an {@code ACL} must contain an {@code ACE} (Access Control Entry) which meets the 
@@ -56,6 +57,16 @@ public class AceAssertion {
      */
     private String inheritedObjectType;
 
+    /**
+     * Object type GUID, decoded.
+     */
+    private Guid objectTypeGuid;
+
+    /**
+     * Inherited object type GUID, decoded.
+     */
+    private Guid inheritedObjectTypeGuid;
+
     /**
      * Single AceFlag that stipulates an ACE must contain it; may be null.
      */
@@ -99,11 +110,31 @@ public class AceAssertion {
         this.aceRight = aceRight;
         this.aceObjectFlags = aceObjFlags;
         this.objectType = objectType;
+        this.objectTypeGuid = decode(objectType);
         this.inheritedObjectType = inheritedObjectType;
+        this.inheritedObjectTypeGuid = decode(inheritedObjectType);
         this.requiredFlag = requiredFlag;
         this.excludedFlag = excludedFlag;
     }
 
+    /**
+     * Decodes the given GUID string once, so that matching does not need any string conversion; invalid GUIDs are
+     * decoded as null, hence never match any ACE.
+     *
+     * @param guid GUID string; may be null.
+     * @return decoded GUID, or null.
+     */
+    private static Guid decode(final String guid) {
+        if (guid == null) {
+            return null;
+        }
+        try {
+            return Guid.fromString(guid);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     /**
      * Gets the {@code AceRight} specifying the right of this assertion.
      *
@@ -123,7 +154,7 @@ public class AceAssertion {
     }
 
     /**
-     * Gets the object type GUID. Present only if {@code Flag.ACE_OBJECT_TYPE_PRESENT} is in {@link getObjectFlags}
+     * Gets the object type GUID. Present only if {@code Flag.ACE_OBJECT_TYPE_PRESENT} is in {@link #getObjectFlags()}
      *
      * @return Object type GUID string or null if none
      */
@@ -133,7 +164,7 @@ public class AceAssertion {
 
     /**
      * Gets the inherited object type GUID. Present only if {@code Flag.ACE_INHERITED_OBJECT_TYPE_PRESENT} is in
-     * {@link getObjectFlags}
+     * {@link #getObjectFlags()}
      *
      * @return Inherited object type GUID string or null if none
      */
@@ -141,6 +172,26 @@ public class AceAssertion {
         return inheritedObjectType;
     }
 
+    /**
+     * Gets the decoded object type GUID. Present only if {@code Flag.ACE_OBJECT_TYPE_PRESENT} is in
+     * {@link #getObjectFlags()}
+     *
+     * @return Object type GUID or null if none
+     */
+    public Guid getObjectTypeGuid() {
+        return objectTypeGuid;
+    }
+
+    /**
+     * Gets the decoded inherited object type GUID. Present only if {@code Flag.ACE_INHERITED_OBJECT_TYPE_PRESENT} is
+     * in {@link #getObjectFlags()}
+     *
+     * @return Inherited object type GUID or null if none
+     */
+    public Guid getInheritedObjectTypeGuid() {
+        return inheritedObjectTypeGuid;
+    }
+
     /**
      * Gets single {@code AceFlag} that stipulates an ACE must contain it; may be null.
      *
@@ -22,7 +22,6 @@
 package net.tirasa.adsddl.ntsd.dacl;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 
 import javax.naming.CommunicationException;
@@ -38,8 +37,8 @@ import javax.naming.ldap.LdapContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import net.tirasa.adsddl.ntsd.ACE;
 import net.tirasa.adsddl.ntsd.ACL;
+import net.tirasa.adsddl.ntsd.CompactAcl;
 import net.tirasa.adsddl.ntsd.SDDL;
 import net.tirasa.adsddl.ntsd.SID;
 import net.tirasa.adsddl.ntsd.controls.SDFlagsControl;
@@ -47,7 +46,6 @@ import net.tirasa.adsddl.ntsd.data.AceFlag;
 import net.tirasa.adsddl.ntsd.data.AceObjectFlags;
 import net.tirasa.adsddl.ntsd.data.AceObjectFlags.Flag;
 import net.tirasa.adsddl.ntsd.data.AceType;
-import net.tirasa.adsddl.ntsd.utils.GUID;
 
 /**
  * A class which asserts whether the DACL (Discretionary Access Control List) of an AD object grants the principal of an
@@ -75,7 +73,7 @@ public class DACLAssertor {
     /**
      * SID of the 'Everyone' AD group.
      */
-    private static final String EVERYONE_SID = "S-1-1-0";
+    private static final SID EVERYONE_SID = SID.fromString("S-1-1-0").freeze();
 
     /**
      * LDAP search filter for the object whose DACL will be evaluated.
@@ -97,6 +95,11 @@ public class DACLAssertor {
      */
     private ACL dacl;
 
+    /**
+     * The DACL, packed for matching.
+     */
+    private CompactAcl compactDacl;
+
     /**
      * List of any unsatisfied AceAssertions after {@code doAssert} runs.
      */
@@ -120,7 +123,8 @@ public class DACLAssertor {
     }
 
     /**
-     * DACLAssertor constructor. This version takes a pre-created DACL.
+     * DACLAssertor constructor. This version takes a pre-created DACL; changes made to it are taken into account by
+     * subsequent assertions.
      *
      * @param dacl
      * the DACL of the object to evaluate against the AdRoleAssertion
@@ -132,6 +136,19 @@ public class DACLAssertor {
         this.searchGroups = searchGroups;
     }
 
+    /**
+     * DACLAssertor constructor. This version takes a pre-created, packed DACL, which can be shared among assertors.
+     *
+     * @param dacl
+     * the DACL of the object to evaluate against the AdRoleAssertion
+     * @param searchGroups
+     * whether to search groups of a user contained in the AdRoleAssertion
+     */
+    public DACLAssertor(CompactAcl dacl, boolean searchGroups) {
+        this.compactDacl = dacl;
+        this.searchGroups = searchGroups;
+    }
+
     /**
      * Compares the object DACL located by the searchFilter against the specified {@code AdRoleAssertion}, and
      * determines whether
@@ -164,9 +181,13 @@ public class DACLAssertor {
             return result;
         }
 
-        if (dacl == null) {
+        if (compactDacl == null && dacl == null) {
             getDACL();
         }
+        if (dacl != null && (compactDacl == null || !compactDacl.isSnapshotOf(dacl))) {
+            // packed again whenever the DACL has changed since the previous assertion
+            compactDacl = new CompactAcl(dacl);
+        }
 
         this.unsatisfiedAssertions = findUnsatisfiedAssertions(roleAssertion);
         result = this.unsatisfiedAssertions.isEmpty() ? true : false;
@@ -220,7 +241,8 @@ public class DACLAssertor {
                 throw new SizeLimitExceededException("The search filter '{}' matched more than one AD object");
             }
             final byte[] descbytes = (byte[]) res.getAttributes().get("nTSecurityDescriptor").get();
-            final SDDL sddl = new SDDL(descbytes);
+            // only the DACL is needed: skip decoding of owner, group and SACL
+            final SDDL sddl = new SDDL(descbytes, true);
             dacl = sddl.getDacl();
             LOG.debug("getDACL, fetched SD & parsed DACL for searchFilter: {}, ldapContext: {}", searchFilter,
                     ldapContext.getNameInNamespace());
@@ -250,33 +272,21 @@ public class DACLAssertor {
      * @return List of unsatisfied AceAssertions (if any). Empty if none.
      */
     private List<AceAssertion> findUnsatisfiedAssertions(final AdRoleAssertion roleAssertion) {
-        HashMap<String, List<ACE>> acesBySIDMap = new HashMap<String, List<ACE>>();
-
-        for (int i = 0; i < dacl.getAceCount(); i++) {
-            final ACE ace = dacl.getAce(i);
-            LOG.trace("ACE {}: {}", i, ace);
-            if (ace.getSid() != null) {
-                if (!acesBySIDMap.containsKey(ace.getSid().toString())) {
-                    acesBySIDMap.put(ace.getSid().toString(), new ArrayList<ACE>());
-                }
-                List<ACE> aces = acesBySIDMap.get(ace.getSid().toString());
-                aces.add(ace);
-            }
-        }
-
         // Find any roleAssertion ACEs not matched in the DACL.
         // Not using Java 8 or other libs for this to keep dependencies of ADSDDL as is.
         // ------------------------------
         List<AceAssertion> unsatisfiedAssertions = new ArrayList<>(roleAssertion.getAssertions());
         List<AceAssertion> deniedAssertions = new ArrayList<>();
+        AssertionGuids guids = new AssertionGuids(roleAssertion.getAssertions());
         SID principal = roleAssertion.getPrincipal();
-        List<ACE> principalAces = acesBySIDMap.get(principal.toString());
+        int principalSid = compactDacl.indexOfSid(principal);
 
-        if (principalAces == null) {
+        if (principalSid == CompactAcl.NONE) {
             LOG.debug("findUnsatisfiedAssertions, no ACEs matching principal {} in DACL, will attempt to search member "
                     + "groups if requested", principal);
         } else {
-            findUnmatchedAssertions(principalAces, unsatisfiedAssertions, deniedAssertions, roleAssertion.getAssertions());
+            findUnmatchedAssertions(principalSid, unsatisfiedAssertions, deniedAssertions,
+                    roleAssertion.getAssertions(), guids);
             LOG.debug(
                     "findUnsatisfiedAssertions, {} unsatisfied assertion(s) remain after checking the DACL against "
                     + "principal {}, and {} denial(s); searching member groups if requested and existent",
@@ -289,7 +299,7 @@ public class DACLAssertor {
                 LOG.warn(
                         "findUnsatisfiedAssertions, requested to search member groups, but the principal is a group - "
                         + "running Everyone group scan before returning");
-                doEveryoneGroupScan(acesBySIDMap, unsatisfiedAssertions, deniedAssertions, roleAssertion.getAssertions());
+                doEveryoneGroupScan(unsatisfiedAssertions, deniedAssertions, roleAssertion.getAssertions(), guids);
                 mergeDenials(unsatisfiedAssertions, deniedAssertions);
                 return unsatisfiedAssertions;
             }
@@ -299,21 +309,22 @@ public class DACLAssertor {
                 LOG.debug(
                         "findUnsatisfiedAssertions, no token groups found in AdRoleAssertion - running Everyone group "
                         + "scan before returning");
-                doEveryoneGroupScan(acesBySIDMap, unsatisfiedAssertions, deniedAssertions, roleAssertion.getAssertions());
+                doEveryoneGroupScan(unsatisfiedAssertions, deniedAssertions, roleAssertion.getAssertions(), guids);
                 mergeDenials(unsatisfiedAssertions, deniedAssertions);
                 return unsatisfiedAssertions;
             }
 
             int groupCount = 1;
             for (SID grpSID : tokenGroupSIDs) {
-                principalAces = acesBySIDMap.get(grpSID.toString());
-                if (principalAces == null) {
+                principalSid = compactDacl.indexOfSid(grpSID);
+                if (principalSid == CompactAcl.NONE) {
                     continue;
                 }
                 int unsatCount = unsatisfiedAssertions.size();
-                LOG.debug("findUnsatisfiedAssertions, {} unsatisfied(s); {} ACE(s) of group {} to scan",
-                            unsatCount, principalAces.size(), grpSID);
-                findUnmatchedAssertions(principalAces, unsatisfiedAssertions, deniedAssertions, roleAssertion.getAssertions());
+                LOG.debug("findUnsatisfiedAssertions, {} unsatisfied(s); ACE(s) of group {} to scan",
+                            unsatCount, grpSID);
+                findUnmatchedAssertions(principalSid, unsatisfiedAssertions, deniedAssertions,
+                        roleAssertion.getAssertions(), guids);
                 if (unsatisfiedAssertions.isEmpty() && unsatCount > 0) {
                     LOG.info("findUnsatisfiedAssertions, all role assertions found in in DACL after searching {} "
                             + "group(s); scanning for denials", groupCount);
@@ -321,7 +332,7 @@ public class DACLAssertor {
                 groupCount++;
             }
 
-            doEveryoneGroupScan(acesBySIDMap, unsatisfiedAssertions, deniedAssertions, roleAssertion.getAssertions());
+            doEveryoneGroupScan(unsatisfiedAssertions, deniedAssertions, roleAssertion.getAssertions(), guids);
         }
 
         mergeDenials(unsatisfiedAssertions, deniedAssertions);
@@ -329,70 +340,93 @@ public class DACLAssertor {
         return unsatisfiedAssertions;
     }
 
-    private void doEveryoneGroupScan(final HashMap<String, List<ACE>> acesBySIDMap, final List<AceAssertion> unsatisfiedAssertions,
-            final List<AceAssertion> deniedAssertions, final List<AceAssertion> roleAssertions) {
+    private void doEveryoneGroupScan(final List<AceAssertion> unsatisfiedAssertions,
+            final List<AceAssertion> deniedAssertions, final List<AceAssertion> roleAssertions,
+            final AssertionGuids guids) {
         LOG.debug("doEveryoneGroupScan, starting");
-        List<ACE> everyoneACEs = acesBySIDMap.get(EVERYONE_SID);
-        findUnmatchedAssertions(everyoneACEs, unsatisfiedAssertions, deniedAssertions, roleAssertions);
+        findUnmatchedAssertions(compactDacl.indexOfSid(EVERYONE_SID), unsatisfiedAssertions, deniedAssertions,
+                roleAssertions, guids);
     }
 
     /**
-     * Finds which AceAssertions are satisfied by the given list of ACEs, and removes those from the unsatisfied list.
+     * Object type and inherited object type GUIDs of the AceAssertions, resolved once to their indexes in the packed
+     * DACL, so that matching compares plain {@code int} values.
+     */
+    private final class AssertionGuids {
+
+        private final int[] objectTypes;
+
+        private final int[] inheritedObjectTypes;
+
+        AssertionGuids(final List<AceAssertion> roleAssertions) {
+            objectTypes = new int[roleAssertions.size()];
+            inheritedObjectTypes = new int[roleAssertions.size()];
+            for (int i = 0; i < objectTypes.length; i++) {
+                objectTypes[i] = compactDacl.indexOfGuid(roleAssertions.get(i).getObjectTypeGuid());
+                inheritedObjectTypes[i] = compactDacl.indexOfGuid(roleAssertions.get(i).getInheritedObjectTypeGuid());
+            }
+        }
+    }
+
+    /**
+     * Finds which AceAssertions are satisfied by the ACEs of the given trustee, and removes those from the unsatisfied
+     * list.
      * Also finds ACEs which are explicitly denied and adds those to the deniedAssertions list if they match any
      * roleAssertions. Upon returning, only the assertions still unmatched will be in the given 
      * {@code unsatisfiedAssertions} list, and denials will accumulate in the {@code deniedAssertions} list.
      *
-     * @param aces
-     * ACE list to be evaluated
+     * @param sidIndex
+     * index of the trustee SID whose ACEs are to be evaluated, in the packed DACL
      * @param unsatisfiedAssertions
      * list of AceAssertions currently unmatched in the DACL.
      * @param deniedAssertions
      * list of AceAssertions denied in the DACL.
      * @param roleAssertions
      * the AceAssertions from the AdRoleAssertion
+     * @param guids
+     * the GUIDs of the AceAssertions, resolved to their indexes in the packed DACL
      */
-    private void findUnmatchedAssertions(final List<ACE> aces, final List<AceAssertion> unsatisfiedAssertions,
-            final List<AceAssertion> deniedAssertions, final List<AceAssertion> roleAssertions) {
-        if (aces == null || aces.isEmpty()) {
-            return;
-        }
-
-        for (ACE ace : aces) {
-            long rightsMask = ace.getRights().asUInt();
-            LOG.debug("findUnmatchedAssertions, processing ACE: {}", ace);
+    private void findUnmatchedAssertions(final int sidIndex, final List<AceAssertion> unsatisfiedAssertions,
+            final List<AceAssertion> deniedAssertions, final List<AceAssertion> roleAssertions,
+            final AssertionGuids guids) {
+        for (int i = compactDacl.nextAce(sidIndex, 0); i >= 0; i = compactDacl.nextAce(sidIndex, i + 1)) {
+            final long rightsMask = compactDacl.getAccessMask(i) & 0xFFFFFFFFL;
+            final byte type = compactDacl.getType(i);
+            final byte aceFlags = compactDacl.getFlags(i);
+            LOG.debug("findUnmatchedAssertions, processing ACE at position {}", i);
 
             boolean isDenial = false;
-            if (ace.getType().getValue() == AceType.ACCESS_DENIED_ACE_TYPE.getValue()
-                    || ace.getType().getValue() == AceType.ACCESS_DENIED_OBJECT_ACE_TYPE.getValue()) {
-                LOG.debug("findUnmatchedAssertions, found denial ACE type: {} ", ace.getType().name());
+            if (type == AceType.ACCESS_DENIED_ACE_TYPE.getValue()
+                    || type == AceType.ACCESS_DENIED_OBJECT_ACE_TYPE.getValue()) {
+                LOG.debug("findUnmatchedAssertions, found denial ACE type: {} ", type);
                 isDenial = true;
             }
 
             // can only match type ACCESS_ALLOWED or ACCESS_ALLOWED_OBJECT, if not a denial
-            if (!isDenial && ace.getType().getValue() != AceType.ACCESS_ALLOWED_ACE_TYPE.getValue()
-                    && ace.getType().getValue() != AceType.ACCESS_ALLOWED_OBJECT_ACE_TYPE.getValue()) {
-                LOG.debug("findUnmatchedAssertions, skipping ACE with non allowed object type: {}",
-                        ace.getType().getValue());
+            if (!isDenial && type != AceType.ACCESS_ALLOWED_ACE_TYPE.getValue()
+                    && type != AceType.ACCESS_ALLOWED_OBJECT_ACE_TYPE.getValue()) {
+                LOG.debug("findUnmatchedAssertions, skipping ACE with non allowed object type: {}", type);
                 continue;
             }
 
-            for (AceAssertion assertion : roleAssertions) {
+            for (int j = 0; j < roleAssertions.size(); j++) {
+                AceAssertion assertion = roleAssertions.get(j);
                 long assertRight = assertion.getAceRight().asUInt();
                 LOG.debug("findUnmatchedAssertions, assertRightMask: {}, aceRightsMask: {}", assertRight, rightsMask);
                 boolean isMatch = false;
                 if ((rightsMask & assertRight) == assertRight) {
                     // found a rights match
-                    if (doObjectFlagsMatch(ace.getObjectFlags(), assertion.getObjectFlags())
+                    if (doObjectFlagsMatch(compactDacl.getObjectFlags(i), assertion.getObjectFlags())
                             && doObjectTypesMatch(
-                                    ace.getObjectType(),
-                                    assertion.getObjectType(),
+                                    compactDacl.getObjectTypeIndex(i),
+                                    guids.objectTypes[j],
                                     assertion.getObjectFlags())
                             && doInheritedObjectTypesMatch(
-                                    ace.getInheritedObjectType(),
-                                    assertion.getInheritedObjectType(),
+                                    compactDacl.getInheritedObjectTypeIndex(i),
+                                    guids.inheritedObjectTypes[j],
                                     assertion.getObjectFlags())
-                            && doRequiredFlagsMatch(ace.getFlags(), assertion.getRequiredFlag(), isDenial)
-                            && !isAceExcluded(ace.getFlags(), assertion.getExcludedFlag(), isDenial)) {
+                            && doRequiredFlagsMatch(aceFlags, assertion.getRequiredFlag(), isDenial)
+                            && !isAceExcluded(aceFlags, assertion.getExcludedFlag(), isDenial)) {
                         isMatch = true;
                     }
                 }
@@ -473,25 +507,19 @@ public class DACLAssertor {
      * An ACE will appear without object flags when it is for "Full Control" permissions.
      *
      * @param aceObjFlags
-     * object flags from the ACE
+     * object flags bitmask from the ACE (0 if not available)
      * @param assertionObjFlags
      * object flags from the AceAssertion
      * @return true if match, false if not
      */
-    private boolean doObjectFlagsMatch(final AceObjectFlags aceObjFlags, final AceObjectFlags assertionObjFlags) {
-        if (assertionObjFlags != null && aceObjFlags != null) {
-            LOG.debug("doObjectFlagsMatch, assertionObjFlags: {}, aceObjFlags: {}", assertionObjFlags.asUInt(), aceObjFlags.asUInt());
-        } else if (assertionObjFlags != null) {
-            LOG.debug("doObjectFlagsMatch, assertionObjFlags: {}, aceObjFlags: null", assertionObjFlags.asUInt());
-        } else if (aceObjFlags != null) {
-            LOG.debug("doObjectFlagsMatch, assertionObjFlags: null, aceObjFlags: {}", aceObjFlags.asUInt());
-        }
+    private boolean doObjectFlagsMatch(final int aceObjFlags, final AceObjectFlags assertionObjFlags) {
         boolean res = true;
         if (assertionObjFlags != null) {
-            if (aceObjFlags != null
-                    && (aceObjFlags.asUInt() & assertionObjFlags.asUInt()) == assertionObjFlags.asUInt()) {
+            final long assertionMask = assertionObjFlags.asUInt();
+            LOG.debug("doObjectFlagsMatch, assertionObjFlags: {}, aceObjFlags: {}", assertionMask, aceObjFlags);
+            if ((aceObjFlags & assertionMask) == assertionMask) {
                 res = true;
-            } else if (aceObjFlags == null || aceObjFlags.asUInt() == 0) {
+            } else if (aceObjFlags == 0) {
                 // MS docs state that if the object type is _not_ present - which is hinted at by presence of object flags -
                 // then the ACE controls that right on all object classes/attributes of such objects.
                 // So defer ultimate decision to object/inherited object type matching.
@@ -509,14 +537,14 @@ public class DACLAssertor {
      * {@code assertionObjFlags} are null, or they do not specify ACE_OBJECT_TYPE_PRESENT, a true result is returned.
      *
      * @param aceObjectType
-     * byte array containing the ACE objectType GUID
+     * index of the ACE objectType GUID in the packed DACL, {@code CompactAcl.NONE} if not available
      * @param assertionObjectType
-     * String containing the AceAssertion objectType
+     * index of the AceAssertion objectType GUID in the packed DACL, {@code CompactAcl.NONE} if not found
      * @param assertionObjFlags
      * AceObjectFlags from the AceAssertion
      * @return true if match, false if not
      */
-    private boolean doObjectTypesMatch(byte[] aceObjectType, final String assertionObjectType,
+    private boolean doObjectTypesMatch(final int aceObjectType, final int assertionObjectType,
             final AceObjectFlags assertionObjFlags) {
         boolean res = true;
         if (assertionObjFlags == null) {
@@ -525,7 +553,7 @@ public class DACLAssertor {
 
         if ((assertionObjFlags.asUInt()
                 & Flag.ACE_OBJECT_TYPE_PRESENT.getValue()) == Flag.ACE_OBJECT_TYPE_PRESENT.getValue()) {
-            if (aceObjectType != null && !GUID.getGuidAsString(aceObjectType).equals(assertionObjectType)) {
+            if (aceObjectType != CompactAcl.NONE && aceObjectType != assertionObjectType) {
                 res = false;
             }
         }
@@ -539,14 +567,14 @@ public class DACLAssertor {
      * ACE_INHERITED_OBJECT_TYPE_PRESENT, a true result is returned.
      *
      * @param aceInhObjectType
-     * byte array containing the ACE inheritedObjectType GUID
+     * index of the ACE inheritedObjectType GUID in the packed DACL, {@code CompactAcl.NONE} if not available
      * @param assertionInhObjectType
-     * String containing the AceAssertion inheritedObjectType
+     * index of the AceAssertion inheritedObjectType GUID in the packed DACL, {@code CompactAcl.NONE} if not found
      * @param assertionObjFlags
      * AceObjectFlags from the AceAssertion
      * @return true if match, false if not
      */
-    private boolean doInheritedObjectTypesMatch(byte[] aceInhObjectType, final String assertionInhObjectType,
+    private boolean doInheritedObjectTypesMatch(final int aceInhObjectType, final int assertionInhObjectType,
             final AceObjectFlags assertionObjFlags) {
         boolean res = true;
         if (assertionObjFlags == null) {
@@ -556,7 +584,7 @@ public class DACLAssertor {
         if ((assertionObjFlags.asUInt()
                 & Flag.ACE_INHERITED_OBJECT_TYPE_PRESENT.getValue())
                 == Flag.ACE_INHERITED_OBJECT_TYPE_PRESENT.getValue()) {
-            if (aceInhObjectType != null && !GUID.getGuidAsString(aceInhObjectType).equals(assertionInhObjectType)) {
+            if (aceInhObjectType != CompactAcl.NONE && aceInhObjectType != assertionInhObjectType) {
                 res = false;
             }
         }
@@ -570,7 +598,7 @@ public class DACLAssertor {
      * the required flag, a false result is returned.
      *
      * @param aceFlags
-     * list of AceFlags from the ACE
+     * AceFlags bitmask from the ACE
      * @param requiredFlag
      * AceFlag required by the AceAssertion (e.g., {@code AceFlag.CONTAINER_INHERIT_ACE})
      * @param isDenial
@@ -578,22 +606,18 @@ public class DACLAssertor {
      * and the requiredFlag is ignored.  
      * @return true if match, false if not
      */
-    private boolean doRequiredFlagsMatch(final List<AceFlag> aceFlags, final AceFlag requiredFlag, final boolean isDenial) {
+    private boolean doRequiredFlagsMatch(final byte aceFlags, final AceFlag requiredFlag, final boolean isDenial) {
         boolean res = true;
         if (isDenial) {
             // If the AceType is denial, the flags must NOT contain the inherited flag. Such denials are ineffective
             // when countered by an allowed right, so we only consider non-inherited denials as a match.
-            if (aceFlags == null || !aceFlags.contains(AceFlag.INHERITED_ACE)) {
-                res = true;
-            } else {
-                res = false;
-            }
+            res = (aceFlags & AceFlag.INHERITED_ACE.getValue()) == 0;
         } else if (requiredFlag != null) {
-            // aceFlags could be null if the ACE applies to 'this object only' and has no other flags set
-            if (aceFlags == null || aceFlags.isEmpty() || !aceFlags.contains(requiredFlag)) {
+            // aceFlags could be 0 if the ACE applies to 'this object only' and has no other flags set
+            if ((aceFlags & requiredFlag.getValue()) != requiredFlag.getValue()) {
                 res = false;
             }
-        } else if (aceFlags != null && !aceFlags.isEmpty()) {
+        } else if (aceFlags != 0) {
             LOG.debug("doRequiredFlagsMatch, found aceFlags : {}, but not looking for any required flags", aceFlags);
         }
         LOG.debug("doRequiredFlagsMatch, result: {}", res);
@@ -606,18 +630,18 @@ public class DACLAssertor {
      * the excluded flag, a false result is returned. Otherwise, a true result is returned.
      *
      * @param aceFlags
-     * list of AceFlags from the ACE
+     * AceFlags bitmask from the ACE
      * @param excludedFlag
      * AceFlag disallowed by the AceAssertion (e.g., {@code AceFlag.INHERIT_ONLY_ACE})
      * @param isDenial
      * whether the AceType is a denial, in which case the excludedFlag evaluation is skipped
      * @return true if AceFlags is excluded, false if not
      */
-    private boolean isAceExcluded(final List<AceFlag> aceFlags, final AceFlag excludedFlag, final boolean isDenial) {
+    private boolean isAceExcluded(final byte aceFlags, final AceFlag excludedFlag, final boolean isDenial) {
         boolean res = false;
         if (excludedFlag != null && !isDenial) {
-            // aceFlags could be null if the ACE applies to 'this object only' and has no other flags set
-            if (aceFlags != null && !aceFlags.isEmpty() && aceFlags.contains(excludedFlag)) {
+            // aceFlags could be 0 if the ACE applies to 'this object only' and has no other flags set
+            if ((aceFlags & excludedFlag.getValue()) == excludedFlag.getValue()) {
                 res = true;
             }
         }
@@ -65,6 +65,8 @@ public enum AceFlag {
      */
     SUCCESSFUL_ACCESS_ACE_FLAG((byte) 0x40, "SA");
 
+    private static final AceFlag[] VALUES = values();
+
     private final byte value;
 
     private final String str;
@@ -108,7 +110,7 @@ public enum AceFlag {
     public static List<AceFlag> parseValue(final byte value) {
         final List<AceFlag> res = new ArrayList<>();
 
-        for (AceFlag type : AceFlag.values()) {
+        for (AceFlag type : VALUES) {
             if ((value & type.getValue()) == type.getValue()) {
                 res.add(type);
             }
@@ -16,6 +16,7 @@
 package net.tirasa.adsddl.ntsd.data;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -65,10 +66,17 @@ public class AceObjectFlags {
         }
     }
 
+    private static final Flag[] VALUES = Flag.values();
+
     /**
-     * Standard flags.
+     * Standard flags, as bitmask.
      */
-    private final List<Flag> flags = new ArrayList<>();
+    private int mask = 0;
+
+    /**
+     * Standard flags, lazily derived from mask.
+     */
+    private List<Flag> flags;
 
     /**
      * Custom/Other flags.
@@ -82,9 +90,7 @@ public class AceObjectFlags {
      */
     public AceObjectFlags(final Flag... fls) {
         for (Flag flag : fls) {
-            if (!flags.contains(flag)) {
-                flags.add(flag);
-            }
+            mask |= flag.getValue();
         }
     }
 
@@ -97,14 +103,12 @@ public class AceObjectFlags {
     public static AceObjectFlags parseValue(final int value) {
         final AceObjectFlags res = new AceObjectFlags();
 
-        res.others = value;
-
-        for (AceObjectFlags.Flag type : AceObjectFlags.Flag.values()) {
+        for (AceObjectFlags.Flag type : VALUES) {
             if ((value & type.getValue()) == type.getValue()) {
-                res.flags.add(type);
-                res.others ^= type.getValue();
+                res.mask |= type.getValue();
             }
         }
+        res.others = value & ~res.mask;
 
         return res;
     }
@@ -112,12 +116,31 @@ public class AceObjectFlags {
     /**
      * Gets standard ACE object flags.
      *
-     * @return stabdatd ACE object flags.
+     * @return stabdatd ACE object flags (read-only).
      */
     public List<Flag> getFlags() {
+        if (flags == null) {
+            final List<Flag> res = new ArrayList<>();
+            for (AceObjectFlags.Flag type : VALUES) {
+                if ((mask & type.getValue()) == type.getValue()) {
+                    res.add(type);
+                }
+            }
+            flags = Collections.unmodifiableList(res);
+        }
         return flags;
     }
 
+    /**
+     * Checks whether the given standard ACE object flag is set.
+     *
+     * @param flag standard ACE object flag.
+     * @return <tt>true</tt> if set; <tt>false</tt> otherwise.
+     */
+    public boolean hasFlag(final Flag flag) {
+        return (mask & flag.getValue()) == flag.getValue();
+    }
+
     /**
      * Adds standard ACE object flag.
      *
@@ -125,9 +148,8 @@ public class AceObjectFlags {
      * @return the current ACE object flags.
      */
     public AceObjectFlags addFlag(final Flag flag) {
-        if (!flags.contains(flag)) {
-            flags.add(flag);
-        }
+        mask |= flag.getValue();
+        flags = null;
         return this;
     }
 
@@ -157,12 +179,6 @@ public class AceObjectFlags {
      * @return custom/other ACE object flags as long value.
      */
     public long asUInt() {
-        long res = others;
-
-        for (AceObjectFlags.Flag flag : flags) {
-            res += flag.getValue();
-        }
-
-        return res;
+        return (mask | others) & 0xFFFFFFFFL;
     }
 }
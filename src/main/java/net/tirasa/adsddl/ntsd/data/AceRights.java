@@ -16,6 +16,7 @@
 package net.tirasa.adsddl.ntsd.data;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -172,15 +173,22 @@ public class AceRights {
         }
     }
 
+    private static final ObjectRight[] VALUES = ObjectRight.values();
+
     /**
      * Custom/Other rights.
      */
     private long others = 0l;
 
     /**
-     * Standard ACE rights.
+     * Standard ACE rights, as bitmask.
+     */
+    private int mask = 0;
+
+    /**
+     * Standard ACE rights, lazily derived from mask.
      */
-    private final List<AceRights.ObjectRight> rights = new ArrayList<>();
+    private List<AceRights.ObjectRight> rights;
 
     /**
      * Default constructor.
@@ -201,14 +209,12 @@ public class AceRights {
             return res;
         }
 
-        res.others = value;
-
-        for (ObjectRight type : ObjectRight.values()) {
+        for (ObjectRight type : VALUES) {
             if ((value & type.getValue()) == type.getValue()) {
-                res.rights.add(type);
-                res.others ^= type.getValue();
+                res.mask |= type.getValue();
             }
         }
+        res.others = (value & ~res.mask) & 0xFFFFFFFFL;
 
         return res;
     }
@@ -236,12 +242,31 @@ public class AceRights {
     /**
      * Gets standard ACE rights.
      *
-     * @return standard ACE rights.
+     * @return standard ACE rights (read-only).
      */
     public List<ObjectRight> getObjectRights() {
+        if (rights == null) {
+            final List<ObjectRight> res = new ArrayList<>();
+            for (ObjectRight type : VALUES) {
+                if ((mask & type.getValue()) == type.getValue()) {
+                    res.add(type);
+                }
+            }
+            rights = Collections.unmodifiableList(res);
+        }
         return rights;
     }
 
+    /**
+     * Checks whether the given standard ACE right is set.
+     *
+     * @param right Object right.
+     * @return <tt>true</tt> if set; <tt>false</tt> otherwise.
+     */
+    public boolean hasObjectRight(final ObjectRight right) {
+        return (mask & right.getValue()) == right.getValue();
+    }
+
     /**
      * Adds standard ACE right.
      *
@@ -249,7 +274,8 @@ public class AceRights {
      * @return the carrent ACE rights.
      */
     public AceRights addOjectRight(final ObjectRight right) {
-        rights.add(right);
+        mask |= right.getValue();
+        rights = null;
         return this;
     }
 
@@ -259,12 +285,6 @@ public class AceRights {
      * @return rights as unsigned int.
      */
     public long asUInt() {
-        long res = others;
-
-        for (ObjectRight right : rights) {
-            res += right.getValue();
-        }
-
-        return res;
+        return (mask & 0xFFFFFFFFL) | others;
     }
 }
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.ntsd.data;
+
+/**
+ * Two-letter aliases used by SDDL strings for ACCESS_MASK bits and well-known combinations of them.
+ *
+ * Unlike {@link AceRights.ObjectRight}, this is the complete set of rights strings defined by SDDL: generic, standard,
+ * directory service, file, registry and mandatory label rights. Combined aliases (e.g. <tt>FA</tt>) come after
+ * the single bit ones they are made of.
+ *
+ * @see <a href="https://docs.microsoft.com/en-us/windows/win32/secauthz/ace-strings" target="_top">ACE strings</a>
+ */
+public enum AceRightsAlias {
+
+    /**
+     * GENERIC_ALL.
+     */
+    GA(0x10000000),
+    /**
+     * GENERIC_READ.
+     */
+    GR(0x80000000),
+    /**
+     * GENERIC_WRITE.
+     */
+    GW(0x40000000),
+    /**
+     * GENERIC_EXECUTE.
+     */
+    GX(0x20000000),
+    /**
+     * READ_CONTROL.
+     */
+    RC(0x00020000),
+    /**
+     * DELETE.
+     */
+    SD(0x00010000),
+    /**
+     * WRITE_DAC.
+     */
+    WD(0x00040000),
+    /**
+     * WRITE_OWNER.
+     */
+    WO(0x00080000),
+    /**
+     * ADS_RIGHT_DS_READ_PROP.
+     */
+    RP(0x00000010),
+    /**
+     * ADS_RIGHT_DS_WRITE_PROP.
+     */
+    WP(0x00000020),
+    /**
+     * ADS_RIGHT_DS_CREATE_CHILD.
+     */
+    CC(0x00000001),
+    /**
+     * ADS_RIGHT_DS_DELETE_CHILD.
+     */
+    DC(0x00000002),
+    /**
+     * ADS_RIGHT_ACTRL_DS_LIST.
+     */
+    LC(0x00000004),
+    /**
+     * ADS_RIGHT_DS_SELF.
+     */
+    SW(0x00000008),
+    /**
+     * ADS_RIGHT_DS_LIST_OBJECT.
+     */
+    LO(0x00000080),
+    /**
+     * ADS_RIGHT_DS_DELETE_TREE.
+     */
+    DT(0x00000040),
+    /**
+     * ADS_RIGHT_DS_CONTROL_ACCESS.
+     */
+    CR(0x00000100),
+    /**
+     * FILE_ALL_ACCESS.
+     */
+    FA(0x001F01FF),
+    /**
+     * FILE_GENERIC_READ.
+     */
+    FR(0x00120089),
+    /**
+     * FILE_GENERIC_WRITE.
+     */
+    FW(0x00120116),
+    /**
+     * FILE_GENERIC_EXECUTE.
+     */
+    FX(0x001200A0),
+    /**
+     * KEY_ALL_ACCESS.
+     */
+    KA(0x000F003F),
+    /**
+     * KEY_READ.
+     */
+    KR(0x00020019),
+    /**
+     * KEY_WRITE.
+     */
+    KW(0x00020006),
+    /**
+     * KEY_EXECUTE.
+     */
+    KX(0x00020019),
+    /**
+     * SYSTEM_MANDATORY_LABEL_NO_READ_UP.
+     */
+    NR(0x00000002),
+    /**
+     * SYSTEM_MANDATORY_LABEL_NO_WRITE_UP.
+     */
+    NW(0x00000001),
+    /**
+     * SYSTEM_MANDATORY_LABEL_NO_EXECUTE_UP.
+     */
+    NX(0x00000004);
+
+    private static final AceRightsAlias[] VALUES = values();
+
+    private final int value;
+
+    /**
+     * Private constructor.
+     *
+     * @param value int value.
+     */
+    private AceRightsAlias(final int value) {
+        this.value = value;
+    }
+
+    /**
+     * Gets int value.
+     *
+     * @return int value.
+     */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * Gets the alias matching the two given characters.
+     *
+     * @param first first character.
+     * @param second second character.
+     * @return rights alias; null if not found.
+     */
+    public static AceRightsAlias parseValue(final char first, final char second) {
+        for (AceRightsAlias alias : VALUES) {
+            final String name = alias.name();
+            if (name.charAt(0) == first && name.charAt(1) == second) {
+                return alias;
+            }
+        }
+        return null;
+    }
+}
@@ -107,6 +107,8 @@ public enum AceType {
      */
     SYSTEM_SCOPED_POLICY_ID_ACE_TYPE((byte) 0x13, "SP");
 
+    private static final AceType[] VALUES = values();
+
     private final String str;
 
     private final byte value;
@@ -156,7 +158,7 @@ public enum AceType {
      * @return ACE type.
      */
     public static AceType parseValue(final byte value) {
-        for (AceType type : AceType.values()) {
+        for (AceType type : VALUES) {
             if (type.getValue() == value) {
                 return type;
             }
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.ntsd.data;
+
+/**
+ * Control access bit flags of a SECURITY_DESCRIPTOR, as unsigned 16-bit value.
+ *
+ * @see <a href="https://msdn.microsoft.com/en-us/library/cc230366.aspx" target="_top">cc230366</a>
+ */
+public enum ControlFlag {
+
+    /**
+     * 0x0001 - Owner Defaulted: set when the owner SID was established by default means.
+     */
+    OD(0x0001),
+    /**
+     * 0x0002 - Group Defaulted: set when the group SID was established by default means.
+     */
+    GD(0x0002),
+    /**
+     * 0x0004 - DACL Present: set when the DACL is present on the object.
+     */
+    DP(0x0004),
+    /**
+     * 0x0008 - DACL Defaulted: set when the DACL was established by default means.
+     */
+    DD(0x0008),
+    /**
+     * 0x0010 - SACL Present: set when the SACL is present on the object.
+     */
+    SP(0x0010),
+    /**
+     * 0x0020 - SACL Defaulted: set when the SACL was established by default means.
+     */
+    SD(0x0020),
+    /**
+     * 0x0040 - DACL Trusted: set when the ACL pointed to by the DACL field was provided by a trusted source.
+     */
+    DT(0x0040),
+    /**
+     * 0x0080 - Server Security: set when the caller wants the system to create a server ACL.
+     */
+    SS(0x0080),
+    /**
+     * 0x0100 - DACL Computed Inheritance Required (<tt>AR</tt> in SDDL strings).
+     */
+    DC(0x0100),
+    /**
+     * 0x0200 - SACL Computed Inheritance Required (<tt>AR</tt> in SDDL strings).
+     */
+    SC(0x0200),
+    /**
+     * 0x0400 - DACL Auto-Inherited (<tt>AI</tt> in SDDL strings).
+     */
+    DI(0x0400),
+    /**
+     * 0x0800 - SACL Auto-Inherited (<tt>AI</tt> in SDDL strings).
+     */
+    SI(0x0800),
+    /**
+     * 0x1000 - DACL Protected (<tt>P</tt> in SDDL strings).
+     */
+    PD(0x1000),
+    /**
+     * 0x2000 - SACL Protected (<tt>P</tt> in SDDL strings).
+     */
+    PS(0x2000),
+    /**
+     * 0x4000 - RM Control Valid: set when the Sbz1 field is to be interpreted as resource manager control bits.
+     */
+    RM(0x4000),
+    /**
+     * 0x8000 - Self-Relative: set when the security descriptor is in self-relative format.
+     */
+    SR(0x8000);
+
+    private final int value;
+
+    /**
+     * Private constructor.
+     *
+     * @param value int value.
+     */
+    private ControlFlag(final int value) {
+        this.value = value;
+    }
+
+    /**
+     * Gets int value.
+     *
+     * @return int value.
+     */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * Checks whether this flag is set into the given control value.
+     *
+     * @param control control access bit flags, as unsigned 16-bit value.
+     * @return <tt>true</tt> if set; <tt>false</tt> otherwise.
+     */
+    public boolean isSet(final int control) {
+        return (control & value) == value;
+    }
+}
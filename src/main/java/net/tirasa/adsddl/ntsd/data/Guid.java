@@ -0,0 +1,270 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.ntsd.data;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.UUID;
+
+/**
+ * Immutable GUID value, as found in the ObjectType and InheritedObjectType fields of object ACEs.
+ *
+ * The 16 bytes are held as two <tt>long</tt> values, in the same (mixed-endian) order they are stored by AD: comparing
+ * against the bytes of an ACE takes two 64-bit reads, without allocating or converting to string. The string form
+ * (e.g. <tt>bf967a86-0de6-11d0-a285-00aa003049e2</tt>) is computed once, on first use.
+ *
+ * @see <a href="https://msdn.microsoft.com/en-us/library/cc230326.aspx" target="_top">cc230326</a>
+ */
+public final class Guid {
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * Length of the string form.
+     */
+    public static final int STRING_LENGTH = 36;
+
+    /**
+     * Position of each byte of the binary form into the string form, -1 standing for a dash: the first three groups
+     * are stored as little-endian.
+     */
+    private static final int[] ORDER = { 3, 2, 1, 0, -1, 5, 4, -1, 7, 6, -1, 8, 9, -1, 10, 11, 12, 13, 14, 15 };
+
+    /**
+     * Bytes 0 to 7, as stored by AD, read as big-endian.
+     */
+    private final long high;
+
+    /**
+     * Bytes 8 to 15, as stored by AD, read as big-endian.
+     */
+    private final long low;
+
+    /**
+     * Cached string form.
+     */
+    private String str;
+
+    private Guid(final long high, final long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    /**
+     * Gets the GUID stored into the given byte array.
+     *
+     * @param src GUID as byte array (16 bytes), as stored by AD.
+     * @return GUID.
+     * @throws IllegalArgumentException if the array is not 16 bytes long.
+     */
+    public static Guid fromBytes(final byte[] src) {
+        if (src == null || src.length != 16) {
+            throw new IllegalArgumentException("Invalid GUID: 16 bytes expected");
+        }
+        return fromBytes(src, 0);
+    }
+
+    /**
+     * Gets the GUID stored into the given byte array at the given offset.
+     *
+     * @param src source byte array.
+     * @param offset GUID position (in bytes).
+     * @return GUID.
+     */
+    public static Guid fromBytes(final byte[] src, final int offset) {
+        return new Guid((long) LONGS.get(src, offset), (long) LONGS.get(src, offset + 8));
+    }
+
+    /**
+     * Gets the GUID stored into the given buffer at the given position.
+     *
+     * @param buff source buffer, in any byte order.
+     * @param pos GUID position (in bytes).
+     * @return GUID.
+     */
+    public static Guid fromBuffer(final ByteBuffer buff, final int pos) {
+        return new Guid(getLong(buff, pos), getLong(buff, pos + 8));
+    }
+
+    /**
+     * Parses the given string form, as {@link #decode(java.lang.CharSequence, int, int)} does: unlike
+     * {@link UUID#fromString(java.lang.String)}, only the canonical 36 chars form is accepted.
+     *
+     * @param src GUID string, e.g. <tt>bf967a86-0de6-11d0-a285-00aa003049e2</tt>; case is not relevant.
+     * @return GUID.
+     * @throws IllegalArgumentException if the string is not a valid GUID.
+     */
+    public static Guid fromString(final String src) {
+        return fromBytes(decode(src, 0, src.length()), 0);
+    }
+
+    /**
+     * Decodes the string form found into the given char sequence from "<tt>from</tt>" position to "<tt>to's</tt>".
+     *
+     * @param src source char sequence.
+     * @param from from position.
+     * @param to to position.
+     * @return GUID as byte array (16 bytes), as stored by AD.
+     * @throws IllegalArgumentException if the given range is not a valid GUID string; case is not relevant.
+     */
+    public static byte[] decode(final CharSequence src, final int from, final int to) {
+        if (to - from != STRING_LENGTH) {
+            throw new IllegalArgumentException("Invalid GUID: " + STRING_LENGTH + " chars expected");
+        }
+
+        final byte[] res = new byte[16];
+        int pos = from;
+        for (int index : ORDER) {
+            if (index < 0) {
+                if (src.charAt(pos) != '-') {
+                    throw new IllegalArgumentException("Invalid GUID: '-' expected at position " + pos);
+                }
+                pos++;
+            } else {
+                final int high = digit(src.charAt(pos));
+                final int low = digit(src.charAt(pos + 1));
+                if (high < 0 || low < 0) {
+                    throw new IllegalArgumentException("Invalid GUID: hex digit expected at position " + pos);
+                }
+                res[index] = (byte) ((high << 4) | low);
+                pos += 2;
+            }
+        }
+        return res;
+    }
+
+    private static int digit(final char c) {
+        // ASCII only: Character.digit() would accept any Unicode digit
+        return c < 0x80 ? Character.digit(c, 16) : -1;
+    }
+
+    /**
+     * Appends the string form of the GUID stored into the given byte array at the given offset to the given builder,
+     * in lower case.
+     *
+     * @param bld string builder.
+     * @param src source byte array.
+     * @param offset GUID position (in bytes).
+     * @return the given string builder.
+     */
+    public static StringBuilder append(final StringBuilder bld, final byte[] src, final int offset) {
+        bld.ensureCapacity(bld.length() + STRING_LENGTH);
+        for (int index : ORDER) {
+            if (index < 0) {
+                bld.append('-');
+            } else {
+                final int b = src[offset + index];
+                bld.append(DIGITS[(b >>> 4) & 0x0F]).append(DIGITS[b & 0x0F]);
+            }
+        }
+        return bld;
+    }
+
+    private static long getLong(final ByteBuffer buff, final int pos) {
+        final long value = buff.getLong(pos);
+        return buff.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value);
+    }
+
+    /**
+     * Checks whether the given byte array holds this GUID at the given offset.
+     *
+     * @param src source byte array.
+     * @param offset GUID position (in bytes).
+     * @return <tt>true</tt> if equal; <tt>false</tt> otherwise.
+     */
+    public boolean matches(final byte[] src, final int offset) {
+        return (long) LONGS.get(src, offset) == high && (long) LONGS.get(src, offset + 8) == low;
+    }
+
+    /**
+     * Checks whether the given byte array holds this GUID.
+     *
+     * @param guid GUID as byte array (16 bytes); may be null.
+     * @return <tt>true</tt> if equal; <tt>false</tt> otherwise.
+     */
+    public boolean matches(final byte[] guid) {
+        return guid != null && guid.length == 16 && matches(guid, 0);
+    }
+
+    /**
+     * Checks whether the given buffer holds this GUID at the given position.
+     *
+     * @param buff source buffer, in any byte order.
+     * @param pos GUID position (in bytes).
+     * @return <tt>true</tt> if equal; <tt>false</tt> otherwise.
+     */
+    public boolean matches(final ByteBuffer buff, final int pos) {
+        return getLong(buff, pos) == high && getLong(buff, pos + 8) == low;
+    }
+
+    /**
+     * Serializes to byte array, as stored by AD.
+     *
+     * @return GUID as byte array (16 bytes).
+     */
+    public byte[] toByteArray() {
+        final byte[] res = new byte[16];
+        LONGS.set(res, 0, high);
+        LONGS.set(res, 8, low);
+        return res;
+    }
+
+    /**
+     * Converts to UUID.
+     *
+     * @return UUID.
+     */
+    public UUID toUUID() {
+        final long msb = (Integer.reverseBytes((int) (high >>> 32)) & 0xFFFFFFFFL) << 32
+                | (Short.reverseBytes((short) (high >>> 16)) & 0xFFFFL) << 16
+                | (Short.reverseBytes((short) high) & 0xFFFFL);
+        return new UUID(msb, low);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Guid)) {
+            return false;
+        }
+        final Guid other = (Guid) obj;
+        return high == other.high && low == other.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(high) * 31 + Long.hashCode(low);
+    }
+
+    /**
+     * Gets the string form, e.g. <tt>bf967a86-0de6-11d0-a285-00aa003049e2</tt>, in lower case.
+     *
+     * @return GUID as string.
+     */
+    @Override
+    public String toString() {
+        if (str == null) {
+            str = append(new StringBuilder(STRING_LENGTH), toByteArray(), 0).toString();
+        }
+        return str;
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.ntsd.data;
+
+/**
+ * Two-letter aliases used by SDDL strings for well-known SIDs.
+ *
+ * Most aliases stand for a fixed SID; the others stand for a relative identifier (RID) into the domain of the object
+ * or, for forest-wide groups, into the forest root domain.
+ *
+ * @see <a href="https://docs.microsoft.com/en-us/windows/win32/secauthz/sid-strings" target="_top">SID strings</a>
+ */
+public enum SidAlias {
+
+    /**
+     * Access control assistance operators.
+     */
+    AA("S-1-5-32-579"),
+    /**
+     * All applications running in an app package context.
+     */
+    AC("S-1-15-2-1"),
+    /**
+     * Anonymous logon.
+     */
+    AN("S-1-5-7"),
+    /**
+     * Account operators.
+     */
+    AO("S-1-5-32-548"),
+    /**
+     * Protected users.
+     */
+    AP(525, false),
+    /**
+     * Authenticated users.
+     */
+    AU("S-1-5-11"),
+    /**
+     * Built-in administrators.
+     */
+    BA("S-1-5-32-544"),
+    /**
+     * Built-in guests.
+     */
+    BG("S-1-5-32-546"),
+    /**
+     * Backup operators.
+     */
+    BO("S-1-5-32-551"),
+    /**
+     * Built-in users.
+     */
+    BU("S-1-5-32-545"),
+    /**
+     * Certificate publishers.
+     */
+    CA(517, false),
+    /**
+     * Creator group.
+     */
+    CG("S-1-3-1"),
+    /**
+     * Cloneable domain controllers.
+     */
+    CN(522, false),
+    /**
+     * Creator owner.
+     */
+    CO("S-1-3-0"),
+    /**
+     * Cryptographic operators.
+     */
+    CY("S-1-5-32-569"),
+    /**
+     * Domain administrators.
+     */
+    DA(512, false),
+    /**
+     * Domain computers.
+     */
+    DC(515, false),
+    /**
+     * Domain controllers.
+     */
+    DD(516, false),
+    /**
+     * Domain guests.
+     */
+    DG(514, false),
+    /**
+     * Domain users.
+     */
+    DU(513, false),
+    /**
+     * Enterprise administrators.
+     */
+    EA(519, true),
+    /**
+     * Enterprise domain controllers.
+     */
+    ED("S-1-5-9"),
+    /**
+     * Enterprise key admins.
+     */
+    EK(527, true),
+    /**
+     * Event log readers.
+     */
+    ER("S-1-5-32-573"),
+    /**
+     * Hyper-V administrators.
+     */
+    HA("S-1-5-32-578"),
+    /**
+     * High integrity level.
+     */
+    HI("S-1-16-12288"),
+    /**
+     * IIS users.
+     */
+    IS("S-1-5-32-568"),
+    /**
+     * Interactively logged-on user.
+     */
+    IU("S-1-5-4"),
+    /**
+     * Key admins.
+     */
+    KA(526, false),
+    /**
+     * Local administrator.
+     */
+    LA(500, false),
+    /**
+     * Local guest.
+     */
+    LG(501, false),
+    /**
+     * Local service account.
+     */
+    LS("S-1-5-19"),
+    /**
+     * Performance log users.
+     */
+    LU("S-1-5-32-559"),
+    /**
+     * Low integrity level.
+     */
+    LW("S-1-16-4096"),
+    /**
+     * Medium integrity level.
+     */
+    ME("S-1-16-8192"),
+    /**
+     * Medium plus integrity level.
+     */
+    MP("S-1-16-8448"),
+    /**
+     * Performance monitor users.
+     */
+    MU("S-1-5-32-558"),
+    /**
+     * Network configuration operators.
+     */
+    NO("S-1-5-32-556"),
+    /**
+     * Network service account.
+     */
+    NS("S-1-5-20"),
+    /**
+     * Network logon user.
+     */
+    NU("S-1-5-2"),
+    /**
+     * Owner rights.
+     */
+    OW("S-1-3-4"),
+    /**
+     * Group policy creator owners.
+     */
+    PA(520, false),
+    /**
+     * Printer operators.
+     */
+    PO("S-1-5-32-550"),
+    /**
+     * Principal self.
+     */
+    PS("S-1-5-10"),
+    /**
+     * Power users.
+     */
+    PU("S-1-5-32-547"),
+    /**
+     * Restricted code.
+     */
+    RC("S-1-5-12"),
+    /**
+     * Remote desktop users.
+     */
+    RD("S-1-5-32-555"),
+    /**
+     * Replicator.
+     */
+    RE("S-1-5-32-552"),
+    /**
+     * Remote management users.
+     */
+    RM("S-1-5-32-580"),
+    /**
+     * Enterprise read-only domain controllers.
+     */
+    RO(498, true),
+    /**
+     * RAS servers.
+     */
+    RS(553, false),
+    /**
+     * Alias to grant permissions to accounts that use applications compatible with operating systems previous to
+     * Windows 2000.
+     */
+    RU("S-1-5-32-554"),
+    /**
+     * Schema administrators.
+     */
+    SA(518, true),
+    /**
+     * System integrity level.
+     */
+    SI("S-1-16-16384"),
+    /**
+     * Server operators.
+     */
+    SO("S-1-5-32-549"),
+    /**
+     * Service logon user.
+     */
+    SU("S-1-5-6"),
+    /**
+     * Local system.
+     */
+    SY("S-1-5-18"),
+    /**
+     * Everyone.
+     */
+    WD("S-1-1-0"),
+    /**
+     * Write restricted code.
+     */
+    WR("S-1-5-33");
+
+    private static final SidAlias[] VALUES = values();
+
+    private final String sid;
+
+    private final long rid;
+
+    private final boolean rootDomain;
+
+    /**
+     * Private constructor for aliases of fixed SIDs.
+     *
+     * @param sid SID string form.
+     */
+    private SidAlias(final String sid) {
+        this.sid = sid;
+        this.rid = -1;
+        this.rootDomain = false;
+    }
+
+    /**
+     * Private constructor for domain relative aliases.
+     *
+     * @param rid relative identifier.
+     * @param rootDomain whether the RID is relative to the forest root domain.
+     */
+    private SidAlias(final long rid, final boolean rootDomain) {
+        this.sid = null;
+        this.rid = rid;
+        this.rootDomain = rootDomain;
+    }
+
+    /**
+     * Gets the string form of the SID for this alias.
+     *
+     * @return SID string form; null for domain relative aliases.
+     */
+    public String getSid() {
+        return sid;
+    }
+
+    /**
+     * Tells whether this alias stands for a relative identifier into a domain.
+     *
+     * @return <tt>true</tt> if domain relative; <tt>false</tt> otherwise.
+     */
+    public boolean isDomainRelative() {
+        return sid == null;
+    }
+
+    /**
+     * Tells whether this alias stands for a relative identifier into the forest root domain.
+     *
+     * @return <tt>true</tt> if relative to the forest root domain; <tt>false</tt> otherwise.
+     */
+    public boolean isRootDomainRelative() {
+        return rootDomain;
+    }
+
+    /**
+     * Gets the relative identifier for domain relative aliases.
+     *
+     * @return relative identifier; -1 for aliases of fixed SIDs.
+     */
+    public long getRid() {
+        return rid;
+    }
+
+    /**
+     * Gets the alias matching the two given characters.
+     *
+     * @param first first character.
+     * @param second second character.
+     * @return SID alias; null if not found.
+     */
+    public static SidAlias parseValue(final char first, final char second) {
+        for (SidAlias alias : VALUES) {
+            final String name = alias.name();
+            if (name.charAt(0) == first && name.charAt(1) == second) {
+                return alias;
+            }
+        }
+        return null;
+    }
+}
@@ -15,11 +15,41 @@
  */
 package net.tirasa.adsddl.ntsd.utils;
 
+import java.util.Arrays;
+
 /**
- * Utility class to be used to convert byte arrays into hexadecimal strings.
+ * Utility class to be used to convert byte arrays into hexadecimal strings, and back.
+ *
+ * Encoding and decoding are driven by lookup tables: no {@link java.util.Formatter} is involved, and bulk methods fill
+ * a single buffer in one pass.
  */
 public class Hex {
 
+    /**
+     * Upper case hex digits of every byte value: index <tt>2 * (b &amp; 0xFF)</tt> holds the high digit, the next index
+     * the low digit.
+     */
+    private static final char[] PAIRS = new char[512];
+
+    /**
+     * Value of every ASCII hex digit, either upper or lower case; -1 for any other character.
+     */
+    private static final byte[] VALUES = new byte[128];
+
+    static {
+        final char[] digits = "0123456789ABCDEF".toCharArray();
+        for (int i = 0; i < 256; i++) {
+            PAIRS[2 * i] = digits[i >>> 4];
+            PAIRS[2 * i + 1] = digits[i & 0x0F];
+        }
+
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < 16; i++) {
+            VALUES[digits[i]] = (byte) i;
+            VALUES[Character.toLowerCase(digits[i])] = (byte) i;
+        }
+    }
+
     /**
      * Gets hex string corresponding to the given byte array from "<tt>from</tt>" position to "<tt>to's</tt>"
      *
@@ -29,11 +59,9 @@ public class Hex {
      * @return hex string.
      */
     public static String get(byte[] bytes, int from, int to) {
-        final StringBuilder bld = new StringBuilder();
-        for (int i = from; i < to; i++) {
-            bld.append(Hex.get(bytes[i]));
-        }
-        return bld.toString();
+        final char[] res = new char[(to - from) * 2];
+        encode(bytes, from, to, res, 0);
+        return new String(res);
     }
 
     /**
@@ -43,25 +71,25 @@ public class Hex {
      * @return hex string.
      */
     public static String get(byte... bytes) {
-        final StringBuilder bld = new StringBuilder();
-        for (byte b : bytes) {
-            bld.append(Hex.get(b));
-        }
-        return bld.toString();
+        return get(bytes, 0, bytes.length);
     }
 
     /**
-     * Gets escaped hex string corresponding to the given bytes.
+     * Gets escaped hex string corresponding to the given bytes, e.g. to be used as value in LDAP search filters.
      *
      * @param bytes bytes.
      * @return escaped hex string
      */
     public static String getEscaped(byte... bytes) {
-        final StringBuilder bld = new StringBuilder();
+        final char[] res = new char[bytes.length * 3];
+        int pos = 0;
         for (byte b : bytes) {
-            bld.append("\\").append(Hex.get(b));
+            final int i = (b & 0xFF) << 1;
+            res[pos++] = '\\';
+            res[pos++] = PAIRS[i];
+            res[pos++] = PAIRS[i + 1];
         }
-        return bld.toString();
+        return new String(res);
     }
 
     /**
@@ -71,7 +99,98 @@ public class Hex {
      * @return hex string.
      */
     public static String get(byte b) {
-        return String.format("%02X", b);
+        return new String(PAIRS, (b & 0xFF) << 1, 2);
+    }
+
+    /**
+     * Encodes the given byte array from "<tt>from</tt>" position to "<tt>to's</tt>" into the given char array.
+     *
+     * @param bytes bytes.
+     * @param from from position.
+     * @param to to position.
+     * @param dst destination char array, with room for <tt>2 * (to - from)</tt> chars.
+     * @param pos position into the destination char array.
+     * @return position into the destination char array, right after the last char written.
+     */
+    public static int encode(final byte[] bytes, final int from, final int to, final char[] dst, final int pos) {
+        int res = pos;
+        for (int i = from; i < to; i++) {
+            final int j = (bytes[i] & 0xFF) << 1;
+            dst[res++] = PAIRS[j];
+            dst[res++] = PAIRS[j + 1];
+        }
+        return res;
+    }
+
+    /**
+     * Appends hex string corresponding to the given byte to the given builder.
+     *
+     * @param bld string builder.
+     * @param b byte.
+     * @return the given string builder.
+     */
+    public static StringBuilder append(final StringBuilder bld, final byte b) {
+        final int i = (b & 0xFF) << 1;
+        return bld.append(PAIRS[i]).append(PAIRS[i + 1]);
+    }
+
+    /**
+     * Appends hex string corresponding to the given bytes to the given builder.
+     *
+     * @param bld string builder.
+     * @param bytes bytes.
+     * @return the given string builder.
+     */
+    public static StringBuilder append(final StringBuilder bld, final byte... bytes) {
+        bld.ensureCapacity(bld.length() + bytes.length * 2);
+        for (byte b : bytes) {
+            append(bld, b);
+        }
+        return bld;
+    }
+
+    /**
+     * Appends escaped hex string corresponding to the given bytes to the given builder, e.g. when building LDAP search
+     * filters for many binary values.
+     *
+     * @param bld string builder.
+     * @param bytes bytes.
+     * @return the given string builder.
+     */
+    public static StringBuilder appendEscaped(final StringBuilder bld, final byte... bytes) {
+        bld.ensureCapacity(bld.length() + bytes.length * 3);
+        for (byte b : bytes) {
+            append(bld.append('\\'), b);
+        }
+        return bld;
+    }
+
+    /**
+     * Decodes the given hex string, either upper or lower case.
+     *
+     * @param hex hex string, made of an even number of hex digits.
+     * @return decoded bytes.
+     * @throws IllegalArgumentException if the given string is not a valid hex string.
+     */
+    public static byte[] decode(final CharSequence hex) {
+        if (hex.length() % 2 != 0) {
+            throw new IllegalArgumentException("Invalid hex string: odd length " + hex.length());
+        }
+
+        final byte[] res = new byte[hex.length() / 2];
+        for (int i = 0; i < res.length; i++) {
+            res[i] = (byte) (value(hex, 2 * i) << 4 | value(hex, 2 * i + 1));
+        }
+        return res;
+    }
+
+    private static int value(final CharSequence hex, final int pos) {
+        final char c = hex.charAt(pos);
+        final int res = c < VALUES.length ? VALUES[c] : -1;
+        if (res < 0) {
+            throw new IllegalArgumentException("Invalid hex digit '" + c + "' at position " + pos);
+        }
+        return res;
     }
 
     /**
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.ntsd.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Utility class to read and write little-endian numbers from / to a buffer.
+ *
+ * Values are read and written at absolute positions, without changing the buffer position and without allocating
+ * intermediate arrays. Buffers ordered as {@link ByteOrder#LITTLE_ENDIAN} take the fast path; any other buffer is read
+ * anyway, reversing bytes on the fly.
+ */
+public class LittleEndian {
+
+    private LittleEndian() {
+    }
+
+    /**
+     * Gets unsigned 8-bit value at the given position.
+     *
+     * @param buff buffer.
+     * @param pos absolute position.
+     * @return unsigned 8-bit value.
+     */
+    public static int getUInt8(final ByteBuffer buff, final int pos) {
+        return buff.get(pos) & 0xFF;
+    }
+
+    /**
+     * Gets unsigned 16-bit value at the given position.
+     *
+     * @param buff buffer.
+     * @param pos absolute position.
+     * @return unsigned 16-bit value.
+     */
+    public static int getUInt16(final ByteBuffer buff, final int pos) {
+        final short value = buff.getShort(pos);
+        return (buff.order() == ByteOrder.LITTLE_ENDIAN ? value : Short.reverseBytes(value)) & 0xFFFF;
+    }
+
+    /**
+     * Gets signed 32-bit value at the given position.
+     *
+     * @param buff buffer.
+     * @param pos absolute position.
+     * @return signed 32-bit value.
+     */
+    public static int getInt32(final ByteBuffer buff, final int pos) {
+        final int value = buff.getInt(pos);
+        return buff.order() == ByteOrder.LITTLE_ENDIAN ? value : Integer.reverseBytes(value);
+    }
+
+    /**
+     * Gets unsigned 32-bit value at the given position.
+     *
+     * @param buff buffer.
+     * @param pos absolute position.
+     * @return unsigned 32-bit value.
+     */
+    public static long getUInt32(final ByteBuffer buff, final int pos) {
+        return getInt32(buff, pos) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Gets unsigned 48-bit big-endian value at the given position, as used by the SID identifier authority.
+     *
+     * @param buff buffer.
+     * @param pos absolute position.
+     * @return unsigned 48-bit value.
+     */
+    public static long getUInt48BigEndian(final ByteBuffer buff, final int pos) {
+        long res = 0;
+        for (int i = 0; i < 6; i++) {
+            res = (res << 8) | (buff.get(pos + i) & 0xFF);
+        }
+        return res;
+    }
+
+    /**
+     * Puts unsigned 16-bit value at the given position.
+     *
+     * @param buff buffer.
+     * @param pos absolute position.
+     * @param value unsigned 16-bit value.
+     */
+    public static void putUInt16(final ByteBuffer buff, final int pos, final int value) {
+        final short res = (short) value;
+        buff.putShort(pos, buff.order() == ByteOrder.LITTLE_ENDIAN ? res : Short.reverseBytes(res));
+    }
+
+    /**
+     * Puts 32-bit value at the given position.
+     *
+     * @param buff buffer.
+     * @param pos absolute position.
+     * @param value 32-bit value, either signed or unsigned.
+     */
+    public static void putInt32(final ByteBuffer buff, final int pos, final int value) {
+        buff.putInt(pos, buff.order() == ByteOrder.LITTLE_ENDIAN ? value : Integer.reverseBytes(value));
+    }
+
+    /**
+     * Puts unsigned 48-bit big-endian value at the given position, as used by the SID identifier authority.
+     *
+     * @param buff buffer.
+     * @param pos absolute position.
+     * @param value unsigned 48-bit value.
+     */
+    public static void putUInt48BigEndian(final ByteBuffer buff, final int pos, final long value) {
+        for (int i = 0; i < 6; i++) {
+            buff.put(pos + i, (byte) (value >>> (40 - i * 8)));
+        }
+    }
+}
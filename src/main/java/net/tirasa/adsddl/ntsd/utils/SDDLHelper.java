@@ -18,11 +18,13 @@ package net.tirasa.adsddl.ntsd.utils;
 import java.util.Arrays;
 import java.util.List;
 import net.tirasa.adsddl.ntsd.ACE;
+import net.tirasa.adsddl.ntsd.CompactAcl;
 import net.tirasa.adsddl.ntsd.SDDL;
 import net.tirasa.adsddl.ntsd.SID;
 import net.tirasa.adsddl.ntsd.data.AceObjectFlags;
 import net.tirasa.adsddl.ntsd.data.AceRights;
 import net.tirasa.adsddl.ntsd.data.AceType;
+import net.tirasa.adsddl.ntsd.data.Guid;
 
 /**
  * SDDL helper class.
@@ -35,6 +37,21 @@ public class SDDLHelper {
      */
     public static final String UCP_OBJECT_GUID = "ab721a53-1e2f-11d0-9819-00aa0040529b";
 
+    /**
+     * User cannot change password GUID, decoded.
+     */
+    private static final Guid UCP = Guid.fromString(UCP_OBJECT_GUID);
+
+    /**
+     * Everyone.
+     */
+    private static final SID EVERYONE = SID.fromString("S-1-1-0").freeze();
+
+    /**
+     * Principal self.
+     */
+    private static final SID SELF = SID.fromString("S-1-5-10").freeze();
+
     /**
      * Check if user canot change password.
      *
@@ -49,8 +66,8 @@ public class SDDLHelper {
             final ACE ace = aces.get(i);
 
             if (ace.getType() == AceType.ACCESS_DENIED_OBJECT_ACE_TYPE
-                    && ace.getObjectFlags().getFlags().contains(AceObjectFlags.Flag.ACE_OBJECT_TYPE_PRESENT)) {
-                if (GUID.getGuidAsString(ace.getObjectType()).equals(UCP_OBJECT_GUID)) {
+                    && (ace.getObjectFlagsMask() & AceObjectFlags.Flag.ACE_OBJECT_TYPE_PRESENT.getValue()) != 0) {
+                if (ace.isObjectType(UCP)) {
 
                     final SID sid = ace.getSid();
                     if (sid.getSubAuthorities().size() == 1) {
@@ -72,6 +89,34 @@ public class SDDLHelper {
         return res;
     }
 
+    /**
+     * Check if user canot change password, scanning a packed DACL.
+     *
+     * @param dacl packed DACL.
+     * @return <tt>true</tt> if user cannot change password: <tt>false</tt> otherwise.
+     */
+    public static boolean isUserCannotChangePassword(final CompactAcl dacl) {
+        final int ucp = dacl.indexOfGuid(UCP);
+        final int everyone = dacl.indexOfSid(EVERYONE);
+        final int self = dacl.indexOfSid(SELF);
+        if (ucp == CompactAcl.NONE || (everyone == CompactAcl.NONE && self == CompactAcl.NONE)) {
+            return false;
+        }
+
+        for (int i = 0; i < dacl.getAceCount(); i++) {
+            final int sid = dacl.getSidIndex(i);
+            if (dacl.isType(i, AceType.ACCESS_DENIED_OBJECT_ACE_TYPE)
+                    && (dacl.getObjectFlags(i) & AceObjectFlags.Flag.ACE_OBJECT_TYPE_PRESENT.getValue()) != 0
+                    && dacl.getObjectTypeIndex(i) == ucp
+                    && sid != CompactAcl.NONE && (sid == everyone || sid == self)) {
+
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     /**
      * Set "User Cannot Change Password ACL".
      *
@@ -91,8 +136,8 @@ public class SDDLHelper {
 
             if ((ace.getType() == AceType.ACCESS_ALLOWED_OBJECT_ACE_TYPE
                     || ace.getType() == AceType.ACCESS_DENIED_OBJECT_ACE_TYPE)
-                    && ace.getObjectFlags().getFlags().contains(AceObjectFlags.Flag.ACE_OBJECT_TYPE_PRESENT)) {
-                if (GUID.getGuidAsString(ace.getObjectType()).equals(UCP_OBJECT_GUID)) {
+                    && (ace.getObjectFlagsMask() & AceObjectFlags.Flag.ACE_OBJECT_TYPE_PRESENT.getValue()) != 0) {
+                if (ace.isObjectType(UCP)) {
 
                     final SID sid = ace.getSid();
                     if (sid.getSubAuthorities().size() == 1) {
@@ -118,7 +163,7 @@ public class SDDLHelper {
             // prepare aces
             self = ACE.newInstance(type);
             self.setObjectFlags(new AceObjectFlags(AceObjectFlags.Flag.ACE_OBJECT_TYPE_PRESENT));
-            self.setObjectType(GUID.getGuidAsByteArray(UCP_OBJECT_GUID));
+            self.setObjectType(UCP.toByteArray());
             self.setRights(new AceRights().addOjectRight(AceRights.ObjectRight.CR));
             SID sid = SID.newInstance(NumberFacility.getBytes(0x000000000001, 6));
             sid.addSubAuthority(NumberFacility.getBytes(0));
@@ -129,7 +174,7 @@ public class SDDLHelper {
         if (all == null) {
             all = ACE.newInstance(type);
             all.setObjectFlags(new AceObjectFlags(AceObjectFlags.Flag.ACE_OBJECT_TYPE_PRESENT));
-            all.setObjectType(GUID.getGuidAsByteArray(UCP_OBJECT_GUID));
+            all.setObjectType(UCP.toByteArray());
             all.setRights(new AceRights().addOjectRight(AceRights.ObjectRight.CR));
             final SID sid = SID.newInstance(NumberFacility.getBytes(0x000000000005, 6));
             sid.addSubAuthority(NumberFacility.getBytes(0x0A));
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.unit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import net.tirasa.adsddl.ntsd.ACE;
+import net.tirasa.adsddl.ntsd.AceView;
+import net.tirasa.adsddl.ntsd.AclView;
+import net.tirasa.adsddl.ntsd.SDDL;
+import net.tirasa.adsddl.ntsd.SdView;
+import org.junit.jupiter.api.Test;
+
+public class AclViewTest extends AbstractTest {
+
+    @Test
+    public void view() throws Exception {
+        final byte[] src = Files.readAllBytes(Path.of(this.getClass().getResource(SDDL_ALL_SAMPLE).toURI()));
+        final SDDL sddl = new SDDL(src);
+
+        final ByteBuffer direct = ByteBuffer.allocateDirect(src.length);
+        direct.put(src).flip();
+        final SdView view = SdView.wrap(direct);
+
+        assertEquals(sddl.getRevision(), view.getRevision());
+        assertEquals(sddl.getOwner().toString(), view.getOwner().toString());
+        assertEquals(sddl.getGroup().toString(), view.getGroup().toString());
+        assertEquals(sddl.getOwner(), view.getOwner().materialize());
+
+        final AclView dacl = view.getDacl();
+        assertEquals(sddl.getDacl().getAceCount(), dacl.getAceCount());
+        assertEquals(sddl.getDacl().getSize(), dacl.getSize());
+        int i = 0;
+        int aceOffset = dacl.getOffset() + 8;
+        for (AceView aceView : dacl) {
+            final ACE ace = sddl.getDacl().getAce(i);
+            assertEquals(aceOffset, aceView.getOffset());
+            aceOffset += aceView.getSize();
+            assertEquals(ace.getType(), aceView.getType());
+            assertEquals(ace.getAccessMask(), aceView.getAccessMask());
+            assertEquals(ace.getRights().asUInt(), aceView.getAccessMask() & 0xFFFFFFFFL);
+            assertEquals(ace.getFlagsMask(), aceView.getFlags());
+            if (aceView.isObjectAce()) {
+                assertEquals(ace.getObjectFlagsMask(), aceView.getObjectFlags());
+                assertEquals(ace.getObjectFlags().asUInt(), aceView.getObjectFlags() & 0xFFFFFFFFL);
+            }
+            assertArrayEquals(ace.getObjectType(), aceView.getObjectType());
+            assertEquals(ace.getSid().toString(), aceView.getSid().toString());
+            assertEquals(ace, aceView.materialize());
+            i++;
+        }
+        assertEquals(dacl.getAceCount(), i);
+        assertEquals(dacl.getAce(i - 1).getOffset(), dacl.getAceOffset(i - 1));
+
+        assertEquals(sddl, view.materialize());
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.unit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import net.tirasa.adsddl.ntsd.ACE;
+import net.tirasa.adsddl.ntsd.ACL;
+import net.tirasa.adsddl.ntsd.CompactAcl;
+import net.tirasa.adsddl.ntsd.SDDL;
+import net.tirasa.adsddl.ntsd.SID;
+import net.tirasa.adsddl.ntsd.data.AceType;
+import net.tirasa.adsddl.ntsd.data.Guid;
+import net.tirasa.adsddl.ntsd.utils.GUID;
+import net.tirasa.adsddl.ntsd.utils.SDDLHelper;
+import org.junit.jupiter.api.Test;
+
+public class CompactAclTest extends AbstractTest {
+
+    @Test
+    public void compactAcl() throws Exception {
+        final byte[] all = Files.readAllBytes(Path.of(this.getClass().getResource(SDDL_ALL_SAMPLE).toURI()));
+        final SDDL sddl = new SDDL(all);
+        final ACL dacl = sddl.getDacl();
+
+        final CompactAcl compact = new CompactAcl(dacl);
+        assertEquals(dacl.getAceCount(), compact.getAceCount());
+        for (int i = 0; i < dacl.getAceCount(); i++) {
+            final ACE ace = dacl.getAce(i);
+            assertEquals(ace.getType().getValue(), compact.getType(i));
+            assertEquals(ace.getFlagsMask(), compact.getFlags(i));
+            assertEquals(ace.getAccessMask(), compact.getAccessMask(i));
+            assertEquals(ace.getObjectFlagsMask(), compact.getObjectFlags(i));
+            assertEquals(ace.getSid(), compact.getSid(compact.getSidIndex(i)));
+            assertEquals(compact.indexOfSid(ace.getSid()), compact.getSidIndex(i));
+            if (ace.getObjectType() == null) {
+                assertEquals(CompactAcl.NONE, compact.getObjectTypeIndex(i));
+            } else {
+                assertArrayEquals(ace.getObjectType(), compact.getGuid(compact.getObjectTypeIndex(i)).toByteArray());
+                assertEquals(compact.getObjectTypeIndex(i),
+                        compact.indexOfGuid(Guid.fromString(GUID.getGuidAsString(ace.getObjectType()))));
+            }
+        }
+        assertTrue(compact.getSidCount() < dacl.getAceCount());
+        assertEquals(CompactAcl.NONE, compact.indexOfSid(SID.fromString("S-1-5-21-1-2-3-4")));
+        assertEquals(-1, compact.nextAce(CompactAcl.NONE, 0));
+
+        // ACEs with no type are packed too
+        final ACL untyped = new SDDL(all).getDacl();
+        untyped.getAces().add(ACE.newInstance(null));
+        assertEquals(AceType.UNEXPECTED.getValue(), new CompactAcl(untyped).getType(untyped.getAceCount() - 1));
+
+        // snapshot: later changes are not reflected
+        dacl.getAces().remove(0);
+        assertEquals(dacl.getAceCount() + 1, compact.getAceCount());
+
+        assertEquals(SDDLHelper.isUserCannotChangePassword(sddl),
+                SDDLHelper.isUserCannotChangePassword(new CompactAcl(sddl.getDacl())));
+        SDDLHelper.userCannotChangePassword(sddl, true);
+        assertTrue(SDDLHelper.isUserCannotChangePassword(new CompactAcl(sddl.getDacl())));
+        SDDLHelper.userCannotChangePassword(sddl, false);
+        assertFalse(SDDLHelper.isUserCannotChangePassword(new CompactAcl(sddl.getDacl())));
+    }
+}
@@ -158,6 +158,24 @@ public class DACLAssertorTest {
         assertTrue(result);
     }
 
+    @Test
+    public void testDomainJoinRoleChangedDacl() throws NamingException {
+        // The same assertor must reflect changes made to its DACL between assertions: once the ACEs granting
+        // the group SID ending with "-1440" are removed, the assertion no longer holds.
+        ACL dacl = sddl.getDacl();
+        DACLAssertor assertor = new DACLAssertor(dacl, true);
+
+        List<SID> groupSIDs = new ArrayList<>();
+        for (String s : groupSIDList) {
+            groupSIDs.add(SID.parse(getSidAsByteBuffer(s).array()));
+        }
+        DomainJoinRoleAssertion djAssertion = new DomainJoinRoleAssertion(userSID, false, groupSIDs);
+        assertTrue(assertor.doAssert(djAssertion));
+
+        dacl.getAces().removeIf(ace -> ace.getSid().equals(groupSIDs.get(0)));
+        assertFalse(assertor.doAssert(djAssertion));
+    }
+
     @Test
     public void testDomainJoinRoleNegativeWithMinPermissions() throws NamingException {
         // This should test negatively because the userSID is only granted one of the permissions (create computer)
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import net.tirasa.adsddl.ntsd.ACE;
+import net.tirasa.adsddl.ntsd.CompactAcl;
+import net.tirasa.adsddl.ntsd.SDDL;
+import net.tirasa.adsddl.ntsd.data.AceFlag;
+import net.tirasa.adsddl.ntsd.data.AceRights;
+import org.junit.jupiter.api.Test;
+
+public class FingerprintTest extends AbstractTest {
+
+    @Test
+    public void fingerprint() throws Exception {
+        final byte[] all = Files.readAllBytes(Path.of(this.getClass().getResource(SDDL_ALL_SAMPLE).toURI()));
+        final byte[] daclOnly = Files.readAllBytes(Path.of(this.getClass().getResource(DACL_ONLY_SAMPLE).toURI()));
+
+        final SDDL first = new SDDL(daclOnly);
+        final SDDL second = new SDDL(daclOnly.clone());
+        assertEquals(first, second);
+        assertEquals(first.getFingerprint(), second.getFingerprint());
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(first, new SDDL(all));
+        assertNotEquals(first.getFingerprint(), new SDDL(all).getFingerprint());
+
+        final Set<SDDL> unique = new HashSet<>(List.of(new SDDL(all), first, new SDDL(all), second));
+        assertEquals(2, unique.size());
+
+        // changes through setters, rights objects and SIDs are reflected
+        final long before = second.getFingerprint();
+        second.getDacl().getAce(0).getRights().addOjectRight(AceRights.ObjectRight.WD);
+        assertNotEquals(before, second.getFingerprint());
+        assertNotEquals(first, second);
+
+        final ACE ace = first.getDacl().getAce(1);
+        final long aceBefore = ace.getFingerprint();
+        final long firstBefore = first.getFingerprint();
+        ace.getSid().addSubAuthority(new byte[] { 0x00, 0x00, 0x00, 0x01 });
+        assertNotEquals(aceBefore, ace.getFingerprint());
+        assertNotEquals(firstBefore, first.getFingerprint());
+
+        // cached fingerprints are dropped on any change, even through objects handed out after caching
+        long cached = second.getFingerprint();
+        final AceRights rights = second.getDacl().getAce(2).getRights();
+        assertEquals(cached, second.getFingerprint());
+        rights.addOjectRight(AceRights.ObjectRight.WD);
+        assertNotEquals(cached, second.getFingerprint());
+        assertEquals(new SDDL(second.toByteArray()).getFingerprint(), second.getFingerprint());
+
+        cached = second.getFingerprint();
+        second.getControlFlags()[0] ^= 0x01;
+        assertNotEquals(cached, second.getFingerprint());
+
+        cached = second.getFingerprint();
+        first.getDacl().getAces().add(second.getDacl().getAce(3));
+        second.getDacl().getAce(3).addFlag(AceFlag.NO_PROPAGATE_INHERIT_ACE);
+        assertNotEquals(cached, second.getFingerprint());
+        assertEquals(new SDDL(second.toByteArray()).getFingerprint(), second.getFingerprint());
+        assertEquals(new SDDL(first.toByteArray()).getFingerprint(), first.getFingerprint());
+    }
+
+    @Test
+    public void lookup() throws Exception {
+        final byte[] daclOnly = Files.readAllBytes(Path.of(this.getClass().getResource(DACL_ONLY_SAMPLE).toURI()));
+
+        final SDDL sddl = new SDDL(daclOnly);
+        final ACE ace = sddl.getDacl().getAce(0);
+        final ACE copy = new SDDL(daclOnly.clone()).getDacl().getAce(0);
+        final Set<ACE> aces = new HashSet<>(List.of(ace));
+        final CompactAcl snapshot = new CompactAcl(sddl.getDacl());
+
+        // equals and hashCode see changes made through rights objects, without recording them
+        ace.getRights().addOjectRight(AceRights.ObjectRight.WD);
+        assertNotEquals(copy, ace);
+        assertNotEquals(copy.hashCode(), ace.hashCode());
+        assertFalse(aces.contains(copy));
+        copy.getRights().addOjectRight(AceRights.ObjectRight.WD);
+        assertEquals(copy, ace);
+        assertEquals(copy.hashCode(), ace.hashCode());
+
+        // ... which are still detected afterwards
+        assertFalse(snapshot.isSnapshotOf(sddl.getDacl()));
+        final SDDL reparsed = new SDDL(sddl.toByteArray());
+        assertEquals(sddl, reparsed);
+        assertEquals(reparsed.getFingerprint(), sddl.getFingerprint());
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.unit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import net.tirasa.adsddl.ntsd.ACE;
+import net.tirasa.adsddl.ntsd.SDDL;
+import net.tirasa.adsddl.ntsd.data.AceRights;
+import net.tirasa.adsddl.ntsd.data.AceType;
+import org.junit.jupiter.api.Test;
+
+public class FreezeTest extends AbstractTest {
+
+    @Test
+    public void freeze() throws Exception {
+        final byte[] all = Files.readAllBytes(Path.of(this.getClass().getResource(SDDL_ALL_SAMPLE).toURI()));
+        final SDDL expected = new SDDL(all);
+
+        final SDDL sddl = new SDDL(all.clone(), true);
+        assertFalse(sddl.isFrozen());
+        assertSame(sddl, sddl.freeze());
+        assertTrue(sddl.isFrozen());
+        assertTrue(sddl.getDacl().isFrozen());
+        assertTrue(sddl.getDacl().getAce(0).isFrozen());
+        assertTrue(sddl.getOwner().isFrozen());
+
+        assertEquals(expected, sddl);
+        assertEquals(expected.hashCode(), sddl.hashCode());
+        assertEquals(expected.toString(), sddl.toString());
+        assertSame(sddl.toString(), sddl.toString());
+        assertArrayEquals(expected.toByteArray(), sddl.toByteArray());
+        assertArrayEquals(expected.toByteArray(), sddl.toByteArray());
+
+        // cached bytes are not exposed
+        sddl.toByteArray()[0] = 0x7F;
+        sddl.getControlFlags()[0] = 0x7F;
+        assertArrayEquals(expected.toByteArray(), sddl.toByteArray());
+        final ByteBuffer dst = ByteBuffer.allocate(sddl.getSize() + 4);
+        dst.position(4);
+        assertEquals(sddl.getSize(), sddl.writeTo(dst));
+        assertArrayEquals(expected.toByteArray(), Arrays.copyOfRange(dst.array(), 4, dst.position()));
+
+        // any change is rejected, changes to detached rights and object flags are ignored
+        final ACE ace = sddl.getDacl().getAce(0);
+        assertThrows(UnsupportedOperationException.class, () -> sddl.getDacl().getAces().remove(0));
+        assertThrows(UnsupportedOperationException.class, () -> sddl.getDacl().getAces().add(ace));
+        assertThrows(UnsupportedOperationException.class, () -> ace.setType(AceType.ACCESS_DENIED_ACE_TYPE));
+        assertThrows(UnsupportedOperationException.class, () -> ace.getSid().addSubAuthority(1));
+        ace.getRights().addOjectRight(AceRights.ObjectRight.WD);
+        assertEquals(expected.getDacl().getAce(0), ace);
+        assertEquals(expected, sddl);
+    }
+}
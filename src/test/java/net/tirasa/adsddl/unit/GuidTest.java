@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.unit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import net.tirasa.adsddl.ntsd.ACE;
+import net.tirasa.adsddl.ntsd.SDDL;
+import net.tirasa.adsddl.ntsd.data.Guid;
+import net.tirasa.adsddl.ntsd.utils.GUID;
+import org.junit.jupiter.api.Test;
+
+public class GuidTest extends AbstractTest {
+
+    @Test
+    public void guid() throws Exception {
+        final String str = "bf967a86-0de6-11d0-a285-00aa003049e2";
+        final byte[] bytes = GUID.getGuidAsByteArray(str);
+
+        final Guid guid = Guid.fromString(str);
+        assertEquals(str, guid.toString());
+        assertArrayEquals(bytes, guid.toByteArray());
+        assertEquals(guid, Guid.fromBytes(bytes));
+        assertEquals(guid, Guid.fromString(str.toUpperCase()));
+        assertEquals(guid.hashCode(), Guid.fromBytes(bytes).hashCode());
+        assertEquals(UUID.fromString(str), guid.toUUID());
+        assertNotEquals(guid, Guid.fromString("00299570-246d-11d0-a768-00aa006e0529"));
+        assertArrayEquals(bytes, Guid.decode("{" + str.toUpperCase() + "}", 1, 37));
+        assertEquals("[" + str, Guid.append(new StringBuilder("["), bytes, 0).toString());
+        assertThrows(IllegalArgumentException.class, () -> Guid.decode(str.replace('-', 'x'), 0, 36));
+        assertThrows(IllegalArgumentException.class, () -> Guid.decode(str, 1, 36));
+
+        // only the canonical form is accepted, unlike UUID.fromString()
+        assertThrows(IllegalArgumentException.class, () -> Guid.fromString("1-2-3-4-5"));
+        assertThrows(IllegalArgumentException.class, () -> Guid.fromString("{" + str + "}"));
+        assertThrows(IllegalArgumentException.class, () -> Guid.fromString(str.replace('9', '\u0669')));
+
+        final byte[] padded = new byte[20];
+        System.arraycopy(bytes, 0, padded, 3, 16);
+        assertTrue(guid.matches(padded, 3));
+        assertFalse(guid.matches(padded, 2));
+        assertTrue(guid.matches(bytes));
+        assertFalse(guid.matches((byte[]) null));
+        assertTrue(guid.matches(ByteBuffer.wrap(padded).order(ByteOrder.LITTLE_ENDIAN), 3));
+        assertTrue(guid.matches(ByteBuffer.wrap(padded), 3));
+        assertEquals(guid, Guid.fromBuffer(ByteBuffer.wrap(padded).order(ByteOrder.LITTLE_ENDIAN), 3));
+        assertThrows(IllegalArgumentException.class, () -> Guid.fromBytes(new byte[15]));
+
+        // object ACEs of the sample compare with no conversion
+        final byte[] all = Files.readAllBytes(Path.of(this.getClass().getResource(SDDL_ALL_SAMPLE).toURI()));
+        for (ACE ace : new SDDL(all).getDacl().getAces()) {
+            if (ace.getObjectType() != null) {
+                final Guid objectType = Guid.fromString(GUID.getGuidAsString(ace.getObjectType()));
+                assertTrue(ace.isObjectType(objectType));
+                assertEquals(GUID.getGuidAsString(ace.getObjectType()), objectType.toString());
+            }
+            assertFalse(ace.isInheritedObjectType(Guid.fromString("00000000-0000-0000-0000-000000000000")));
+        }
+    }
+}
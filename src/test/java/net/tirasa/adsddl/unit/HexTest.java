@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.unit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import net.tirasa.adsddl.ntsd.SDDL;
+import net.tirasa.adsddl.ntsd.SdView;
+import net.tirasa.adsddl.ntsd.utils.Hex;
+import org.junit.jupiter.api.Test;
+
+public class HexTest extends AbstractTest {
+
+    @Test
+    public void hex() throws Exception {
+        final byte[] all = Files.readAllBytes(Path.of(this.getClass().getResource(SDDL_ALL_SAMPLE).toURI()));
+
+        final StringBuilder expected = new StringBuilder();
+        final StringBuilder escaped = new StringBuilder();
+        for (byte b : all) {
+            expected.append(String.format("%02X", b));
+            escaped.append('\\').append(String.format("%02X", b));
+        }
+        assertEquals(expected.toString(), Hex.get(all));
+        assertEquals(expected.toString(), Hex.append(new StringBuilder(), all).toString());
+        assertEquals(expected.substring(4, 10), Hex.get(all, 2, 5));
+        assertEquals(escaped.toString(), Hex.getEscaped(all));
+        assertEquals("(x=" + escaped + ")", Hex.appendEscaped(new StringBuilder("(x="), all).append(')').toString());
+
+        assertArrayEquals(all, Hex.decode(Hex.get(all)));
+        assertArrayEquals(all, Hex.decode(Hex.get(all).toLowerCase()));
+        assertArrayEquals(new byte[0], Hex.decode(""));
+        assertThrows(IllegalArgumentException.class, () -> Hex.decode("0A0"));
+        assertThrows(IllegalArgumentException.class, () -> Hex.decode("0G"));
+        assertThrows(IllegalArgumentException.class, () -> Hex.decode("0\u00e9"));
+
+        // identifier authorities beyond 32 bits are rendered as hex
+        final SDDL sddl = new SDDL(all);
+        sddl.getOwner().setIdentifierAuthority(new byte[] { 0x00, 0x01, 0x02, (byte) 0xAB, 0x04, 0x05 });
+        assertEquals("S-1-000102AB0405", sddl.getOwner().toString().substring(0, 16));
+        assertEquals(sddl.getOwner().toString(), SdView.wrap(sddl.toByteArray()).getOwner().toString());
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.unit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Set;
+import net.tirasa.adsddl.ntsd.ACL;
+import net.tirasa.adsddl.ntsd.SDDL;
+import net.tirasa.adsddl.ntsd.SdView;
+import net.tirasa.adsddl.ntsd.data.AceFlag;
+import net.tirasa.adsddl.ntsd.data.AceType;
+import org.junit.jupiter.api.Test;
+
+public class LazyParseTest extends AbstractTest {
+
+    @Test
+    public void lazy() throws Exception {
+        final byte[] src = Files.readAllBytes(Path.of(this.getClass().getResource(SDDL_ALL_SAMPLE).toURI()));
+        final SDDL eager = new SDDL(src);
+
+        final SDDL lazy = new SDDL(src, true);
+        assertEquals(eager.getDacl(), lazy.getDacl());
+        assertEquals(eager.getOwner(), lazy.getOwner());
+        assertEquals(eager, lazy);
+        assertArrayEquals(eager.toByteArray(), new SDDL(src, true).toByteArray());
+    }
+
+    @Test
+    public void aceIndex() throws Exception {
+        final byte[] src = Files.readAllBytes(Path.of(this.getClass().getResource(SDDL_ALL_SAMPLE).toURI()));
+        final ACL eager = new SDDL(src).getDacl();
+        final Set<AceType> allowed = EnumSet.of(
+                AceType.ACCESS_ALLOWED_ACE_TYPE, AceType.ACCESS_ALLOWED_OBJECT_ACE_TYPE);
+
+        // headers are read without decoding ACEs
+        final ACL lazy = new SDDL(src, true).getDacl();
+        assertEquals(eager.getAceCount(), lazy.getAceCount());
+        int explicit = 0;
+        for (int i = lazy.nextExplicitAce(allowed, 0); i >= 0; i = lazy.nextExplicitAce(allowed, i + 1)) {
+            assertTrue(allowed.contains(eager.getAce(i).getType()));
+            assertFalse(eager.getAce(i).hasFlag(AceFlag.INHERITED_ACE));
+            assertEquals(eager.getAce(i), lazy.getAce(i));
+            explicit++;
+        }
+        assertTrue(explicit > 0);
+        for (int i = 0; i < eager.getAceCount(); i++) {
+            assertEquals(eager.getAce(i).getType(), lazy.getAceType(i));
+            assertEquals(eager.getAce(i).getFlagsMask(), lazy.getAceFlags(i));
+        }
+        assertEquals(-1, lazy.nextAce(EnumSet.of(AceType.SYSTEM_AUDIT_ACE_TYPE), 0));
+
+        // partially decoded ACLs are serialized verbatim, then fully decoded on changes
+        final byte[] canonical = new SDDL(src).toByteArray();
+        assertArrayEquals(canonical, new SDDL(src, true).toByteArray());
+        final SDDL partial = new SDDL(src, true);
+        partial.getDacl().getAce(partial.getDacl().nextAce(allowed, 0));
+        assertArrayEquals(canonical, partial.toByteArray());
+        partial.getDacl().getAces().remove(0);
+        final SDDL removed = new SDDL(src);
+        removed.getDacl().getAces().remove(0);
+        assertEquals(removed, partial);
+        assertArrayEquals(removed.toByteArray(), partial.toByteArray());
+        assertEquals(eager, new SDDL(src, true).freeze().getDacl());
+
+        // AceSize fields are checked while indexing
+        final byte[] broken = src.clone();
+        final int firstAce = SdView.wrap(broken).getDacl().getAceOffset(0);
+        broken[firstAce + 2] = 4;
+        broken[firstAce + 3] = 0;
+        assertThrows(IllegalArgumentException.class, () -> new SDDL(broken, true).getDacl());
+    }
+}
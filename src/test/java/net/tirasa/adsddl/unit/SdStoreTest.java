@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.unit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import net.tirasa.adsddl.ntsd.SDDL;
+import net.tirasa.adsddl.ntsd.SdStore;
+import net.tirasa.adsddl.ntsd.SidPool;
+import org.junit.jupiter.api.Test;
+
+public class SdStoreTest extends AbstractTest {
+
+    @Test
+    public void sdStore() throws Exception {
+        final byte[] all = Files.readAllBytes(Path.of(this.getClass().getResource(SDDL_ALL_SAMPLE).toURI()));
+        final byte[] daclOnly = Files.readAllBytes(Path.of(this.getClass().getResource(DACL_ONLY_SAMPLE).toURI()));
+
+        final SdStore store = new SdStore(new SidPool());
+        final int allId = store.add(all);
+        final int daclOnlyId = store.add(daclOnly);
+        assertNotEquals(allId, daclOnlyId);
+
+        // same content, either as the very same bytes, as canonical bytes or as parsed instance
+        assertEquals(allId, store.add(all.clone()));
+        assertEquals(allId, store.add(new SDDL(all).toByteArray()));
+        assertEquals(allId, store.add(new SDDL(all)));
+        assertEquals(allId, store.find(all));
+        assertEquals(2, store.size());
+        assertEquals(4, store.getReferenceCount(allId));
+        assertEquals(5, store.getReferenceCount());
+
+        assertSame(store.get(allId), store.get(allId));
+        assertEquals(new SDDL(all), store.get(allId));
+        assertArrayEquals(new SDDL(all).toByteArray(), store.getBytes(allId));
+
+        assertThrows(IllegalArgumentException.class, () -> store.add(new byte[] { 0x01, 0x00 }));
+
+        // ids are dropped with their last reference, then reused
+        assertEquals(0, store.release(daclOnlyId));
+        assertEquals(-1, store.find(daclOnly));
+        assertThrows(IllegalArgumentException.class, () -> store.get(daclOnlyId));
+        assertEquals(1, store.size());
+        assertEquals(daclOnlyId, store.add(daclOnly));
+
+        // reserved bytes are not part of the canonical form
+        final byte[] reserved = daclOnly.clone();
+        final int daclOffset = ByteBuffer.wrap(reserved).order(ByteOrder.LITTLE_ENDIAN).getInt(16);
+        reserved[daclOffset + 1] = 0x5A;
+        reserved[daclOffset + 6] = 0x5A;
+        assertEquals(daclOnlyId, store.find(reserved));
+        assertEquals(daclOnlyId, store.add(reserved));
+        assertEquals(daclOnlyId, store.add(new SDDL(reserved)));
+        assertEquals(2, store.size());
+        assertArrayEquals(new SDDL(daclOnly).toByteArray(), store.getBytes(daclOnlyId));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.unit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import net.tirasa.adsddl.ntsd.SDDL;
+import net.tirasa.adsddl.ntsd.SddlBatch;
+import net.tirasa.adsddl.ntsd.SidPool;
+import org.junit.jupiter.api.Test;
+
+public class SddlBatchTest extends AbstractTest {
+
+    @Test
+    public void batch() throws Exception {
+        final byte[] all = Files.readAllBytes(Path.of(this.getClass().getResource(SDDL_ALL_SAMPLE).toURI()));
+        final byte[] daclOnly = Files.readAllBytes(Path.of(this.getClass().getResource(DACL_ONLY_SAMPLE).toURI()));
+
+        final List<byte[]> src = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            src.add(i % 3 == 0 ? all : daclOnly);
+        }
+
+        final byte[] allExpected = new SDDL(all).toByteArray();
+        final byte[] daclOnlyExpected = new SDDL(daclOnly).toByteArray();
+
+        final List<SDDL> parsed = SddlBatch.parseAll(src);
+        assertEquals(src.size(), parsed.size());
+        for (int i = 0; i < src.size(); i++) {
+            assertArrayEquals(i % 3 == 0 ? allExpected : daclOnlyExpected, parsed.get(i).toByteArray());
+        }
+
+        src.set(500, new byte[] { 0x01 });
+        src.set(700, new byte[] { 0x01 });
+        for (int i = 0; i < 20; i++) {
+            // always the lowest invalid index, whatever the task scheduling
+            assertEquals("Invalid security descriptor at index 500",
+                    assertThrows(IllegalArgumentException.class, () -> SddlBatch.parseAll(src)).getMessage());
+        }
+
+        final SddlBatch.Result result = new SddlBatch(
+                new ForkJoinPool(4), SddlBatch.ErrorMode.COLLECT, new SidPool()).parse(src);
+        assertTrue(result.hasErrors());
+        assertEquals(List.of(500, 700), new ArrayList<>(result.getErrors().keySet()));
+        assertNull(result.getDescriptors().get(500));
+        assertArrayEquals(allExpected, result.getDescriptors().get(999).toByteArray());
+    }
+}
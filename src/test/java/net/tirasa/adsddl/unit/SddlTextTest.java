@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import net.tirasa.adsddl.ntsd.SDDL;
+import net.tirasa.adsddl.ntsd.SID;
+import net.tirasa.adsddl.ntsd.SddlTextParser;
+import net.tirasa.adsddl.ntsd.SddlTextWriter;
+import net.tirasa.adsddl.ntsd.data.AceRights;
+import net.tirasa.adsddl.ntsd.data.AceType;
+import org.junit.jupiter.api.Test;
+
+public class SddlTextTest extends AbstractTest {
+
+    @Test
+    public void sddlText() throws Exception {
+        final SID domain = SID.fromString("S-1-5-21-3750063493-4261579475-3088784596");
+        final SddlTextParser parser = new SddlTextParser(domain);
+
+        final SDDL sddl = parser.parse("O:DAG:DAD:PAI(A;CI;RPWPCCDCLCSWRCWDWOGA;;;BA)(A;;0x20094;;;SY)"
+                + "(OA;;CR;ab721a53-1e2f-11d0-9819-00aa0040529b;;PS)S:AI(AU;SA;WP;;;WD)");
+        assertEquals(domain.addSubAuthority(512), sddl.getOwner());
+        assertEquals(sddl.getOwner(), sddl.getGroup());
+        assertEquals(3, sddl.getDacl().getAceCount());
+        assertEquals(SID.fromString("S-1-5-32-544"), sddl.getDacl().getAce(0).getSid());
+        assertEquals(0x100E003F, sddl.getDacl().getAce(0).getAccessMask());
+        assertEquals(0x20094, sddl.getDacl().getAce(1).getAccessMask());
+        assertEquals(AceType.ACCESS_ALLOWED_OBJECT_ACE_TYPE, sddl.getDacl().getAce(2).getType());
+        assertTrue(sddl.getDacl().getAce(2).getRights().hasObjectRight(AceRights.ObjectRight.CR));
+        assertEquals(1, sddl.getSacl().getAceCount());
+        assertEquals(sddl, new SDDL(sddl.toByteArray()));
+        // SDDL.toString() always reports ACLs as protected
+        final SDDL reparsed = parser.parse(sddl.toString());
+        assertEquals(sddl.getDacl(), reparsed.getDacl());
+        assertEquals(sddl.getSacl(), reparsed.getSacl());
+        assertEquals(sddl.getOwner(), reparsed.getOwner());
+
+        final byte[] src = Files.readAllBytes(Path.of(this.getClass().getResource(DACL_ONLY_SAMPLE).toURI()));
+        final SDDL sample = new SDDL(src);
+        assertEquals(sample.getDacl(), parser.parse(sample.toString()).getDacl());
+        assertEquals(sample.toString(), parser.parse(sample.toString()).toString());
+
+        assertThrows(IllegalArgumentException.class, () -> new SddlTextParser().parseSid("DA"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("O:XXD:"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("D:(A;;ZZ;;;BA)"));
+        assertThrows(IllegalArgumentException.class,
+                () -> parser.parse("D:(A;;RP;ab721a53-1e2f-11d0-9819-00aa0040529b;;BA)"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("D:(A;;RP;;;BA"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("O:BAO:BA"));
+    }
+
+    @Test
+    public void sddlTextWriter() throws Exception {
+        final SID domain = SID.fromString("S-1-5-21-3750063493-4261579475-3088784596");
+        final SddlTextParser parser = new SddlTextParser(domain);
+        final SddlTextWriter writer = new SddlTextWriter(domain);
+
+        final String text = "O:DAG:DUD:PAI(A;CI;CCDCLCSWRPWPRCWDWOGA;;;BA)(A;;0x120094;;;SY)(A;OICIID;FA;;;AU)"
+                + "(OA;;CR;ab721a53-1e2f-11d0-9819-00aa0040529b;;PS)"
+                + "(OA;CIIO;RPWP;bf967a7f-0de6-11d0-a285-00aa003049e2;bf967aba-0de6-11d0-a285-00aa003049e2;"
+                + "S-1-5-21-1-2-3-1105)S:AI(AU;SA;WP;;;WD)";
+        final SDDL sddl = parser.parse(text);
+        assertEquals(text, writer.write(sddl));
+        assertEquals(text, writer.write(sddl, (Appendable) new StringBuilder()).toString());
+        assertEquals(text, writer.write(sddl, new StringWriter()).toString());
+        assertEquals(sddl, parser.parse(writer.write(sddl)));
+
+        // flags only when set, missing or null ACLs, domain relative aliases only when resolvable
+        assertEquals("D:(A;;RP;;;WD)", writer.write(parser.parse("D:(A;;RP;;;WD)")));
+        assertEquals("D:ARNO_ACCESS_CONTROL", writer.write(parser.parse("D:ARNO_ACCESS_CONTROL")));
+        assertEquals("O:S-1-5-21-3750063493-4261579475-3088784596-512",
+                new SddlTextWriter().write(parser.parse("O:DA")));
+        final SDDL wide = parser.parse("O:S-1-0x123456789ABC-1");
+        assertEquals("S-1-123456789ABC-1", wide.getOwner().toString());
+        assertEquals("O:S-1-0x123456789ABC-1", writer.write(wide));
+        assertEquals("O:S-1-0x123456789ABC-1", writer.write(wide, new StringWriter()).toString());
+
+        // output reads back, unlike SDDL.toString()
+        final byte[] all = Files.readAllBytes(Path.of(this.getClass().getResource(SDDL_ALL_SAMPLE).toURI()));
+        final SDDL sample = new SDDL(all);
+        final String str = writer.write(sample);
+        assertFalse(str.contains("["));
+        assertTrue(writer.estimateLength(sample) >= str.length());
+        final SDDL reparsed = parser.parse(str);
+        assertEquals(sample.getOwner(), reparsed.getOwner());
+        assertEquals(sample.getDacl(), reparsed.getDacl());
+        // the parser gives object flags to OA and OD ACEs only, hence SACLs are compared as text
+        assertEquals(str, writer.write(reparsed));
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.unit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import net.tirasa.adsddl.ntsd.ACE;
+import net.tirasa.adsddl.ntsd.ACL;
+import net.tirasa.adsddl.ntsd.SDDL;
+import net.tirasa.adsddl.ntsd.SID;
+import net.tirasa.adsddl.ntsd.SdView;
+import net.tirasa.adsddl.ntsd.SidPool;
+import net.tirasa.adsddl.ntsd.data.AceFlag;
+import net.tirasa.adsddl.ntsd.data.AceRights;
+import net.tirasa.adsddl.ntsd.data.AceType;
+import net.tirasa.adsddl.ntsd.utils.GUID;
+import org.junit.jupiter.api.Test;
+
+public class SerializationTest extends AbstractTest {
+
+    @Test
+    public void peek() throws Exception {
+        final byte[] all = Files.readAllBytes(Path.of(this.getClass().getResource(SDDL_ALL_SAMPLE).toURI()));
+        final SDDL sddl = new SDDL(all);
+
+        // peek at a descriptor stored after some other data, checking that the buffer is left untouched
+        final ByteBuffer buff = ByteBuffer.allocate(all.length + 7);
+        buff.position(7);
+        buff.put(all);
+        buff.position(7);
+
+        assertEquals(sddl.getOwner(), SDDL.peekOwner(buff));
+        assertEquals(sddl.getGroup(), SDDL.peekGroup(buff));
+        assertEquals(SdView.wrap(all).getControlFlags(), SDDL.peekControlFlags(buff));
+        assertEquals(sddl.getDacl().getAceCount(), SDDL.peekAceCount(buff));
+        assertTrue(SDDL.hasSacl(buff));
+        assertTrue(SDDL.hasDacl(buff));
+        assertEquals(7, buff.position());
+
+        final ByteBuffer daclOnly = ByteBuffer.wrap(
+                Files.readAllBytes(Path.of(this.getClass().getResource(DACL_ONLY_SAMPLE).toURI())));
+        assertNull(SDDL.peekOwner(daclOnly));
+        assertFalse(SDDL.hasSacl(daclOnly));
+        assertEquals(new SDDL(daclOnly.array()).getDacl().getAceCount(), SDDL.peekAceCount(daclOnly));
+    }
+
+    @Test
+    public void writeTo() throws Exception {
+        final byte[] all = Files.readAllBytes(Path.of(this.getClass().getResource(SDDL_ALL_SAMPLE).toURI()));
+        final SDDL sddl = new SDDL(all);
+        final byte[] expected = sddl.toByteArray();
+
+        // direct, big-endian buffer, not starting at position 0
+        final ByteBuffer buff = ByteBuffer.allocateDirect(expected.length + 10);
+        buff.position(3);
+        assertEquals(expected.length, sddl.writeTo(buff));
+        assertEquals(3 + expected.length, buff.position());
+
+        final byte[] written = new byte[expected.length];
+        buff.position(3);
+        buff.get(written);
+        assertArrayEquals(expected, written);
+        assertEquals(sddl, new SDDL(written));
+
+        final ACE ace = sddl.getDacl().getAce(0);
+        final ByteBuffer small = ByteBuffer.allocate(ace.getSize() - 1);
+        assertThrows(BufferOverflowException.class, () -> ace.writeTo(small));
+        assertEquals(0, small.position());
+
+        assertArrayEquals(new SDDL(all, true).toByteArray(), expected);
+    }
+
+    @Test
+    public void cachedSize() throws Exception {
+        final byte[] src = Files.readAllBytes(Path.of(this.getClass().getResource(DACL_ONLY_SAMPLE).toURI()));
+        final SDDL sddl = new SDDL(src);
+        final ACL dacl = sddl.getDacl();
+        final int size = dacl.getSize();
+        assertEquals(size, dacl.toByteArray().length);
+
+        // list changes
+        final ACE ace = dacl.getAce(0);
+        dacl.getAces().add(ace);
+        assertEquals(size + ace.getSize(), dacl.getSize());
+        dacl.getAces().remove(dacl.getAceCount() - 1);
+        assertEquals(size, dacl.getSize());
+
+        // ACE and SID changes
+        ace.setObjectType(GUID.getGuidAsByteArray("bf967a7f-0de6-11d0-a285-00aa003049e2"));
+        final int withObjectType = dacl.getSize();
+        assertEquals(withObjectType, dacl.toByteArray().length);
+        ace.getSid().addSubAuthority(1);
+        assertEquals(withObjectType + 4, dacl.getSize());
+        assertEquals(dacl.getSize(), dacl.toByteArray().length);
+        assertEquals(sddl.getSize(), sddl.toByteArray().length);
+        dacl.getAces().clear();
+        assertEquals(8, dacl.getSize());
+
+        // ACE held by two ACLs
+        final ACL other = new SDDL(src).getDacl();
+        final int otherSize = other.getSize();
+        final ACE shared = other.getAce(0);
+        dacl.getAces().add(shared);
+        shared.getSid().addSubAuthority(7);
+        assertEquals(otherSize + 4, other.getSize());
+        assertEquals(other.getSize(), other.toByteArray().length);
+        assertEquals(8 + shared.getSize(), dacl.getSize());
+        dacl.getAces().clear();
+        shared.getSid().addSubAuthority(8);
+        assertEquals(otherSize + 8, other.getSize());
+        assertEquals(8, dacl.getSize());
+
+        // one mutable SID shared by many ACEs, none of them referenced back by the SID
+        final SID trustee = SID.fromString("S-1-5-21-3750063493-4261579475-3088784596-1105");
+        final ACL many = new SDDL(src).getDacl();
+        many.getAces().clear();
+        for (int i = 0; i < 10_000; i++) {
+            final ACE granted = ACE.newInstance(AceType.ACCESS_ALLOWED_ACE_TYPE);
+            granted.setSid(trustee);
+            many.getAces().add(granted);
+        }
+        final int manySize = many.getSize();
+        trustee.addSubAuthority(7);
+        assertEquals(manySize + 4 * 10_000, many.getSize());
+
+        // trustee SID not pooled, as the pool is full
+        final ACL pooled = new SDDL(src, false, new SidPool(1)).getDacl();
+        final int pooledSize = pooled.getSize();
+        final SID unpooled = pooled.getAces().stream().map(ACE::getSid).
+                filter(sid -> !sid.isFrozen()).findFirst().orElseThrow();
+        unpooled.addSubAuthority(7);
+        assertEquals(pooledSize + 4, pooled.getSize());
+        assertEquals(pooled.getSize(), pooled.toByteArray().length);
+
+        // size limit
+        final ACE big = ACE.newInstance(AceType.ACCESS_ALLOWED_ACE_TYPE);
+        big.setSid(SID.fromString("S-1-5-32-544"));
+        big.setApplicationData(new byte[4096 - big.getSize()]);
+        for (int i = 0; i < 15; i++) {
+            dacl.getAces().add(big);
+        }
+        assertTrue(dacl.isNearSizeLimit());
+        dacl.getAces().add(big);
+        assertThrows(IllegalStateException.class, () -> dacl.toByteArray());
+    }
+
+    @Test
+    public void passthrough() throws Exception {
+        final byte[] src = Files.readAllBytes(Path.of(this.getClass().getResource(DACL_ONLY_SAMPLE).toURI()));
+        final byte[] expected = new SDDL(src.clone()).toByteArray();
+
+        final byte[] copy = src.clone();
+        final SDDL sddl = new SDDL(copy);
+        assertArrayEquals(expected, sddl.toByteArray());
+
+        // unchanged ACEs are copied from a private copy of the source: later changes to the given array must not leak
+        final SDDL lazy = new SDDL(copy, true);
+        final SDDL validated = SDDL.tryParse(copy).getSddl();
+        final int daclOffset = SdView.wrap(copy).getOffsetDACL();
+        final int lastAce = daclOffset + sddl.getDacl().getSize() - sddl.getDacl().getAce(
+                sddl.getDacl().getAceCount() - 1).getSize();
+        copy[lastAce + 1] ^= 0x01;
+        assertArrayEquals(expected, sddl.toByteArray());
+        assertArrayEquals(expected, lazy.toByteArray());
+        assertArrayEquals(expected, validated.toByteArray());
+
+        // lazily parsed ACEs are copied without being decoded: the trustee SID of the first ACE is made to overflow
+        // AceSize, which would show in the output if the ACE was decoded and encoded again
+        final byte[] overflowing = src.clone();
+        final ACE head = sddl.getDacl().getAce(0);
+        overflowing[daclOffset + 8 + head.getSize() - head.getSid().getSize() + 1]++;
+        assertArrayEquals(overflowing, new SDDL(overflowing, true).toByteArray());
+
+        // changes through setters, rights objects and SIDs are encoded
+        final ACE first = sddl.getDacl().getAce(0);
+        assertFalse(first.getRights().hasObjectRight(AceRights.ObjectRight.WD));
+        first.getRights().addOjectRight(AceRights.ObjectRight.WD);
+        SDDL reparsed = new SDDL(sddl.toByteArray());
+        assertTrue(reparsed.getDacl().getAce(0).getRights().hasObjectRight(AceRights.ObjectRight.WD));
+
+        sddl.getDacl().getAce(1).getSid().setRevision((byte) 0x02);
+        reparsed = new SDDL(sddl.toByteArray());
+        assertEquals(0x02, reparsed.getDacl().getAce(1).getSid().getRevision());
+
+        sddl.getDacl().getAces().remove(2);
+        reparsed = new SDDL(sddl.toByteArray());
+        assertEquals(sddl.getDacl(), reparsed.getDacl());
+        assertEquals(expected.length - new SDDL(src).getDacl().getAce(2).getSize(), sddl.toByteArray().length);
+
+        final List<AceFlag> flags = sddl.getDacl().getAce(3).getFlags();
+        flags.add(AceFlag.NO_PROPAGATE_INHERIT_ACE);
+        assertTrue(flags.contains(AceFlag.NO_PROPAGATE_INHERIT_ACE));
+        assertTrue(new SDDL(sddl.toByteArray()).getDacl().getAce(3).hasFlag(AceFlag.NO_PROPAGATE_INHERIT_ACE));
+        flags.remove(AceFlag.NO_PROPAGATE_INHERIT_ACE);
+        assertFalse(new SDDL(sddl.toByteArray()).getDacl().getAce(3).hasFlag(AceFlag.NO_PROPAGATE_INHERIT_ACE));
+    }
+}
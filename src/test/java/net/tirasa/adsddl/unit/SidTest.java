@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.unit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import net.tirasa.adsddl.ntsd.SDDL;
+import net.tirasa.adsddl.ntsd.SID;
+import net.tirasa.adsddl.ntsd.SidPool;
+import org.junit.jupiter.api.Test;
+
+public class SidTest extends AbstractTest {
+
+    @Test
+    public void sid() throws Exception {
+        final byte[] src = Files.readAllBytes(Path.of(this.getClass().getResource(SDDL_ALL_SAMPLE).toURI()));
+        final SID owner = new SDDL(src).getOwner();
+
+        final SID copy = SID.parse(owner.toByteArray());
+        assertEquals(owner, copy);
+        assertEquals(owner.hashCode(), copy.hashCode());
+        assertEquals(0, owner.compareTo(copy));
+        assertEquals(owner.toString(), copy.toString());
+        assertArrayEquals(owner.getIdentifierAuthority(), copy.getIdentifierAuthority());
+
+        final SID sid = SID.newInstance(new byte[] { 0x00, 0x00, 0x00, 0x00, 0x00, 0x05 })
+                .addSubAuthority(21).addSubAuthority(0xFFFFFFFFL);
+        assertEquals("S-1-5-21-4294967295", sid.toString());
+        assertEquals(0xFFFFFFFFL, sid.getSubAuthority(1));
+        assertArrayEquals(new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF },
+                sid.getSubAuthorities().get(1));
+        assertEquals(sid, SID.parse(sid.toByteArray()));
+
+        final SID shorter = SID.newInstance(new byte[] { 0x00, 0x00, 0x00, 0x00, 0x00, 0x05 }).addSubAuthority(21);
+        assertTrue(shorter.compareTo(sid) < 0);
+        assertTrue(sid.compareTo(shorter) > 0);
+        assertEquals("S-1-5-21-4294967295-500", sid.addSubAuthority(500).toString());
+
+        assertEquals(sid, SID.fromString("S-1-5-21-4294967295-500"));
+        assertEquals(owner, SID.fromString(owner.toString()));
+        assertEquals(owner.toString(), SID.fromString(owner.toString()).appendTo(new StringBuilder()).toString());
+        final SID hex = SID.fromString("S-1-0x123456789ABC-1");
+        assertEquals(0x123456789ABCL, hex.getIdentifierAuthorityValue());
+        assertEquals(hex, SID.fromString(hex.toString()));
+        assertThrows(IllegalArgumentException.class, () -> SID.fromString("S-1-5-21-4294967296"));
+
+        // revision round trip, even after the string form has been cached
+        final SID revised = SID.fromString("S-1-5-32-544");
+        assertEquals("S-1-5-32-544", revised.toString());
+        revised.setRevision((byte) 0x02);
+        assertEquals("S-2-5-32-544", revised.toString());
+        assertEquals(0x02, SID.fromString(revised.toString()).getRevision());
+        assertEquals(0x02, SID.fromString(revised.appendTo(new StringBuilder())).getRevision());
+        assertThrows(IllegalArgumentException.class, () -> SID.fromString("S-1-5-21-"));
+        assertThrows(IllegalArgumentException.class,
+                () -> SID.fromString("S-1-5-1-2-3-4-5-6-7-8-9-10-11-12-13-14-15-16"));
+    }
+
+    @Test
+    public void sidPool() throws Exception {
+        final byte[] src = Files.readAllBytes(Path.of(this.getClass().getResource(DACL_ONLY_SAMPLE).toURI()));
+        final SidPool pool = new SidPool();
+
+        final SDDL first = new SDDL(src, false, pool);
+        final SDDL second = new SDDL(src, false, pool);
+        assertEquals(new SDDL(src).getDacl(), first.getDacl());
+        assertArrayEquals(new SDDL(src).toByteArray(), first.toByteArray());
+
+        final int distinct = pool.size();
+        assertTrue(distinct > 0);
+        assertTrue(distinct < first.getDacl().getAceCount());
+        assertEquals(distinct, pool.getMissCount());
+        assertEquals(2L * first.getDacl().getAceCount() - distinct, pool.getHitCount());
+
+        final SID sid = first.getDacl().getAce(0).getSid();
+        assertSame(sid, second.getDacl().getAce(0).getSid());
+        assertSame(sid, SID.parse(sid.toByteArray(), pool));
+        assertSame(sid, pool.intern(SID.parse(sid.toByteArray())));
+        assertTrue(sid.isFrozen());
+        assertThrows(UnsupportedOperationException.class, () -> sid.addSubAuthority(1));
+
+        // revision is part of the identity, both when pooling and when comparing
+        final SID revised = SID.parse(sid.toByteArray()).setRevision((byte) 0x02);
+        assertNotEquals(sid, revised);
+        assertNotEquals(0, sid.compareTo(revised));
+        final SID interned = pool.intern(revised);
+        assertNotSame(sid, interned);
+        assertEquals(revised, interned);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2015 Tirasa (info@tirasa.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tirasa.adsddl.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import net.tirasa.adsddl.ntsd.ParseResult;
+import net.tirasa.adsddl.ntsd.SDDL;
+import org.junit.jupiter.api.Test;
+
+public class TryParseTest extends AbstractTest {
+
+    @Test
+    public void tryParse() throws Exception {
+        final byte[] src = Files.readAllBytes(Path.of(this.getClass().getResource(SDDL_ALL_SAMPLE).toURI()));
+
+        final ParseResult valid = SDDL.tryParse(src);
+        assertTrue(valid.isValid());
+        assertNull(valid.getCode());
+        assertEquals(-1, valid.getPosition());
+        assertEquals(new SDDL(src), valid.getSddl());
+
+        assertEquals(ParseResult.Code.TRUNCATED_HEADER, SDDL.tryParse(new byte[10]).getCode());
+        assertEquals(ParseResult.Code.TRUNCATED_HEADER, SDDL.tryParse(null).getCode());
+
+        final byte[] revision = src.clone();
+        revision[0] = 2;
+        assertEquals(ParseResult.Code.INVALID_REVISION, SDDL.tryParse(revision).getCode());
+
+        final ByteBuffer buff = ByteBuffer.wrap(src).order(ByteOrder.LITTLE_ENDIAN);
+        final int daclOffset = buff.getInt(16);
+
+        final byte[] offset = src.clone();
+        ByteBuffer.wrap(offset).order(ByteOrder.LITTLE_ENDIAN).putInt(16, src.length);
+        ParseResult result = SDDL.tryParse(offset);
+        assertEquals(ParseResult.Code.INVALID_OFFSET, result.getCode());
+        assertEquals(16, result.getPosition());
+
+        final byte[] aclSize = src.clone();
+        ByteBuffer.wrap(aclSize).order(ByteOrder.LITTLE_ENDIAN).putShort(daclOffset + 2, (short) 0xFFFF);
+        result = SDDL.tryParse(aclSize);
+        assertEquals(ParseResult.Code.INVALID_ACL_SIZE, result.getCode());
+        assertEquals(daclOffset + 2, result.getPosition());
+
+        final byte[] aceType = src.clone();
+        aceType[daclOffset + 8] = 0x7F;
+        result = SDDL.tryParse(aceType);
+        assertEquals(ParseResult.Code.UNKNOWN_ACE_TYPE, result.getCode());
+        assertEquals(daclOffset + 8, result.getPosition());
+
+        final byte[] aceSize = src.clone();
+        ByteBuffer.wrap(aceSize).order(ByteOrder.LITTLE_ENDIAN).putShort(daclOffset + 10, (short) 4);
+        assertEquals(ParseResult.Code.INVALID_ACE_SIZE, SDDL.tryParse(aceSize).getCode());
+
+        final int aceCount = buff.getShort(daclOffset + 4);
+        result = SDDL.tryParse(src, null, aceCount - 1);
+        assertEquals(ParseResult.Code.TOO_MANY_ACES, result.getCode());
+        assertNull(result.getSddl());
+
+        // hostile input never raises exceptions, and is parsed as usual once validated
+        final Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            final byte[] corrupt = Arrays.copyOf(src, random.nextInt(src.length + 1));
+            for (int j = random.nextInt(4); j >= 0 && corrupt.length > 0; j--) {
+                corrupt[random.nextInt(corrupt.length)] = (byte) random.nextInt(256);
+            }
+
+            final ParseResult res = SDDL.tryParse(corrupt);
+            if (res.isValid()) {
+                assertEquals(new SDDL(corrupt), res.getSddl());
+                res.getSddl().toByteArray();
+            } else {
+                assertTrue(res.getPosition() >= 0 && res.getPosition() <= corrupt.length);
+            }
+        }
+    }
+}